@@ -30,9 +30,12 @@ import it.andreuzzi.comparestring2.algs.interfaces.NormalizedStringSimilarity;
 import it.andreuzzi.comparestring2.algs.interfaces.NormalizedStringDistance;
 import it.andreuzzi.comparestring2.algs.interfaces.StringDistance;
 import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import it.andreuzzi.comparestring2.algs.interfaces.BoundedStringDistance;
+import it.andreuzzi.comparestring2.algs.interfaces.BoundedStringSimilarity;
 import it.andreuzzi.comparestring2.algs.Cosine;
 import it.andreuzzi.comparestring2.algs.NormalizedLevenshtein;
 import it.andreuzzi.comparestring2.algs.CharacterInsDelInterface;
+import it.andreuzzi.comparestring2.algs.CharacterCostTable;
 import it.andreuzzi.comparestring2.algs.Jaccard;
 import it.andreuzzi.comparestring2.algs.SorensenDice;
 import it.andreuzzi.comparestring2.algs.MetricLCS;
@@ -103,6 +106,41 @@ public class AlgMap {
          * @return      the result of the comparison returned by the chosen {@code alg}
          */
         float compare(Algorithm alg, String s1, String s2);
+        
+        /**
+         * 
+         * Like {@link AlgMap.Alg#compare(it.andreuzzi.comparestring2.algs.interfaces.Algorithm, java.lang.String, java.lang.String) compare(Algorithm, String, String)}, 
+         *  but the comparison may stop as soon as its result is known not to respect {@code bound}. The algorithms which implement 
+         *  {@link BoundedStringDistance} or {@link BoundedStringSimilarity} stop early, the others compute the whole result
+         * 
+         * @param alg   an instance of {@link Algorithm} built using {@link AlgMap.Alg#buildAlg(java.lang.Object...) buildAlg()}
+         * @param s1    the first {@link String} of the comparison
+         * @param s2    the second {@link String} of the comparison
+         * @param bound the min/max result the caller is interested in
+         * @return      the result of the comparison returned by the chosen {@code alg} if it is {@code >= bound} and 
+         *                  {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(this)} is {@code true}, 
+         *                  or {@code <= bound} and {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(this)}
+         *                  is {@code false}. Otherwise any value which does not respect {@code bound}
+         */
+        default float compare(Algorithm alg, String s1, String s2, float bound) {
+            return compare(alg, s1, s2);
+        }
+        
+        /**
+         * 
+         * A bound of the rank given by this algorithm, which depends only on the lengths of the two strings. The bound doesn't get better 
+         *  as {@code length2} moves away from {@code length1}, so that a list sorted by length can be pruned from the length of {@code s1} outwards
+         * 
+         * @param alg       an instance of {@link Algorithm} built using {@link AlgMap.Alg#buildAlg(java.lang.Object...) buildAlg()}
+         * @param length1   the length of the first {@link String} of the comparison
+         * @param length2   the length of the second {@link String} of the comparison
+         * @return          the best rank that {@code alg} may give to two strings whose lengths are {@code length1} and {@code length2}: an 
+         *                      upper bound if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(this)} is 
+         *                      {@code true}, a lower bound otherwise. The algorithms which don't have such a bound return an infinite value
+         */
+        default float lengthBound(Algorithm alg, int length1, int length2) {
+            return Utils.biggerIsBetter(this) ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY;
+        }
     }
     
     public static enum DistAlg implements Alg {
@@ -114,6 +152,11 @@ public class AlgMap {
             public Algorithm buildAlg(Object... args) {
                return new LongestCommonSubsequence();
             }
+            
+            @Override
+            public float lengthBound(Algorithm alg, int length1, int length2) {
+                return LengthBounds.editDistance(length1, length2);
+            }
         },
         /**
          * Check {@link OptimalStringAlignment}
@@ -123,6 +166,11 @@ public class AlgMap {
             public Algorithm buildAlg(Object... args) {
                return new OptimalStringAlignment();
             }
+            
+            @Override
+            public float lengthBound(Algorithm alg, int length1, int length2) {
+                return LengthBounds.editDistance(length1, length2);
+            }
         },
         /**
          * Check {@link QGram}
@@ -146,6 +194,9 @@ public class AlgMap {
             @Override
             public Algorithm buildAlg(Object... args) {
                WeightedLevenshtein w;
+                if (args.length > 0 && args[0] instanceof CharacterCostTable) {
+                    return new WeightedLevenshtein((CharacterCostTable) args[0]);
+                }
                 try {
                     w = new WeightedLevenshtein((CharacterSubstitutionInterface) args[0], (CharacterInsDelInterface) args[1]);
                 } catch(Exception e) {
@@ -185,6 +236,15 @@ public class AlgMap {
             
             return (float) ((StringDistance) alg).distance(s1, s2);
         }
+        
+        @Override
+        public float compare(Algorithm alg, String s1, String s2, float bound) {
+//            every result which rounds to a float <= bound is smaller than the next float, and is computed exactly
+            if(alg instanceof BoundedStringDistance && bound < Float.POSITIVE_INFINITY) {
+                return (float) ((BoundedStringDistance) alg).distance(s1, s2, Math.nextUp(bound));
+            }
+            return compare(alg, s1, s2);
+        }
     }
     
     public static enum NormDistAlg implements Alg {
@@ -232,6 +292,11 @@ public class AlgMap {
                 }
                 return q;
             }
+            
+            @Override
+            public float lengthBound(Algorithm alg, int length1, int length2) {
+                return 1 - LengthBounds.jaroWinklerSimilarity(alg, length1, length2);
+            }
         },
         /**
          * Check {@link MetricLCS}
@@ -242,6 +307,11 @@ public class AlgMap {
                MetricLCS q = new MetricLCS();
                return q;
             }
+            
+            @Override
+            public float lengthBound(Algorithm alg, int length1, int length2) {
+                return LengthBounds.metricLcsDistance(length1, length2);
+            }
         },
         /**
          * Check {@link NGram}
@@ -267,6 +337,11 @@ public class AlgMap {
                NormalizedLevenshtein q = new NormalizedLevenshtein();
                return q;
             }
+            
+            @Override
+            public float lengthBound(Algorithm alg, int length1, int length2) {
+                return LengthBounds.normalizedEditDistance(length1, length2);
+            }
         },
         /**
          * Check {@link SorensenDice}
@@ -310,6 +385,15 @@ public class AlgMap {
             
             return (float) ((NormalizedStringDistance) alg).distance(s1, s2);
         }
+        
+        @Override
+        public float compare(Algorithm alg, String s1, String s2, float bound) {
+//            every result which rounds to a float <= bound is smaller than the next float, and is computed exactly
+            if(alg instanceof BoundedStringDistance && bound < Float.POSITIVE_INFINITY) {
+                return (float) ((BoundedStringDistance) alg).distance(s1, s2, Math.nextUp(bound));
+            }
+            return compare(alg, s1, s2);
+        }
     }
     
     public static enum NormSimAlg implements Alg {
@@ -357,6 +441,11 @@ public class AlgMap {
                 }
                 return q;
             }
+            
+            @Override
+            public float lengthBound(Algorithm alg, int length1, int length2) {
+                return LengthBounds.jaroWinklerSimilarity(alg, length1, length2);
+            }
         },
         /**
          * Check {@link NormalizedLevenshtein}
@@ -367,6 +456,11 @@ public class AlgMap {
                NormalizedLevenshtein q = new NormalizedLevenshtein();
                return q;
             }
+            
+            @Override
+            public float lengthBound(Algorithm alg, int length1, int length2) {
+                return 1 - LengthBounds.normalizedEditDistance(length1, length2);
+            }
         },
         /**
          * Check {@link SorensenDice}
@@ -410,6 +504,15 @@ public class AlgMap {
             
             return (float) ((NormalizedStringSimilarity) alg).similarity(s1, s2);
         }
+        
+        @Override
+        public float compare(Algorithm alg, String s1, String s2, float bound) {
+//            every result which rounds to a float >= bound is greater than the previous float, and is computed exactly
+            if(alg instanceof BoundedStringSimilarity && bound > Float.NEGATIVE_INFINITY) {
+                return (float) ((BoundedStringSimilarity) alg).similarity(s1, s2, Math.nextDown(bound));
+            }
+            return compare(alg, s1, s2);
+        }
     }
     
     public static enum MetricDistAlg implements Alg {
@@ -422,6 +525,11 @@ public class AlgMap {
                Damerau q = new Damerau();
                return q;
             }
+            
+            @Override
+            public float lengthBound(Algorithm alg, int length1, int length2) {
+                return LengthBounds.editDistance(length1, length2);
+            }
         },
         /**
          * Check {@link Jaccard}
@@ -447,6 +555,11 @@ public class AlgMap {
                Levenshtein q = new Levenshtein();
                return q;
             }
+            
+            @Override
+            public float lengthBound(Algorithm alg, int length1, int length2) {
+                return LengthBounds.editDistance(length1, length2);
+            }
         },
         /**
          * Check {@link MetricLCS}
@@ -457,6 +570,11 @@ public class AlgMap {
                MetricLCS q = new MetricLCS();
                return q;
             }
+            
+            @Override
+            public float lengthBound(Algorithm alg, int length1, int length2) {
+                return LengthBounds.metricLcsDistance(length1, length2);
+            }
         };
         
         @Override
@@ -485,5 +603,14 @@ public class AlgMap {
             
             return (float) ((MetricStringDistance) alg).distance(s1, s2);
         }
+        
+        @Override
+        public float compare(Algorithm alg, String s1, String s2, float bound) {
+//            every result which rounds to a float <= bound is smaller than the next float, and is computed exactly
+            if(alg instanceof BoundedStringDistance && bound < Float.POSITIVE_INFINITY) {
+                return (float) ((BoundedStringDistance) alg).distance(s1, s2, Math.nextUp(bound));
+            }
+            return compare(alg, s1, s2);
+        }
     }
 }
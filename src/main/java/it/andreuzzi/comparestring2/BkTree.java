@@ -0,0 +1,224 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.MetricDistAlg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.Arrays;
+
+/**
+ * 
+ * A BK-tree (Burkhard and Keller, "Some approaches to best-match file searching", 1973) over the elements, for the algorithms in 
+ *      {@link MetricDistAlg}. Each node is an element, and its children are grouped by their distance from it.
+ * <p>
+ * Since the distance respects the triangle inequality, an element whose distance from a node is {@code key} has distance at least 
+ *      {@code |d - key|} from a query whose distance from the node is {@code d}. Range queries ({@code withDeadline}) visit only the children 
+ *      whose key is within the deadline from {@code d}, and nearest neighbours queries ({@code topNmatches}) shrink the range to the distance of 
+ *      the {@code n}-th best element found so far.
+ * <p>
+ * The index is exact: the results are the same (and in the same order) given by a comparison with every element. BK-trees work best with 
+ *      distances which take few values, like {@code LEVENSHTEIN} and {@code DAMERAU}.
+ * 
+ * @author francescoandreuzzi
+ */
+public class BkTree extends Corpus {
+    
+    /**
+     * The ranges are widened by this much, so that no element is discarded because of a rounding error
+     */
+    private static final float SLACK = 1e-6f;
+    
+    /**
+     * The children of node {@code i} are in {@code [offsets[i], offsets[i + 1])}, sorted by key (the distance from node {@code i}). NaN keys are the last
+     */
+    private final int[] offsets;
+    private final float[] keys;
+    private final int[] children;
+    
+    /**
+     * 
+     * @param ss          the {@code String[]} object whose elements will be compared
+     * @param alg         an instance of {@link MetricDistAlg}
+     * @param args        a list of Object that can be used to build an instance of {@link Algorithm}
+     */
+    public BkTree(String[] ss, MetricDistAlg alg, Object... args) {
+        this(ss, alg.buildAlg(args), alg);
+    }
+    
+    /**
+     * 
+     * @param ss          the {@code String[]} object whose elements will be compared
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link MetricDistAlg}. It must refer to the same algorithm referred by {@code algInstance}
+     */
+    public BkTree(String[] ss, Algorithm algInstance, MetricDistAlg alg) {
+        this(ss.length, wrap(ss), algInstance, alg);
+    }
+    
+    /**
+     * 
+     * @param ss          the {@code StringableObject[]} object whose elements will be compared
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link MetricDistAlg}. It must refer to the same algorithm referred by {@code algInstance}
+     */
+    public BkTree(StringableObject[] ss, Algorithm algInstance, MetricDistAlg alg) {
+        this(ss.length, Arrays.asList(ss), algInstance, alg);
+    }
+    
+    /**
+     * 
+     * @param size        the exact number of elements in {@code ss}
+     * @param ss          an {@link Iterable} object whose elements will be compared
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link MetricDistAlg}. It must refer to the same algorithm referred by {@code algInstance}
+     */
+    public BkTree(int size, Iterable<? extends StringableObject> ss, Algorithm algInstance, MetricDistAlg alg) {
+        super(size, ss, algInstance, alg);
+        
+//        while building, the children of each node are a linked list
+        int[] first = new int[size];
+        int[] sibling = new int[size];
+        float[] parentKeys = new float[size];
+        Arrays.fill(first, -1);
+        Arrays.fill(sibling, -1);
+        
+        for(int i = 1; i < size; i++) {
+            int node = 0;
+            while(true) {
+//                + 0f turns -0 into 0
+                float key = distance(strings[i], strings[node]) + 0f;
+                
+                int child = first[node];
+                while(child >= 0 && Float.floatToIntBits(parentKeys[child]) != Float.floatToIntBits(key)) {
+                    child = sibling[child];
+                }
+                
+                if(child < 0) {
+                    parentKeys[i] = key;
+                    sibling[i] = first[node];
+                    first[node] = i;
+                    break;
+                }
+                node = child;
+            }
+        }
+        
+        offsets = new int[size + 1];
+        keys = new float[Math.max(0, size - 1)];
+        children = new int[keys.length];
+        long[] entries = new long[0];
+        for(int i = 0; i < size; i++) {
+            int count = 0;
+            for(int child = first[i]; child >= 0; child = sibling[child]) {
+                if(count == entries.length) entries = Arrays.copyOf(entries, Math.max(4, 2 * count));
+//                keys are >= 0 or NaN, so the bits of the keys have the same order of the keys
+                entries[count++] = ((long) Float.floatToIntBits(parentKeys[child]) << 32) | child;
+            }
+            Arrays.sort(entries, 0, count);
+            
+            offsets[i + 1] = offsets[i] + count;
+            for(int c = 0; c < count; c++) {
+                keys[offsets[i] + c] = Float.intBitsToFloat((int) (entries[c] >>> 32));
+                children[offsets[i] + c] = (int) entries[c];
+            }
+        }
+    }
+    
+    private float distance(String s1, String s2) {
+        return Utils.compare(s1, s2, algInstance, alg);
+    }
+    
+    @Override
+    CompareItem[] buildComparePack(String s1, int n, float deadline) {
+        final String ss1 = Utils.normalize(s1);
+        boolean everything = Float.isInfinite(deadline);
+        if(items.length == 0 || n <= 0) {
+            return new CompareItem[0];
+        }
+        TopN best = new TopN(n, false);
+        
+        int[] stack = new int[16];
+        float[] bounds = new float[16];
+        int top = 0;
+        stack[top] = 0;
+        bounds[top++] = 0;
+        
+        while(top > 0) {
+            int node = stack[--top];
+            float bound = bounds[top];
+            
+//            the n best elements found so far, or the deadline, limit the range
+            float radius = deadline;
+            if(best.isFull()) {
+                float worst = best.worstRank();
+                radius = Float.isNaN(worst) ? radius : Math.min(radius, worst);
+            }
+            if(bound > radius + SLACK) {
+                continue;
+            }
+            
+            float d = distance(ss1, strings[node]);
+            if(everything || d <= deadline) {
+                best.offer(d, items[node], node);
+                if(best.isFull()) {
+                    float worst = best.worstRank();
+                    radius = Float.isNaN(worst) ? radius : Math.min(radius, worst);
+                }
+            }
+            
+            int from = offsets[node], to = offsets[node + 1];
+            if(top + to - from > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(2 * stack.length, top + to - from));
+                bounds = Arrays.copyOf(bounds, stack.length);
+            }
+            
+//            children with a NaN key, or every child if d is NaN, can't be pruned
+            int nan = to;
+            while(nan > from && Float.isNaN(keys[nan - 1])) nan--;
+            int lo = from, hi = nan - 1;
+            if(Float.isNaN(d)) {
+                hi = from - 1;
+                nan = from;
+            }
+            for(int c = nan; c < to; c++) {
+                stack[top] = children[c];
+                bounds[top++] = 0;
+            }
+            
+//            the children in [d - radius, d + radius], pushed from the farthest so that the nearest are visited first
+            float min = d - radius - SLACK, max = d + radius + SLACK;
+            while(lo <= hi && keys[lo] < min) lo++;
+            while(hi >= lo && keys[hi] > max) hi--;
+            while(lo <= hi) {
+                int c;
+                if(d - keys[lo] >= keys[hi] - d) c = lo++;
+                else c = hi--;
+                stack[top] = children[c];
+                bounds[top++] = Math.abs(d - keys[c]);
+            }
+        }
+        
+        return best.drain();
+    }
+}
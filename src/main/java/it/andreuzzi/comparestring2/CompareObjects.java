@@ -25,8 +25,11 @@
 
 package it.andreuzzi.comparestring2;
 
+import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 import it.andreuzzi.comparestring2.AlgMap.Alg;
 import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
 
@@ -38,24 +41,28 @@ import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
  */
 public class CompareObjects {
     
-    private static final CustomComparator<CompareItem> comparator = new CustomComparator<>();
-    
     /**
      * 
      * @param s1          the first {@link String} of the comparison
      * @param s2          an {@link Iterable<T>} object whose elements will be compared to {@code s1}
-     * @param size        the exact number of elements in {@code s2}
+     * @param n           the max number of elements in the returned array
+     * @param deadline    the min/max rank of the elements in the returned array, or {@code NaN} if every element (even the ones whose rank 
+     *                      is {@code NaN}) may be returned
      * @param splitters   refer to {@link CompareObjects#checkSplits checkSplits}
      * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
      * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
-     * @return            a sorted array of {@link CompareItem} containing information about the comparison of each element with {@code s1}. 
-     *                      The array is sorted with respect of the sorting order given by the chosen {@link Algorithm}
+     * @return            a sorted array of {@link CompareItem} containing the best {@code n} elements which respect {@code deadline}. 
+     *                      The array is sorted with respect of the sorting order given by the chosen {@link Algorithm}. Only these 
+     *                      elements are kept while {@code s2} is scanned, in a {@link TopN} heap
      * @see               CompareItem
      */
-    private static <T extends StringableObject> CompareItem[] buildComparePack(String s1, Iterable<T> s2, int size, String[] splitters, Algorithm algInstance, Alg alg) {
+    private static <T extends StringableObject> CompareItem[] buildComparePack(String s1, Iterable<T> s2, int n, float deadline, String[] splitters, Algorithm algInstance, Alg alg) {
         final String ss1 = Utils.normalize(s1);
+        final boolean biggerIsBetter = Utils.biggerIsBetter(alg);
+        
+        final float limit = Float.isNaN(deadline) ? Corpus.noDeadline(alg) : deadline;
         
-        CompareItem[] toReturn = new CompareItem[size];
+        TopN best = new TopN(n, biggerIsBetter);
         Iterator<? extends StringableObject> it = s2.iterator();
         
         int counter = 0;
@@ -65,19 +72,87 @@ public class CompareObjects {
             StringableObject t = it.next();
             String st = Utils.normalize(t.getLowercaseString());
             
+//            the element is skipped by its length, or its comparison stops, as soon as it can't respect the deadline, nor enter the heap
+            float bound = best.bound(limit);
+            if(splitters == null && !LengthBounds.reachable(alg.lengthBound(algInstance, ss1.length(), st.length()), bound, biggerIsBetter)) {
+                counter++;
+                continue;
+            }
+            
             if(splitters != null) {
-                result = Utils.checkSplits(ss1, st, splitters, algInstance, alg);
+                result = Utils.checkSplits(ss1, st, splitters, algInstance, alg, bound);
             } else {
-                result = Utils.compare(ss1, st, algInstance, alg);
+                result = Utils.compare(ss1, st, algInstance, alg, bound);
             }
             
-            toReturn[counter++] = new CompareItem(t, result);
+            if(Float.isNaN(deadline) || Utils.respectsDeadline(result, deadline, biggerIsBetter)) {
+                best.offer(result, t, counter);
+            }
+            counter++;
         }
         
-        comparator.biggerIsBetter = Utils.biggerIsBetter(alg);
-        Arrays.sort(toReturn, comparator);
+        return best.drain();
+    }
+    
+    /**
+     * 
+     * Like {@link #buildComparePack buildComparePack} with {@code n = Integer.MAX_VALUE}, but the matches are kept in a {@link ScoreBuffer}: 
+     *      no {@link CompareItem} is created, and the returned array is built from the sorted slots.
+     * 
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param s2          an {@link Iterable<T>} object whose elements will be compared to {@code s1}
+     * @param deadline    the min/max rank of the elements in the returned array, or {@code NaN} if every element may be returned
+     * @param splitters   refer to {@link CompareObjects#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            the elements of {@code s2} which respect {@code deadline}, sorted like {@link #buildComparePack buildComparePack} does
+     */
+    private static <T extends StringableObject> T[] collectWithDeadline(Class<T> clazz, String s1, Iterable<T> s2, float deadline, String[] splitters, Algorithm algInstance, Alg alg) {
+        final String ss1 = Utils.normalize(s1);
+        final boolean biggerIsBetter = Utils.biggerIsBetter(alg);
+        
+        final float limit = Float.isNaN(deadline) ? Corpus.noDeadline(alg) : deadline;
         
-        return toReturn;
+        ScoreBuffer<T> matches = new ScoreBuffer<T>(biggerIsBetter, length -> newArray(clazz, length)) {
+            @Override
+            int compareTies(T c1, String k1, T c2, String k2) {
+                return CustomComparator.compare(0, c1, 0, c2, biggerIsBetter);
+            }
+        };
+        
+        for(T t : s2) {
+            float result;
+            String st = Utils.normalize(t.getLowercaseString());
+            
+            if(splitters == null && !LengthBounds.reachable(alg.lengthBound(algInstance, ss1.length(), st.length()), limit, biggerIsBetter)) {
+                continue;
+            }
+            
+            if(splitters != null) {
+                result = Utils.checkSplits(ss1, st, splitters, algInstance, alg, limit);
+            } else {
+                result = Utils.compare(ss1, st, algInstance, alg, limit);
+            }
+            
+            if(Float.isNaN(deadline) || Utils.respectsDeadline(result, deadline, biggerIsBetter)) {
+                matches.add(result, t, null);
+            }
+        }
+        
+        return matches.get(matches.sort(Integer.MAX_VALUE));
+    }
+    
+    /**
+     * 
+     * @param <T>       the class of the elements of the returned array
+     * @param clazz     the class of the elements of the returned array
+     * @param length    the length of the returned array
+     * @return          a new array of {@code T}
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T[] newArray(Class<T> clazz, int length) {
+        return (T[]) Array.newInstance(clazz, length);
     }
     
 //    ----------------------------------------------------------------------------------------------------------------
@@ -468,7 +543,7 @@ public class CompareObjects {
      * @return            a sorted array of {@code T} of length {@code n}. The sorting operation is based on the ranks given by the algorithm {@code alg}
      */
     public static <T extends StringableObject> T[] topNmatches(Class<T> clazz, String s1, int size, Iterable<T> ss, int n, String[] splitters, Algorithm algInstance, Alg alg) {
-        CompareItem[] items = buildComparePack(s1,ss, size, splitters, algInstance, alg);
+        CompareItem[] items = buildComparePack(s1, ss, n, Float.NaN, splitters, algInstance, alg);
         return Utils.gather(clazz, items, n);
     }
     
@@ -542,9 +617,7 @@ public class CompareObjects {
      *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}
      */
     public static <T extends StringableObject> T[] withDeadline(Class<T> clazz, String s1, int size, Iterable<T> ss, float deadline, String[] splitters, Algorithm algInstance, Alg alg) {
-        CompareItem[] items = buildComparePack(s1,ss, size, splitters, algInstance, alg);
-        int cutIndex = Utils.firstBeyondDeadline(items, deadline, Utils.biggerIsBetter(alg));
-        return Utils.gather(clazz, items, cutIndex);
+        return collectWithDeadline(clazz, s1, ss, deadline, splitters, algInstance, alg);
     }
     
 //    --------------------------------------------------------    
@@ -621,9 +694,406 @@ public class CompareObjects {
      *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}
      */
     public static <T extends StringableObject> T[] topMatchesWithDeadline(Class<T> clazz, String s1, int size, Iterable<T> ss, int n, float deadline, String[] splitters, Algorithm algInstance, Alg alg) {
-        CompareItem[] items = buildComparePack(s1,ss, size, splitters, algInstance, alg);
-        int cutIndex = Utils.firstBeyondDeadline(items, deadline, Utils.biggerIsBetter(alg));
+        CompareItem[] items = buildComparePack(s1, ss, n, deadline, splitters, algInstance, alg);
+        return Utils.gather(clazz, items, n);
+    }
+    
+//    ----------------------------------------------------------------------------------------------------------------
+    
+    /**
+     * 
+     * Like {@link #streamWithDeadline(java.lang.String, java.lang.Iterable, float, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg) streamWithDeadline},
+     *      but every element of {@code ss} is returned.
+     * 
+     * @param <T>         the class of the elements of {@code ss}
+     * @param s1          the first {@link String} of the comparison
+     * @param ss          an {@link Iterable} object (of any size) whose elements will be compared to {@code s1}
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            a sorted {@link Stream} of {@link CompareItem}, one for each element of {@code ss}
+     */
+    public static <T extends StringableObject> Stream<CompareItem> streamMatches(String s1, Iterable<T> ss, String[] splitters, Algorithm algInstance, Alg alg) {
+        return streamWithDeadline(s1, ss, Float.NaN, splitters, algInstance, alg);
+    }
+    
+    /**
+     * 
+     * {@code ss} is scanned once, when the first element of the returned {@link Stream} is consumed. Then the matches are sorted lazily: 
+     *      {@code streamWithDeadline(...).limit(n)} gives the same elements of 
+     *      {@link #topMatchesWithDeadline(java.lang.Class, java.lang.String, int, java.lang.Iterable, int, float, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg) topMatchesWithDeadline},
+     *      without knowing the size of {@code ss}.
+     * 
+     * @param <T>         the class of the elements of {@code ss}
+     * @param s1          the first {@link String} of the comparison
+     * @param ss          an {@link Iterable} object (of any size) whose elements will be compared to {@code s1}
+     * @param deadline    the min/max rank of the elements in the returned {@link Stream}
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            a sorted {@link Stream} of {@link CompareItem} containing only elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}.
+     *                      {@link CompareItem#o} is an element of {@code ss}
+     */
+    public static <T extends StringableObject> Stream<CompareItem> streamWithDeadline(String s1, Iterable<T> ss, float deadline, String[] splitters, Algorithm algInstance, Alg alg) {
+        return new LazyRanking<T>(s1, ss, deadline, splitters, algInstance, alg) {
+            @Override
+            String normalized(int i, T t) {
+                return Utils.normalize(t.getLowercaseString());
+            }
+
+            @Override
+            StringableObject object(int i, T t, String st) {
+                return t;
+            }
+        }.stream();
+    }
+    
+//    ----------------------------------------------------------------------------------------------------------------
+    
+    /**
+     * 
+     * The elements of {@code ss} are split in chunks, which are compared to {@code s1} by the threads of {@code pool}. The result is the same 
+     *      given by the sequential version of the method. {@code algInstance} is shared by the threads, the algorithms in {@link AlgMap} may 
+     *      be used concurrently.
+     * 
+     * @param <T>         the class of {@code ss}
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param ss          the {@code T[]} object whose elements will be compared to {@code s1}
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons, for instance {@link ForkJoinPool#commonPool()}
+     * @return            the single best match of {@code s1} with each element of {@code ss}, found using the given {@link Alg} {@code alg}
+     */
+    public static <T extends StringableObject> T parallelBestMatch(Class<T> clazz, String s1, T[] ss, String[] splitters, Algorithm algInstance, Alg alg, ForkJoinPool pool) {
+        T[] matches = parallelTopNmatches(clazz, s1, ss, 1, splitters, algInstance, alg, pool);
+        if(matches == null || matches.length == 0) return null;
+        return matches[0];
+    }
+    
+    /**
+     * 
+     * The parallel version of {@link #topNmatches(java.lang.Class, java.lang.String, it.andreuzzi.comparestring2.StringableObject[], int, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg) topNmatches}.
+     *      Check {@link #parallelBestMatch parallelBestMatch}.
+     * 
+     * @param <T>         the class of {@code ss}
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param ss          the {@code T[]} object whose elements will be compared to {@code s1}
+     * @param n           the length of the returned array object
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons
+     * @return            a sorted array of {@code T} of length {@code n}. The sorting operation is based on the results given by the algorithm {@code alg}
+     */
+    public static <T extends StringableObject> T[] parallelTopNmatches(Class<T> clazz, String s1, T[] ss, int n, String[] splitters, Algorithm algInstance, Alg alg, ForkJoinPool pool) {
+        CompareItem[] items = buildComparePack(s1, ss, n, Float.NaN, splitters, algInstance, alg, pool);
+        return Utils.gather(clazz, items, n);
+    }
+    
+    /**
+     * 
+     * The parallel version of {@link #withDeadline(java.lang.Class, java.lang.String, it.andreuzzi.comparestring2.StringableObject[], float, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg) withDeadline}.
+     *      Check {@link #parallelBestMatch parallelBestMatch}.
+     * 
+     * @param <T>         the class of {@code ss}
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param ss          the {@code T[]} object whose elements will be compared to {@code s1}
+     * @param deadline    the min/max rank of the elements in the array which is returned
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons
+     * @return            a sorted array of {@code T} containing only elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}
+     */
+    public static <T extends StringableObject> T[] parallelWithDeadline(Class<T> clazz, String s1, T[] ss, float deadline, String[] splitters, Algorithm algInstance, Alg alg, ForkJoinPool pool) {
+        CompareItem[] items = buildComparePack(s1, ss, Integer.MAX_VALUE, deadline, splitters, algInstance, alg, pool);
+        return Utils.gather(clazz, items, items.length);
+    }
+    
+    /**
+     * 
+     * The parallel version of {@link #topMatchesWithDeadline(java.lang.Class, java.lang.String, it.andreuzzi.comparestring2.StringableObject[], int, float, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg) topMatchesWithDeadline}.
+     *      Check {@link #parallelBestMatch parallelBestMatch}.
+     * 
+     * @param <T>         the class of {@code ss}
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param ss          the {@code T[]} object whose elements will be compared to {@code s1}
+     * @param n           the maximum number of elements of the returned array
+     * @param deadline    the min/max rank of the elements in the array which is returned
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons
+     * @return            a sorted array of {@code T} containing at most {@code n} elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}
+     */
+    public static <T extends StringableObject> T[] parallelTopMatchesWithDeadline(Class<T> clazz, String s1, T[] ss, int n, float deadline, String[] splitters, Algorithm algInstance, Alg alg, ForkJoinPool pool) {
+        CompareItem[] items = buildComparePack(s1, ss, n, deadline, splitters, algInstance, alg, pool);
+        return Utils.gather(clazz, items, n);
+    }
+    
+    /**
+     * 
+     * Check {@link IndexedScan}.
+     * 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons
+     * @see               #buildComparePack(java.lang.String, java.lang.Iterable, int, float, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg)
+     */
+    private static CompareItem[] buildComparePack(String s1, final StringableObject[] ss, int n, float deadline, String[] splitters, Algorithm algInstance, Alg alg, ForkJoinPool pool) {
+        return new IndexedScan(s1, ss.length, n, deadline, splitters, algInstance, alg) {
+            @Override
+            String normalized(int i) {
+                return Utils.normalize(ss[i].getLowercaseString());
+            }
+
+            @Override
+            StringableObject object(int i, String st) {
+                return ss[i];
+            }
+        }.buildComparePack(pool);
+    }
+    
+//    ----------------------------------------------------------------------------------------------------------------
+    
+    /**
+     * @param <T>         the class of the elements of {@code corpus}
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements will be compared to {@code s1}
+     * @return            the single best match of {@code s1} within {@code corpus}, found using the {@link Alg} of {@code corpus}
+     */
+    public static <T extends StringableObject> T bestMatch(Class<T> clazz, String s1, Corpus corpus) {
+        T[] matches = topNmatches(clazz, s1, corpus, 1);
+        if(matches == null || matches.length == 0) return null;
+        return matches[0];
+    }
+    
+    /**
+     * @param <T>         the class of the elements of {@code corpus}
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements will be compared to {@code s1}
+     * @param n           the length of the returned array object
+     * @return            a sorted array of {@code T} of length {@code n}. The sorting operation is based on the results given by the {@link Alg} of {@code corpus}
+     */
+    public static <T extends StringableObject> T[] topNmatches(Class<T> clazz, String s1, Corpus corpus, int n) {
+        CompareItem[] items = corpus.buildComparePack(s1, n, Corpus.noDeadline(corpus.getAlg()));
+        return Utils.gather(clazz, items, n);
+    }
+    
+    /**
+     * @param <T>         the class of the elements of {@code corpus}
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements will be compared to {@code s1}
+     * @param deadline    the min/max rank of the elements in the array which is returned
+     * @return            a sorted array of {@code T} containing only elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(corpus.getAlg())} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(corpus.getAlg())} is {@code false}
+     */
+    public static <T extends StringableObject> T[] withDeadline(Class<T> clazz, String s1, Corpus corpus, float deadline) {
+        CompareItem[] items = corpus.buildComparePack(s1, Integer.MAX_VALUE, deadline);
+        int cutIndex = Utils.firstBeyondDeadline(items, deadline, Utils.biggerIsBetter(corpus.getAlg()));
+        return Utils.gather(clazz, items, cutIndex);
+    }
+    
+    /**
+     * @param <T>         the class of the elements of {@code corpus}
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements will be compared to {@code s1}
+     * @param n           the maximum number of elements of the returned array
+     * @param deadline    the min/max rank of the elements in the array which is returned
+     * @return            a sorted array of {@code T} containing at most {@code n} elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(corpus.getAlg())} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(corpus.getAlg())} is {@code false}
+     */
+    public static <T extends StringableObject> T[] topMatchesWithDeadline(Class<T> clazz, String s1, Corpus corpus, int n, float deadline) {
+        CompareItem[] items = corpus.buildComparePack(s1, n, deadline);
+        int cutIndex = Utils.firstBeyondDeadline(items, deadline, Utils.biggerIsBetter(corpus.getAlg()));
         return Utils.gather(clazz, items, Math.min(cutIndex, n));
     }
     
+//    ----------------------------------------------------------------------------------------------------------------
+    
+    /**
+     * @param <T>         the class of the elements of {@code corpus}
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            the single best match of {@code s1} within {@code corpus}, found using the given {@link Alg}
+     */
+    public static <T extends StringableObject> T bestMatch(Class<T> clazz, String s1, Corpus corpus, String[] splitters, Algorithm algInstance, Alg alg) {
+        T[] matches = topNmatches(clazz, s1, corpus, 1, splitters, algInstance, alg);
+        if(matches == null || matches.length == 0) return null;
+        return matches[0];
+    }
+    
+    /**
+     * @param <T>         the class of the elements of {@code corpus}
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param n           the length of the returned array object
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            a sorted array of {@code T} of length {@code n}. The sorting operation is based on the results given by the algorithm {@code alg}
+     */
+    public static <T extends StringableObject> T[] topNmatches(Class<T> clazz, String s1, Corpus corpus, int n, String[] splitters, Algorithm algInstance, Alg alg) {
+        CompareItem[] items = corpus.scan(s1, n, Float.NaN, splitters, algInstance, alg).buildComparePack();
+        return Utils.gather(clazz, items, n);
+    }
+    
+    /**
+     * @param <T>         the class of the elements of {@code corpus}
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param deadline    the min/max rank of the elements in the array which is returned
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            a sorted array of {@code T} containing only elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}
+     */
+    public static <T extends StringableObject> T[] withDeadline(Class<T> clazz, String s1, Corpus corpus, float deadline, String[] splitters, Algorithm algInstance, Alg alg) {
+        StringableObject[] objs = corpus.scan(s1, Integer.MAX_VALUE, deadline, splitters, algInstance, alg).collect();
+        T[] array = newArray(clazz, objs.length);
+        System.arraycopy(objs, 0, array, 0, objs.length);
+        return array;
+    }
+    
+    /**
+     * @param <T>         the class of the elements of {@code corpus}
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param n           the maximum number of elements of the returned array
+     * @param deadline    the min/max rank of the elements in the array which is returned
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            a sorted array of {@code T} containing at most {@code n} elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}
+     */
+    public static <T extends StringableObject> T[] topMatchesWithDeadline(Class<T> clazz, String s1, Corpus corpus, int n, float deadline, String[] splitters, Algorithm algInstance, Alg alg) {
+        CompareItem[] items = corpus.scan(s1, n, deadline, splitters, algInstance, alg).buildComparePack();
+        return Utils.gather(clazz, items, n);
+    }
+    
+    /**
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            a sorted {@link Stream} of {@link CompareItem}, one for each element of {@code corpus}. Check 
+     *                      {@link #streamWithDeadline(java.lang.String, java.lang.Iterable, float, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg) streamWithDeadline}
+     */
+    public static Stream<CompareItem> streamMatches(String s1, Corpus corpus, String[] splitters, Algorithm algInstance, Alg alg) {
+        return corpus.rank(s1, Float.NaN, splitters, algInstance, alg).stream();
+    }
+    
+    /**
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param deadline    the min/max rank of the elements in the returned {@link Stream}
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            a sorted {@link Stream} of {@link CompareItem} containing only elements which respect {@code deadline}. Check 
+     *                      {@link #streamWithDeadline(java.lang.String, java.lang.Iterable, float, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg) streamWithDeadline}
+     */
+    public static Stream<CompareItem> streamWithDeadline(String s1, Corpus corpus, float deadline, String[] splitters, Algorithm algInstance, Alg alg) {
+        return corpus.rank(s1, deadline, splitters, algInstance, alg).stream();
+    }
+    
+    /**
+     * @param <T>         the class of the elements of {@code corpus}
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons. Check {@link #parallelBestMatch parallelBestMatch}
+     * @return            the single best match of {@code s1} within {@code corpus}, found using the given {@link Alg}
+     */
+    public static <T extends StringableObject> T parallelBestMatch(Class<T> clazz, String s1, Corpus corpus, String[] splitters, Algorithm algInstance, Alg alg, ForkJoinPool pool) {
+        T[] matches = parallelTopNmatches(clazz, s1, corpus, 1, splitters, algInstance, alg, pool);
+        if(matches == null || matches.length == 0) return null;
+        return matches[0];
+    }
+    
+    /**
+     * @param <T>         the class of the elements of {@code corpus}
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param n           the length of the returned array object
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons. Check {@link #parallelBestMatch parallelBestMatch}
+     * @return            a sorted array of {@code T} of length {@code n}. The sorting operation is based on the results given by the algorithm {@code alg}
+     */
+    public static <T extends StringableObject> T[] parallelTopNmatches(Class<T> clazz, String s1, Corpus corpus, int n, String[] splitters, Algorithm algInstance, Alg alg, ForkJoinPool pool) {
+        CompareItem[] items = corpus.scan(s1, n, Float.NaN, splitters, algInstance, alg).buildComparePack(pool);
+        return Utils.gather(clazz, items, n);
+    }
+    
+    /**
+     * @param <T>         the class of the elements of {@code corpus}
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param deadline    the min/max rank of the elements in the array which is returned
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons. Check {@link #parallelBestMatch parallelBestMatch}
+     * @return            a sorted array of {@code T} containing only elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}
+     */
+    public static <T extends StringableObject> T[] parallelWithDeadline(Class<T> clazz, String s1, Corpus corpus, float deadline, String[] splitters, Algorithm algInstance, Alg alg, ForkJoinPool pool) {
+        CompareItem[] items = corpus.scan(s1, Integer.MAX_VALUE, deadline, splitters, algInstance, alg).buildComparePack(pool);
+        return Utils.gather(clazz, items, items.length);
+    }
+    
+    /**
+     * @param <T>         the class of the elements of {@code corpus}
+     * @param clazz       the class of the returned array
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param n           the maximum number of elements of the returned array
+     * @param deadline    the min/max rank of the elements in the array which is returned
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons. Check {@link #parallelBestMatch parallelBestMatch}
+     * @return            a sorted array of {@code T} containing at most {@code n} elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}
+     */
+    public static <T extends StringableObject> T[] parallelTopMatchesWithDeadline(Class<T> clazz, String s1, Corpus corpus, int n, float deadline, String[] splitters, Algorithm algInstance, Alg alg, ForkJoinPool pool) {
+        CompareItem[] items = corpus.scan(s1, n, deadline, splitters, algInstance, alg).buildComparePack(pool);
+        return Utils.gather(clazz, items, n);
+    }
 }
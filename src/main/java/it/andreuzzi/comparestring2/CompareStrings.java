@@ -26,51 +26,116 @@ package it.andreuzzi.comparestring2;
 import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 /**
  *
  * @author francescoandreuzzi
  */
 public class CompareStrings {
-    private static final CustomComparator<CompareItem> comparator = new CustomComparator<>();
     
     /**
      * 
      * @param s1          the first {@link String} of the comparison
      * @param s2          an {@link Iterable} object whose elements will be compared to {@code s1}
-     * @param size        the exact number of elements in {@code s2}
+     * @param n           the max number of elements in the returned array
+     * @param deadline    the min/max rank of the elements in the returned array, or {@code NaN} if every element (even the ones whose rank 
+     *                      is {@code NaN}) may be returned
      * @param splitters   refer to {@link CompareObjects#checkSplits checkSplits}
      * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
      * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
-     * @return            a sorted array of {@link CompareItem} containing information about the comparison of each element with {@code s1}. 
-     *                      The array is sorted with respect of the sorting order given by the chosen {@link Algorithm}
+     * @return            a sorted array of {@link CompareItem} containing the best {@code n} elements which respect {@code deadline}. 
+     *                      The array is sorted with respect of the sorting order given by the chosen {@link Algorithm}. Only these 
+     *                      elements are kept while {@code s2} is scanned, in a {@link TopN} heap
      * @see               CompareItem
      */
-    private static CompareItem[] buildComparePack(String s1, Iterable<String> s2, int size, String[] splitters, Algorithm algInstance, AlgMap.Alg alg) {
+    private static CompareItem[] buildComparePack(String s1, Iterable<String> s2, int n, float deadline, String[] splitters, Algorithm algInstance, AlgMap.Alg alg) {
         final String ss1 = Utils.normalize(s1);
+        final boolean biggerIsBetter = Utils.biggerIsBetter(alg);
         
-        CompareItem[] toReturn = new CompareItem[size];
+        final float limit = Float.isNaN(deadline) ? Corpus.noDeadline(alg) : deadline;
+        
+        TopN best = new TopN(n, biggerIsBetter);
         Iterator<String> it = s2.iterator();
         
         int counter = 0;
         while(it.hasNext()) {
             float result;
             
-            String st = Utils.normalize(it.next());
+            String s = it.next();
+            String st = Utils.normalize(s);
+            
+//            the element is skipped by its length, or its comparison stops, as soon as it can't respect the deadline, nor enter the heap
+            float bound = best.bound(limit);
+            if(splitters == null && !LengthBounds.reachable(alg.lengthBound(algInstance, ss1.length(), st.length()), bound, biggerIsBetter)) {
+                counter++;
+                continue;
+            }
             
             if(splitters != null) {
-                result = Utils.checkSplits(ss1, st, splitters, algInstance, alg);
+                result = Utils.checkSplits(ss1, st, splitters, algInstance, alg, bound);
             } else {
-                result = Utils.compare(ss1, st, algInstance, alg);
+                result = Utils.compare(ss1, st, algInstance, alg, bound);
             }
             
-            toReturn[counter++] = new CompareItem(new StringableStringWrapper(st), result);
+//            the wrapper is created only for the elements which may enter the heap. Ties are broken by the normalized string
+            if((Float.isNaN(deadline) || Utils.respectsDeadline(result, deadline, biggerIsBetter)) && best.accepts(result)) {
+                best.offer(result, new StringableStringWrapper(s, st), counter);
+            }
+            counter++;
         }
         
-        comparator.biggerIsBetter = Utils.biggerIsBetter(alg);
-        Arrays.sort(toReturn, comparator);
+        return best.drain();
+    }
+    
+    /**
+     * 
+     * Like {@link #buildComparePack buildComparePack} with {@code n = Integer.MAX_VALUE}, but the matches are kept in a {@link ScoreBuffer}: 
+     *      no object is created for the elements of {@code s2}, and the returned array is built from the sorted slots.
+     * 
+     * @param s1          the first {@link String} of the comparison
+     * @param s2          an {@link Iterable} object whose elements will be compared to {@code s1}
+     * @param deadline    the min/max rank of the elements in the returned array, or {@code NaN} if every element may be returned
+     * @param splitters   refer to {@link CompareObjects#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            the elements of {@code s2} which respect {@code deadline}, sorted like {@link #buildComparePack buildComparePack} does
+     */
+    private static String[] collectWithDeadline(String s1, Iterable<String> s2, float deadline, String[] splitters, Algorithm algInstance, AlgMap.Alg alg) {
+        final String ss1 = Utils.normalize(s1);
+        final boolean biggerIsBetter = Utils.biggerIsBetter(alg);
+        
+        final float limit = Float.isNaN(deadline) ? Corpus.noDeadline(alg) : deadline;
         
-        return toReturn;
+//        the elements with the same rank are sorted by their normalized string, like two StringableStringWrapper
+        ScoreBuffer<String> matches = new ScoreBuffer<String>(biggerIsBetter, String[]::new) {
+            @Override
+            int compareTies(String c1, String k1, String c2, String k2) {
+                return k1.compareTo(k2);
+            }
+        };
+        
+        for(String s : s2) {
+            float result;
+            String st = Utils.normalize(s);
+            
+            if(splitters == null && !LengthBounds.reachable(alg.lengthBound(algInstance, ss1.length(), st.length()), limit, biggerIsBetter)) {
+                continue;
+            }
+            
+            if(splitters != null) {
+                result = Utils.checkSplits(ss1, st, splitters, algInstance, alg, limit);
+            } else {
+                result = Utils.compare(ss1, st, algInstance, alg, limit);
+            }
+            
+            if(Float.isNaN(deadline) || Utils.respectsDeadline(result, deadline, biggerIsBetter)) {
+                matches.add(result, s, st);
+            }
+        }
+        
+        return matches.get(matches.sort(Integer.MAX_VALUE));
     }
     
 //    ----------------------------------------------------------------------------------------------------------------
@@ -413,8 +478,8 @@ public class CompareStrings {
      * @return            a sorted {@code String[]} of length {@code n}. The sorting operation is based on the ranks given by the algorithm {@code alg}
      */
     public static String[] topNmatches(String s1, int size, Iterable<String> ss, int n, String[] splitters, Algorithm algInstance, AlgMap.Alg alg) {
-        CompareItem[] items = buildComparePack(s1, ss, size, splitters, algInstance, alg);
-        return Utils.gather(String.class, items, n);
+        CompareItem[] items = buildComparePack(s1, ss, n, Float.NaN, splitters, algInstance, alg);
+        return gather(items, n);
     }
     
 //    --------------------------------------------------------
@@ -479,9 +544,7 @@ public class CompareStrings {
      *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}
      */
     public static String[] withDeadline(String s1, int size, Iterable<String> ss, float deadline, String[] splitters, Algorithm algInstance, AlgMap.Alg alg) {
-        CompareItem[] items = buildComparePack(s1, ss, size, splitters, algInstance, alg);
-        int cutIndex = Utils.firstBeyondDeadline(items, deadline, Utils.biggerIsBetter(alg));
-        return Utils.gather(String.class, items, cutIndex);
+        return collectWithDeadline(s1, ss, deadline, splitters, algInstance, alg);
     }
     
 //    --------------------------------------------------------    
@@ -550,8 +613,388 @@ public class CompareStrings {
      *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}
      */
     public static String[] topMatchesWithDeadline(String s1, int size, Iterable<String> ss, int n, float deadline, String[] splitters, Algorithm algInstance, AlgMap.Alg alg) {
-        CompareItem[] items = buildComparePack(s1, ss, size, splitters, algInstance, alg);
-        int cutIndex = Utils.firstBeyondDeadline(items, deadline, Utils.biggerIsBetter(alg));
-        return Utils.gather(String.class, items, Math.min(cutIndex, n));
+        CompareItem[] items = buildComparePack(s1, ss, n, deadline, splitters, algInstance, alg);
+        return gather(items, n);
+    }
+    
+//    ----------------------------------------------------------------------------------------------------------------
+    
+    /**
+     * 
+     * Like {@link #streamWithDeadline(java.lang.String, java.lang.Iterable, float, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg) streamWithDeadline},
+     *      but every element of {@code ss} is returned.
+     * 
+     * @param s1          the first {@link String} of the comparison
+     * @param ss          an {@link Iterable} object (of any size) whose elements will be compared to {@code s1}
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link AlgMap.Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            a sorted {@link Stream} of {@link CompareItem}, one for each element of {@code ss}
+     */
+    public static Stream<CompareItem> streamMatches(String s1, Iterable<String> ss, String[] splitters, Algorithm algInstance, AlgMap.Alg alg) {
+        return streamWithDeadline(s1, ss, Float.NaN, splitters, algInstance, alg);
+    }
+    
+    /**
+     * 
+     * {@code ss} is scanned once, when the first element of the returned {@link Stream} is consumed. Then the matches are sorted lazily: 
+     *      {@code streamWithDeadline(...).limit(n)} gives the same elements of 
+     *      {@link #topMatchesWithDeadline(java.lang.String, int, java.lang.Iterable, int, float, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg) topMatchesWithDeadline},
+     *      without knowing the size of {@code ss}.
+     * 
+     * @param s1          the first {@link String} of the comparison
+     * @param ss          an {@link Iterable} object (of any size) whose elements will be compared to {@code s1}
+     * @param deadline    the min/max rank of the elements in the returned {@link Stream}
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link AlgMap.Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            a sorted {@link Stream} of {@link CompareItem} containing only elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}.
+     *                      {@link StringableObject#getString() getString()} of each {@link CompareItem#o} returns an element of {@code ss}
+     */
+    public static Stream<CompareItem> streamWithDeadline(String s1, Iterable<String> ss, float deadline, String[] splitters, Algorithm algInstance, AlgMap.Alg alg) {
+        return new LazyRanking<String>(s1, ss, deadline, splitters, algInstance, alg) {
+            @Override
+            String normalized(int i, String s) {
+                return Utils.normalize(s);
+            }
+
+            @Override
+            StringableObject object(int i, String s, String st) {
+                return new StringableStringWrapper(s, st);
+            }
+        }.stream();
+    }
+    
+//    ----------------------------------------------------------------------------------------------------------------
+    
+    /**
+     * 
+     * The elements of {@code ss} are split in chunks, which are compared to {@code s1} by the threads of {@code pool}. The result is the same 
+     *      given by the sequential version of the method. {@code algInstance} is shared by the threads, the algorithms in {@link AlgMap} may 
+     *      be used concurrently.
+     * 
+     * @param s1          the first {@link String} of the comparison
+     * @param ss          the {@code String[]} object whose elements will be compared to {@code s1}
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link AlgMap.Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons, for instance {@link ForkJoinPool#commonPool()}
+     * @return            the single best match of {@code s1} with each element of {@code ss}, found using the given {@link AlgMap.Alg}
+     */
+    public static String parallelBestMatch(String s1, String[] ss, String[] splitters, Algorithm algInstance, AlgMap.Alg alg, ForkJoinPool pool) {
+        String[] matches = parallelTopNmatches(s1, ss, 1, splitters, algInstance, alg, pool);
+        if(matches == null || matches.length == 0) return null;
+        return matches[0];
+    }
+    
+    /**
+     * 
+     * The parallel version of {@link #topNmatches(java.lang.String, java.lang.String[], int, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg) topNmatches}.
+     *      Check {@link #parallelBestMatch parallelBestMatch}.
+     * 
+     * @param s1          the first {@link String} of the comparison
+     * @param ss          the {@code String[]} object whose elements will be compared to {@code s1}
+     * @param n           the length of the returned array object
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link AlgMap.Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons
+     * @return            a sorted {@code String[]} of length {@code n}. The sorting operation is based on the results given by the algorithm {@code alg}
+     */
+    public static String[] parallelTopNmatches(String s1, String[] ss, int n, String[] splitters, Algorithm algInstance, AlgMap.Alg alg, ForkJoinPool pool) {
+        CompareItem[] items = buildComparePack(s1, ss, n, Float.NaN, splitters, algInstance, alg, pool);
+        return gather(items, n);
+    }
+    
+    /**
+     * 
+     * The parallel version of {@link #withDeadline(java.lang.String, java.lang.String[], float, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg) withDeadline}.
+     *      Check {@link #parallelBestMatch parallelBestMatch}.
+     * 
+     * @param s1          the first {@link String} of the comparison
+     * @param ss          the {@code String[]} object whose elements will be compared to {@code s1}
+     * @param deadline    the min/max rank of the elements in the array which is returned
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link AlgMap.Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons
+     * @return            a sorted {@code String[]} containing only elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}
+     */
+    public static String[] parallelWithDeadline(String s1, String[] ss, float deadline, String[] splitters, Algorithm algInstance, AlgMap.Alg alg, ForkJoinPool pool) {
+        CompareItem[] items = buildComparePack(s1, ss, Integer.MAX_VALUE, deadline, splitters, algInstance, alg, pool);
+        return gather(items, items.length);
+    }
+    
+    /**
+     * 
+     * The parallel version of {@link #topMatchesWithDeadline(java.lang.String, java.lang.String[], int, float, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg) topMatchesWithDeadline}.
+     *      Check {@link #parallelBestMatch parallelBestMatch}.
+     * 
+     * @param s1          the first {@link String} of the comparison
+     * @param ss          the {@code String[]} object whose elements will be compared to {@code s1}
+     * @param n           the maximum number of elements of the returned array
+     * @param deadline    the min/max rank of the elements in the array which is returned
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link AlgMap.Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons
+     * @return            a sorted {@code String[]} containing at most {@code n} elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}
+     */
+    public static String[] parallelTopMatchesWithDeadline(String s1, String[] ss, int n, float deadline, String[] splitters, Algorithm algInstance, AlgMap.Alg alg, ForkJoinPool pool) {
+        CompareItem[] items = buildComparePack(s1, ss, n, deadline, splitters, algInstance, alg, pool);
+        return gather(items, n);
+    }
+    
+    /**
+     * 
+     * Check {@link IndexedScan}.
+     * 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons
+     * @see               #buildComparePack(java.lang.String, java.lang.Iterable, int, float, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg)
+     */
+    private static CompareItem[] buildComparePack(String s1, final String[] ss, int n, float deadline, String[] splitters, Algorithm algInstance, AlgMap.Alg alg, ForkJoinPool pool) {
+        return new IndexedScan(s1, ss.length, n, deadline, splitters, algInstance, alg) {
+            @Override
+            String normalized(int i) {
+                return Utils.normalize(ss[i]);
+            }
+
+            @Override
+            StringableObject object(int i, String st) {
+                return new StringableStringWrapper(ss[i], st);
+            }
+        }.buildComparePack(pool);
+    }
+    
+//    ----------------------------------------------------------------------------------------------------------------
+    
+    /**
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements will be compared to {@code s1}
+     * @return            the single best match of {@code s1} within {@code corpus}, found using the {@link AlgMap.Alg} of {@code corpus}
+     */
+    public static String bestMatch(String s1, Corpus corpus) {
+        String[] matches = topNmatches(s1, corpus, 1);
+        if(matches == null || matches.length == 0) return null;
+        return matches[0];
+    }
+    
+    /**
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements will be compared to {@code s1}
+     * @param n           the length of the returned array object
+     * @return            a sorted {@code String[]} of length {@code n}. The sorting operation is based on the results given by the {@link AlgMap.Alg} of {@code corpus}
+     */
+    public static String[] topNmatches(String s1, Corpus corpus, int n) {
+        CompareItem[] items = corpus.buildComparePack(s1, n, Corpus.noDeadline(corpus.getAlg()));
+        return gather(items, n);
+    }
+    
+    /**
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements will be compared to {@code s1}
+     * @param deadline    the min/max rank of the elements in the array which is returned
+     * @return            a sorted {@code String[]} containing only elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(corpus.getAlg())} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(corpus.getAlg())} is {@code false}
+     */
+    public static String[] withDeadline(String s1, Corpus corpus, float deadline) {
+        CompareItem[] items = corpus.buildComparePack(s1, Integer.MAX_VALUE, deadline);
+        int cutIndex = Utils.firstBeyondDeadline(items, deadline, Utils.biggerIsBetter(corpus.getAlg()));
+        return gather(items, cutIndex);
+    }
+    
+    /**
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements will be compared to {@code s1}
+     * @param n           the maximum number of elements of the returned array
+     * @param deadline    the min/max rank of the elements in the array which is returned
+     * @return            a sorted {@code String[]} containing at most {@code n} elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(corpus.getAlg())} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(corpus.getAlg())} is {@code false}
+     */
+    public static String[] topMatchesWithDeadline(String s1, Corpus corpus, int n, float deadline) {
+        CompareItem[] items = corpus.buildComparePack(s1, n, deadline);
+        int cutIndex = Utils.firstBeyondDeadline(items, deadline, Utils.biggerIsBetter(corpus.getAlg()));
+        return gather(items, Math.min(cutIndex, n));
+    }
+    
+//    ----------------------------------------------------------------------------------------------------------------
+    
+    /**
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link AlgMap.Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            the single best match of {@code s1} within {@code corpus}, found using the given {@link AlgMap.Alg}
+     */
+    public static String bestMatch(String s1, Corpus corpus, String[] splitters, Algorithm algInstance, AlgMap.Alg alg) {
+        String[] matches = topNmatches(s1, corpus, 1, splitters, algInstance, alg);
+        if(matches == null || matches.length == 0) return null;
+        return matches[0];
+    }
+    
+    /**
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param n           the length of the returned array object
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link AlgMap.Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            a sorted {@code String[]} of length {@code n}. The sorting operation is based on the results given by the algorithm {@code alg}
+     */
+    public static String[] topNmatches(String s1, Corpus corpus, int n, String[] splitters, Algorithm algInstance, AlgMap.Alg alg) {
+        CompareItem[] items = corpus.scan(s1, n, Float.NaN, splitters, algInstance, alg).buildComparePack();
+        return gather(items, n);
+    }
+    
+    /**
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param deadline    the min/max rank of the elements in the array which is returned
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link AlgMap.Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            a sorted {@code String[]} containing only elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}
+     */
+    public static String[] withDeadline(String s1, Corpus corpus, float deadline, String[] splitters, Algorithm algInstance, AlgMap.Alg alg) {
+        StringableObject[] objs = corpus.scan(s1, Integer.MAX_VALUE, deadline, splitters, algInstance, alg).collect();
+        String[] strings = new String[objs.length];
+        for(int i = 0; i < objs.length; i++) {
+            strings[i] = objs[i].getString();
+        }
+        return strings;
+    }
+    
+    /**
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param n           the maximum number of elements of the returned array
+     * @param deadline    the min/max rank of the elements in the array which is returned
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link AlgMap.Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            a sorted {@code String[]} containing at most {@code n} elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}
+     */
+    public static String[] topMatchesWithDeadline(String s1, Corpus corpus, int n, float deadline, String[] splitters, Algorithm algInstance, AlgMap.Alg alg) {
+        CompareItem[] items = corpus.scan(s1, n, deadline, splitters, algInstance, alg).buildComparePack();
+        return gather(items, n);
+    }
+    
+    /**
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link AlgMap.Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            a sorted {@link Stream} of {@link CompareItem}, one for each element of {@code corpus}. Check 
+     *                      {@link #streamWithDeadline(java.lang.String, java.lang.Iterable, float, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg) streamWithDeadline}
+     */
+    public static Stream<CompareItem> streamMatches(String s1, Corpus corpus, String[] splitters, Algorithm algInstance, AlgMap.Alg alg) {
+        return corpus.rank(s1, Float.NaN, splitters, algInstance, alg).stream();
+    }
+    
+    /**
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param deadline    the min/max rank of the elements in the returned {@link Stream}
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link AlgMap.Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            a sorted {@link Stream} of {@link CompareItem} containing only elements which respect {@code deadline}. Check 
+     *                      {@link #streamWithDeadline(java.lang.String, java.lang.Iterable, float, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg) streamWithDeadline}
+     */
+    public static Stream<CompareItem> streamWithDeadline(String s1, Corpus corpus, float deadline, String[] splitters, Algorithm algInstance, AlgMap.Alg alg) {
+        return corpus.rank(s1, deadline, splitters, algInstance, alg).stream();
+    }
+    
+    /**
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link AlgMap.Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons. Check {@link #parallelBestMatch parallelBestMatch}
+     * @return            the single best match of {@code s1} within {@code corpus}, found using the given {@link AlgMap.Alg}
+     */
+    public static String parallelBestMatch(String s1, Corpus corpus, String[] splitters, Algorithm algInstance, AlgMap.Alg alg, ForkJoinPool pool) {
+        String[] matches = parallelTopNmatches(s1, corpus, 1, splitters, algInstance, alg, pool);
+        if(matches == null || matches.length == 0) return null;
+        return matches[0];
+    }
+    
+    /**
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param n           the length of the returned array object
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link AlgMap.Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons. Check {@link #parallelBestMatch parallelBestMatch}
+     * @return            a sorted {@code String[]} of length {@code n}. The sorting operation is based on the results given by the algorithm {@code alg}
+     */
+    public static String[] parallelTopNmatches(String s1, Corpus corpus, int n, String[] splitters, Algorithm algInstance, AlgMap.Alg alg, ForkJoinPool pool) {
+        CompareItem[] items = corpus.scan(s1, n, Float.NaN, splitters, algInstance, alg).buildComparePack(pool);
+        return gather(items, n);
+    }
+    
+    /**
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param deadline    the min/max rank of the elements in the array which is returned
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link AlgMap.Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons. Check {@link #parallelBestMatch parallelBestMatch}
+     * @return            a sorted {@code String[]} containing only elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}
+     */
+    public static String[] parallelWithDeadline(String s1, Corpus corpus, float deadline, String[] splitters, Algorithm algInstance, AlgMap.Alg alg, ForkJoinPool pool) {
+        CompareItem[] items = corpus.scan(s1, Integer.MAX_VALUE, deadline, splitters, algInstance, alg).buildComparePack(pool);
+        return gather(items, items.length);
+    }
+    
+    /**
+     * @param s1          the first {@link String} of the comparison
+     * @param corpus      a {@link Corpus} whose elements (every one of them) will be compared to {@code s1}
+     * @param n           the maximum number of elements of the returned array
+     * @param deadline    the min/max rank of the elements in the array which is returned
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link AlgMap.Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param pool        the {@link ForkJoinPool} used to perform the comparisons. Check {@link #parallelBestMatch parallelBestMatch}
+     * @return            a sorted {@code String[]} containing at most {@code n} elements with {@code rank >= deadline} if 
+     *                      {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code true}, only elements with
+     *                      {@code rank <= deadline} if {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) Utils.biggerIsBetter(alg)} is {@code false}
+     */
+    public static String[] parallelTopMatchesWithDeadline(String s1, Corpus corpus, int n, float deadline, String[] splitters, Algorithm algInstance, AlgMap.Alg alg, ForkJoinPool pool) {
+        CompareItem[] items = corpus.scan(s1, n, deadline, splitters, algInstance, alg).buildComparePack(pool);
+        return gather(items, n);
+    }
+    
+    /**
+     * @param items     a sorted array of {@link CompareItem}
+     * @param n         the length of the returned array
+     * @return          the value of {@link StringableObject#getString() getString()} of the first {@code n} elements of {@code items}
+     */
+    private static String[] gather(CompareItem[] items, int n) {
+        StringableObject[] objs = Utils.gather(StringableObject.class, items, n);
+        String[] strings = new String[objs.length];
+        for(int i = 0; i < objs.length; i++) {
+            strings[i] = objs[i].getString();
+        }
+        return strings;
     }
 }
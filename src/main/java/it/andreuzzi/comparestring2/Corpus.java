@@ -0,0 +1,253 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 
+ * A list of candidates which is prepared once, and then compared many times (with different {@code s1}). Each subclass prepares the list for a
+ *      different family of algorithms, in order to make each query cheaper than a comparison with every element.
+ *      Check {@link CompareStrings} and {@link CompareObjects}.
+ * <p>
+ * Each element is normalized (check {@link Utils#normalize(java.lang.String) normalize(String)}) once, when the corpus is built. The list 
+ *      comparisons which take an {@link Algorithm} and splitters compare every element of a corpus, with any algorithm, without normalizing it 
+ *      again. Equal normalized {@link String}s are stored once, and a normalized {@link String} equal to its original {@link String} is not copied.
+ *
+ * @author francescoandreuzzi
+ */
+public abstract class Corpus {
+    
+    final StringableObject[] items;
+    
+    /**
+     * The normalized {@link String} of each element of {@code items}. Check {@link Utils#normalize(java.lang.String) normalize(String)}
+     */
+    final String[] strings;
+    
+    final Algorithm algInstance;
+    final Alg alg;
+    
+    /**
+     * 
+     * @param size        the exact number of elements in {@code ss}
+     * @param ss          an {@link Iterable} object whose elements will be compared
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @throws IllegalArgumentException if {@code algInstance} is null, or if {@code ss} doesn't contain exactly {@code size} elements
+     */
+    Corpus(int size, Iterable<? extends StringableObject> ss, Algorithm algInstance, Alg alg) {
+        if(algInstance == null) {
+            throw new IllegalArgumentException("algInstance must not be null");
+        }
+        
+        this.algInstance = algInstance;
+        this.alg = alg;
+        
+        items = new StringableObject[size];
+        
+        int counter = 0;
+        for(StringableObject t : ss) {
+            if(counter == size) {
+                throw new IllegalArgumentException("ss contains more than size elements");
+            }
+            items[counter++] = t;
+        }
+        if(counter < size) {
+            throw new IllegalArgumentException("ss contains less than size elements");
+        }
+        
+        strings = normalize(items);
+    }
+    
+    /**
+     * 
+     * A corpus which is not bound to an algorithm. Its elements may be compared only by the list comparisons which take an {@link Algorithm}.
+     * 
+     * @param ss          an {@link Iterable} object (of any size) whose elements will be compared
+     */
+    Corpus(Iterable<? extends StringableObject> ss) {
+        List<StringableObject> list = new ArrayList<>();
+        for(StringableObject t : ss) {
+            list.add(t);
+        }
+        
+        algInstance = null;
+        alg = null;
+        
+        items = list.toArray(new StringableObject[list.size()]);
+        strings = normalize(items);
+    }
+    
+    /**
+     * 
+     * @param items the elements of a corpus
+     * @return      the normalized {@link String} of each element of {@code items}. The elements given by {@link #wrap(java.lang.String[]) wrap}
+     *                  are already normalized
+     */
+    private static String[] normalize(StringableObject[] items) {
+        String[] strings = new String[items.length];
+        Map<String, String> canonical = new HashMap<>();
+        
+        for(int i = 0; i < items.length; i++) {
+            String lower = items[i].getLowercaseString();
+            strings[i] = items[i] instanceof NormalizedStringWrapper ? lower : canonical(canonical, lower, Utils.normalize(lower));
+        }
+        return strings;
+    }
+    
+    /**
+     * 
+     * @param canonical     the normalized {@link String}s already stored
+     * @param original      the {@link String} which was normalized
+     * @param normalized    the normalized {@link String}
+     * @return              the stored instance equal to {@code normalized}, or {@code original} if it's equal to {@code normalized}
+     */
+    private static String canonical(Map<String, String> canonical, String original, String normalized) {
+        String stored = canonical.get(normalized);
+        if(stored == null) {
+            stored = normalized.equals(original) ? original : normalized;
+            canonical.put(stored, stored);
+        }
+        return stored;
+    }
+    
+    /**
+     * 
+     * @param ss    an array of {@link String}
+     * @return      the elements of {@code ss}, wrapped like the {@link String} APIs of {@link CompareStrings} do: the elements which 
+     *                  are equal for the chosen {@link Algorithm} are sorted by their normalized {@link String}. Each element is normalized 
+     *                  here, and not again by the constructor
+     */
+    static Iterable<StringableObject> wrap(String[] ss) {
+        StringableObject[] wrappers = new StringableObject[ss.length];
+        Map<String, String> canonical = new HashMap<>();
+        for(int i = 0; i < ss.length; i++) {
+            wrappers[i] = new NormalizedStringWrapper(ss[i], canonical(canonical, ss[i], Utils.normalize(ss[i])));
+        }
+        return Arrays.asList(wrappers);
+    }
+    
+    /**
+     * A {@link StringableStringWrapper} whose lowercase {@link String} is already normalized
+     */
+    private static final class NormalizedStringWrapper extends StringableStringWrapper {
+        
+        NormalizedStringWrapper(String s, String normalized) {
+            super(s, normalized);
+        }
+    }
+    
+    /**
+     * 
+     * @return the number of elements in this corpus
+     */
+    public int size() {
+        return items.length;
+    }
+    
+    /**
+     * 
+     * @return the {@link Alg} used to compare the elements of this corpus, or null if this corpus is not bound to an algorithm
+     */
+    public Alg getAlg() {
+        return alg;
+    }
+    
+    /**
+     * 
+     * @param alg   an instance of {@link Alg}. Check {@link AlgMap} 
+     * @return      a deadline which is respected by every rank given by {@code alg}
+     */
+    static float noDeadline(Alg alg) {
+        return Utils.biggerIsBetter(alg) ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+    }
+    
+    /**
+     * 
+     * @param s1          the first {@link String} of the comparison
+     * @param n           the number of elements the caller is interested in
+     * @param deadline    the min/max rank of the elements the caller is interested in
+     * @return            a sorted array of {@link CompareItem} containing information about the comparison of some elements with {@code s1}. 
+     *                      The array contains at least the first {@code n} elements which respect {@code deadline} (among the elements that the 
+     *                      corpus is able to find), and is sorted with respect of the sorting order given by the chosen {@link Algorithm}
+     * @see               CompareItem
+     */
+    abstract CompareItem[] buildComparePack(String s1, int n, float deadline);
+    
+    /**
+     * 
+     * @param s1          the first {@link String} of the comparison
+     * @param n           the max number of elements the caller is interested in
+     * @param deadline    the min/max rank of the elements the caller is interested in, or {@code NaN} if every element (even the ones 
+     *                      whose rank is {@code NaN}) may be returned
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            an {@link IndexedScan} of every element of this corpus
+     */
+    IndexedScan scan(String s1, int n, float deadline, String[] splitters, Algorithm algInstance, Alg alg) {
+        return new IndexedScan(s1, items.length, n, deadline, splitters, algInstance, alg) {
+            @Override
+            String normalized(int i) {
+                return strings[i];
+            }
+
+            @Override
+            StringableObject object(int i, String st) {
+                return items[i];
+            }
+        };
+    }
+    
+    /**
+     * 
+     * @param s1          the first {@link String} of the comparison
+     * @param deadline    the min/max rank of the elements the caller is interested in, or {@code NaN} if every element (even the ones 
+     *                      whose rank is {@code NaN}) may be returned
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @return            a {@link LazyRanking} of every element of this corpus
+     */
+    LazyRanking<StringableObject> rank(String s1, float deadline, String[] splitters, Algorithm algInstance, Alg alg) {
+        return new LazyRanking<StringableObject>(s1, Arrays.asList(items), deadline, splitters, algInstance, alg) {
+            @Override
+            String normalized(int i, StringableObject t) {
+                return strings[i];
+            }
+
+            @Override
+            StringableObject object(int i, StringableObject t, String st) {
+                return t;
+            }
+        };
+    }
+}
@@ -37,16 +37,34 @@ public class CustomComparator <T extends CompareItem> implements Comparator<T> {
 
     @Override
     public int compare(T o1, T o2) {
-        if(o1.r == o2.r) {
+        return compare(o1.r, o1.o, o2.r, o2.o, biggerIsBetter);
+    }
+    
+    /**
+     * 
+     * @param r1                the rank of {@code o1}
+     * @param o1                the first object
+     * @param r2                the rank of {@code o2}
+     * @param o2                the second object
+     * @param biggerIsBetter    true if a bigger rank is better
+     * @return                  a negative integer, zero, or a positive integer as the first object comes before, together or after the second one
+     */
+    static int compare(float r1, StringableObject o1, float r2, StringableObject o2, boolean biggerIsBetter) {
+//        NaN (e.g. the Jaccard index of two empty profiles) is never a good match
+        if(Float.isNaN(r1) != Float.isNaN(r2)) {
+            return Float.isNaN(r1) ? 1 : -1;
+        }
+        
+        if(r1 == r2 || Float.isNaN(r1)) {
             try {
-                return ((Comparable) o1.o).compareTo(o2.o);
+                return ((Comparable) o1).compareTo(o2);
             } catch(Exception exc) {}
             
-            return o1.o.getLowercaseString().compareTo(o2.o.getLowercaseString());
+            return o1.getLowercaseString().compareTo(o2.getLowercaseString());
 	} else if(biggerIsBetter) {
-            return (int) Math.signum(o2.r - o1.r);
+            return (int) Math.signum(r2 - r1);
         } else {
-            return (int) Math.signum(o1.r - o2.r);
+            return (int) Math.signum(r1 - r2);
         }
     }
     
@@ -0,0 +1,224 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 
+ * A comparison of {@code s1} with a random access list of candidates. The list may be scanned sequentially, or in parallel on a 
+ *      {@link ForkJoinPool}: in this case the list is split in chunks, each chunk is scanned by a task which keeps its own {@link TopN}, 
+ *      and the partial heaps are merged when the tasks are joined. Since {@link TopN} orders every element (ties are broken by the index), 
+ *      the result is the same given by a sequential scan of the list.
+ *      Subclasses tell how to get the normalized {@link String} and the {@link StringableObject} of each element.
+ *
+ * @author francescoandreuzzi
+ */
+abstract class IndexedScan {
+    
+    /**
+     * The minimum number of elements scanned by a task. Smaller chunks cost more to schedule than to score
+     */
+    private static final int MIN_CHUNK = 256;
+    
+    /**
+     * The number of chunks given to each thread of the pool, so that a thread which is done may steal some work
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+    
+    private final String ss1;
+    private final int size;
+    private final int n;
+    private final float deadline;
+    private final float limit;
+    private final String[] splitters;
+    private final Algorithm algInstance;
+    private final Alg alg;
+    private final boolean biggerIsBetter;
+    
+    /**
+     * 
+     * @param s1          the first {@link String} of the comparison
+     * @param size        the number of elements which will be compared to {@code s1}
+     * @param n           the max number of elements in the returned array
+     * @param deadline    the min/max rank of the elements in the returned array, or {@code NaN} if every element (even the ones whose rank 
+     *                      is {@code NaN}) may be returned
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     */
+    IndexedScan(String s1, int size, int n, float deadline, String[] splitters, Algorithm algInstance, Alg alg) {
+        this.ss1 = Utils.normalize(s1);
+        this.size = size;
+        this.n = n;
+        this.deadline = deadline;
+        this.limit = Float.isNaN(deadline) ? Corpus.noDeadline(alg) : deadline;
+        this.splitters = splitters;
+        this.algInstance = algInstance;
+        this.alg = alg;
+        this.biggerIsBetter = Utils.biggerIsBetter(alg);
+    }
+    
+    /**
+     * 
+     * @param i     the index of an element, in {@code [0, size)}
+     * @return      the normalized {@link String} of the {@code i}-th element. Check {@link Utils#normalize(java.lang.String) normalize(String)}
+     */
+    abstract String normalized(int i);
+    
+    /**
+     * 
+     * @param i     the index of an element, in {@code [0, size)}
+     * @param st    the value returned by {@link #normalized(int) normalized(i)}
+     * @return      the {@link StringableObject} of the {@code i}-th element. It's called only for the elements which may be returned
+     */
+    abstract StringableObject object(int i, String st);
+    
+    /**
+     * 
+     * @return      a sorted array of {@link CompareItem} containing the best {@code n} elements which respect {@code deadline}
+     */
+    CompareItem[] buildComparePack() {
+        return scan(0, size).drain();
+    }
+    
+    /**
+     * 
+     * @param pool  the {@link ForkJoinPool} whose threads score the elements
+     * @return      a sorted array of {@link CompareItem} containing the best {@code n} elements which respect {@code deadline}
+     * @throws IllegalArgumentException if {@code pool} is null
+     */
+    CompareItem[] buildComparePack(ForkJoinPool pool) {
+        if(pool == null) {
+            throw new IllegalArgumentException("pool must not be null");
+        }
+        
+        int chunk = Math.max(MIN_CHUNK, size / (CHUNKS_PER_THREAD * pool.getParallelism()));
+        return pool.invoke(new Chunk(0, size, chunk)).drain();
+    }
+    
+    /**
+     * 
+     * Like {@link #buildComparePack() buildComparePack()} with {@code n = Integer.MAX_VALUE}, but the matches are kept in a {@link ScoreBuffer}, 
+     *      and no {@link CompareItem} is created.
+     * 
+     * @return      the {@link StringableObject} of each element which respects {@code deadline}, sorted like {@link TopN} does
+     */
+    StringableObject[] collect() {
+        ScoreBuffer<StringableObject> matches = new ScoreBuffer<StringableObject>(biggerIsBetter, StringableObject[]::new) {
+            @Override
+            int compareTies(StringableObject c1, String k1, StringableObject c2, String k2) {
+                return CustomComparator.compare(0, c1, 0, c2, biggerIsBetter);
+            }
+        };
+        
+        for(int i = 0; i < size; i++) {
+            String st = normalized(i);
+            float result = compare(st, limit);
+            
+            if(Float.isNaN(deadline) || Utils.respectsDeadline(result, deadline, biggerIsBetter)) {
+                matches.add(result, object(i, st), null);
+            }
+        }
+        
+        return matches.get(matches.sort(Integer.MAX_VALUE));
+    }
+    
+    /**
+     * 
+     * Compare {@code s1} with the elements in {@code [from, to)}, like a sequential scan does.
+     * 
+     * @return  a {@link TopN} containing the best {@code n} elements of the range which respect {@code deadline}
+     */
+    private TopN scan(int from, int to) {
+        TopN best = new TopN(n, biggerIsBetter);
+        
+        for(int i = from; i < to; i++) {
+            String st = normalized(i);
+            float result = compare(st, best.bound(limit));
+            
+            if((Float.isNaN(deadline) || Utils.respectsDeadline(result, deadline, biggerIsBetter)) && best.accepts(result)) {
+                best.offer(result, object(i, st), i);
+            }
+        }
+        
+        return best;
+    }
+    
+    /**
+     * 
+     * @param st    the normalized {@link String} of an element
+     * @param bound the min/max rank the caller is interested in
+     * @return      the rank of the element if it respects {@code bound}, otherwise any value which doesn't respect {@code bound}. The element 
+     *                  may be skipped by its length, and its comparison stops as soon as it can't respect {@code bound}
+     */
+    private float compare(String st, float bound) {
+        if(splitters != null) {
+            return Utils.checkSplits(ss1, st, splitters, algInstance, alg, bound);
+        }
+        
+        float lengthBound = alg.lengthBound(algInstance, ss1.length(), st.length());
+        if(!LengthBounds.reachable(lengthBound, bound, biggerIsBetter)) {
+            return lengthBound;
+        }
+        return Utils.compare(ss1, st, algInstance, alg, bound);
+    }
+    
+    /**
+     * 
+     * A task which scans the range {@code [from, to)}, or splits it in two halves if it's longer than {@code chunk}
+     */
+    private final class Chunk extends RecursiveTask<TopN> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final int from;
+        private final int to;
+        private final int chunk;
+        
+        Chunk(int from, int to, int chunk) {
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+        
+        @Override
+        protected TopN compute() {
+            if(to - from <= chunk) {
+                return scan(from, to);
+            }
+            
+            int middle = (from + to) >>> 1;
+            Chunk left = new Chunk(from, middle, chunk);
+            left.fork();
+            
+            TopN best = new Chunk(middle, to, chunk).compute();
+            best.merge(left.join());
+            return best;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 
+ * An {@link Iterator} which returns the elements of a list that respect a deadline, sorted by their comparison with {@code s1}. The list is 
+ *      scanned (once) only when the first element is requested, so the list may be of unknown size, and it's not scanned at all if no element
+ *      is requested. The elements which respect the deadline are kept in a binary heap whose root is the best element: each call to 
+ *      {@link #next() next()} removes only the root, so a caller which reads the first {@code k} elements doesn't pay for sorting the others.
+ *      The elements are returned in the same order given by {@link TopN}.
+ *      Subclasses tell how to get the normalized {@link String} and the {@link StringableObject} of each element.
+ *
+ * @author francescoandreuzzi
+ * @param <E> the class of the elements of the list
+ */
+abstract class LazyRanking<E> implements Iterator<CompareItem> {
+    
+    private final String s1;
+    private Iterable<? extends E> ss;
+    private final float deadline;
+    private final String[] splitters;
+    private final Algorithm algInstance;
+    private final Alg alg;
+    private final boolean biggerIsBetter;
+    
+    /**
+     * A binary heap whose root is the best element, built when the first element is requested
+     */
+    private float[] ranks;
+    private StringableObject[] objects;
+    private int[] indexes;
+    private int size;
+    
+    /**
+     * 
+     * @param s1          the first {@link String} of the comparison
+     * @param ss          an {@link Iterable} object whose elements will be compared to {@code s1}
+     * @param deadline    the min/max rank of the returned elements, or {@code NaN} if every element (even the ones whose rank 
+     *                      is {@code NaN}) may be returned
+     * @param splitters   refer to {@link Utils#checkSplits checkSplits}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     */
+    LazyRanking(String s1, Iterable<? extends E> ss, float deadline, String[] splitters, Algorithm algInstance, Alg alg) {
+        this.s1 = s1;
+        this.ss = ss;
+        this.deadline = deadline;
+        this.splitters = splitters;
+        this.algInstance = algInstance;
+        this.alg = alg;
+        this.biggerIsBetter = Utils.biggerIsBetter(alg);
+    }
+    
+    /**
+     * 
+     * @param i     the index of {@code e} in the list
+     * @param e     an element of the list
+     * @return      the normalized {@link String} of {@code e}. Check {@link Utils#normalize(java.lang.String) normalize(String)}
+     */
+    abstract String normalized(int i, E e);
+    
+    /**
+     * 
+     * @param i     the index of {@code e} in the list
+     * @param e     an element of the list
+     * @param st    the value returned by {@link #normalized(int, java.lang.Object) normalized(i, e)}
+     * @return      the {@link StringableObject} of {@code e}. It's called only for the elements which respect the deadline
+     */
+    abstract StringableObject object(int i, E e, String st);
+    
+    /**
+     * 
+     * @return a sequential and ordered {@link Stream} of the elements returned by this iterator. The list is scanned when the first element
+     *           of the stream is consumed
+     */
+    Stream<CompareItem> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+    
+    @Override
+    public boolean hasNext() {
+        if(ss != null) {
+            scan();
+        }
+        return size > 0;
+    }
+    
+    @Override
+    public CompareItem next() {
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        
+        CompareItem item = new CompareItem(objects[0], ranks[0]);
+        size--;
+        if(size > 0) {
+            siftDown(0, ranks[size], objects[size], indexes[size]);
+        }
+        objects[size] = null;
+        return item;
+    }
+    
+    /**
+     * 
+     * Compare {@code s1} with every element of the list, and build the heap of the elements which respect the deadline.
+     */
+    private void scan() {
+        final String ss1 = Utils.normalize(s1);
+        final float limit = Float.isNaN(deadline) ? Corpus.noDeadline(alg) : deadline;
+        
+        ranks = new float[16];
+        objects = new StringableObject[16];
+        indexes = new int[16];
+        
+        int counter = 0;
+        for(E e : ss) {
+            float result;
+            String st = normalized(counter, e);
+            
+//            the deadline doesn't change while the list is scanned, it's the only bound of each comparison
+            if(splitters == null && !LengthBounds.reachable(alg.lengthBound(algInstance, ss1.length(), st.length()), limit, biggerIsBetter)) {
+                counter++;
+                continue;
+            }
+            
+            if(splitters != null) {
+                result = Utils.checkSplits(ss1, st, splitters, algInstance, alg, limit);
+            } else {
+                result = Utils.compare(ss1, st, algInstance, alg, limit);
+            }
+            
+            if(Float.isNaN(deadline) || Utils.respectsDeadline(result, deadline, biggerIsBetter)) {
+                if(size == ranks.length) {
+                    ranks = Arrays.copyOf(ranks, 2 * size);
+                    objects = Arrays.copyOf(objects, 2 * size);
+                    indexes = Arrays.copyOf(indexes, 2 * size);
+                }
+                ranks[size] = result;
+                objects[size] = object(counter, e, st);
+                indexes[size] = counter;
+                size++;
+            }
+            counter++;
+        }
+        ss = null;
+        
+//        heapify bottom-up, in linear time
+        for(int c = size / 2 - 1; c >= 0; c--) {
+            siftDown(c, ranks[c], objects[c], indexes[c]);
+        }
+    }
+    
+    /**
+     * 
+     * Replace the element in {@code c} with the given element, and move it down to its place.
+     */
+    private void siftDown(int c, float rank, StringableObject o, int index) {
+        while(2 * c + 1 < size) {
+            int child = 2 * c + 1;
+            if(child + 1 < size && better(child + 1, child)) {
+                child++;
+            }
+            if(!better(ranks[child], objects[child], indexes[child], rank, o, index)) {
+                break;
+            }
+            ranks[c] = ranks[child];
+            objects[c] = objects[child];
+            indexes[c] = indexes[child];
+            c = child;
+        }
+        ranks[c] = rank;
+        objects[c] = o;
+        indexes[c] = index;
+    }
+    
+    private boolean better(int c1, int c2) {
+        return better(ranks[c1], objects[c1], indexes[c1], ranks[c2], objects[c2], indexes[c2]);
+    }
+    
+    private boolean better(float rank1, StringableObject o1, int index1, float rank2, StringableObject o2, int index2) {
+        int c = CustomComparator.compare(rank1, o1, rank2, o2, biggerIsBetter);
+        return c < 0 || (c == 0 && index1 < index2);
+    }
+}
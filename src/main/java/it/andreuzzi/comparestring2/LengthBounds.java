@@ -0,0 +1,108 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.algs.JaroWinkler;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+
+/**
+ * 
+ * The best rank that some algorithms may give to two strings, given only their lengths. Check 
+ *      {@link AlgMap.Alg#lengthBound(it.andreuzzi.comparestring2.algs.interfaces.Algorithm, int, int) lengthBound(Algorithm, int, int)}
+ *
+ * @author francescoandreuzzi
+ */
+final class LengthBounds {
+    
+    /**
+     * The bounds are not computed with the same rounding of the comparisons
+     */
+    private static final float SLACK = 1e-6f;
+    
+    private LengthBounds() {}
+    
+    /**
+     * 
+     * @param lengthBound       a bound returned by {@link AlgMap.Alg#lengthBound(it.andreuzzi.comparestring2.algs.interfaces.Algorithm, int, int) lengthBound(Algorithm, int, int)}
+     * @param bound             the min/max rank the caller is interested in
+     * @param biggerIsBetter    refer to {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) biggerIsBetter(Alg)}
+     * @return                  false if no comparison whose rank is bounded by {@code lengthBound} can respect {@code bound}
+     */
+    static boolean reachable(float lengthBound, float bound, boolean biggerIsBetter) {
+        return biggerIsBetter ? !(lengthBound < bound - SLACK) : !(lengthBound > bound + SLACK);
+    }
+    
+    /**
+     * 
+     * Each edit (insertion, deletion, substitution, transposition) changes the length by at most one. This holds for {@code LEVENSHTEIN},
+     *      {@code DAMERAU}, {@code OSA}, and for {@code LCS}, which is {@code m + n - 2 |LCS|}.
+     * 
+     * @return  {@code |m - n|}, the min edit distance between two strings whose lengths are {@code m} and {@code n}
+     */
+    static float editDistance(int m, int n) {
+        return Math.abs(m - n);
+    }
+    
+    /**
+     * 
+     * @return  {@code |m - n| / max(m, n)}, the min normalized edit distance between two strings whose lengths are {@code m} and {@code n}
+     */
+    static float normalizedEditDistance(int m, int n) {
+        int max = Math.max(m, n);
+        return max == 0 ? 0 : (float) Math.abs(m - n) / max;
+    }
+    
+    /**
+     * 
+     * The LCS is not longer than the shortest string.
+     * 
+     * @return  {@code 1 - min(m, n) / max(m, n)}, the min {@code METRICLCS} distance between two strings whose lengths are {@code m} and {@code n}
+     */
+    static float metricLcsDistance(int m, int n) {
+        int max = Math.max(m, n);
+        return max == 0 ? 0 : 1 - (float) Math.min(m, n) / max;
+    }
+    
+    /**
+     * 
+     * The number of matching characters is at most {@code min(m, n)}, hence the Jaro similarity is at most {@code (2 + min(m, n) / max(m, n)) / 3}.
+     *      The Winkler bonus is added only above the threshold of {@code alg}, and it's at most {@code min(0.1 * min(m, n), min(m, n) / max(m, n))}
+     *      times the distance from 1 (the common prefix is not longer than the shortest string).
+     * 
+     * @param alg   an instance of {@link JaroWinkler}, or null
+     * @return      the max Jaro-Winkler similarity between two strings whose lengths are {@code m} and {@code n}
+     */
+    static float jaroWinklerSimilarity(Algorithm alg, int m, int n) {
+        int min = Math.min(m, n), max = Math.max(m, n);
+        if(min == 0) return max == 0 ? 1 : 0;
+        
+        double ratio = (double) min / max;
+        double jaro = (2 + ratio) / 3;
+//        the Jaro similarity is computed in single precision, and may be slightly above the bound
+        if(alg instanceof JaroWinkler && jaro < ((JaroWinkler) alg).getThreshold() - SLACK) {
+            return (float) jaro;
+        }
+        return (float) (jaro + Math.min(0.1 * min, ratio) * (1 - jaro));
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.Arrays;
+
+/**
+ * 
+ * A list of candidates grouped in buckets of elements with the same length. A query visits the buckets from the length of {@code s1} outwards, 
+ *      and stops in each direction as soon as the bound given by {@link Alg#lengthBound(it.andreuzzi.comparestring2.algs.interfaces.Algorithm, int, int) 
+ *      lengthBound(Algorithm, int, int)} can't respect the deadline, nor beat the n-th best match found so far. The elements of the skipped buckets
+ *      are never compared. The result is exact, and it's the same given by a comparison with every element.
+ *      Useful when the lengths of the elements vary widely: {@code LEVENSHTEIN}, {@code DAMERAU}, {@code OSA}, {@code LCS}, {@code NLEVENSHTEIN}, 
+ *      {@code METRICLCS} and {@code JAROWRINKLER} have a length bound. With the other algorithms every element is compared.
+ *      Check {@link CompareStrings} and {@link CompareObjects}.
+ *
+ * @author francescoandreuzzi
+ */
+public class LengthIndex extends Corpus {
+    
+    /**
+     * The indexes of the elements, sorted by the length of their {@link String} (and then by index)
+     */
+    private final int[] order;
+    
+    /**
+     * The elements of the i-th bucket, whose length is {@code bucketLengths[i]}, are {@code order[bucketOffsets[i]]} 
+     *      ... {@code order[bucketOffsets[i + 1] - 1]}
+     */
+    private final int[] bucketLengths;
+    private final int[] bucketOffsets;
+    
+    /**
+     * 
+     * @param ss          the {@code String[]} object whose elements will be compared
+     * @param alg         an instance of {@link Alg}. Check {@link AlgMap} 
+     * @param args        a list of Object that can be used to build an instance of {@link Algorithm}
+     */
+    public LengthIndex(String[] ss, Alg alg, Object... args) {
+        this(ss, alg.buildAlg(args), alg);
+    }
+    
+    /**
+     * 
+     * @param ss          the {@code String[]} object whose elements will be compared
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     */
+    public LengthIndex(String[] ss, Algorithm algInstance, Alg alg) {
+        this(ss.length, wrap(ss), algInstance, alg);
+    }
+    
+    /**
+     * 
+     * @param ss          the {@code StringableObject[]} object whose elements will be compared
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     */
+    public LengthIndex(StringableObject[] ss, Algorithm algInstance, Alg alg) {
+        this(ss.length, Arrays.asList(ss), algInstance, alg);
+    }
+    
+    /**
+     * 
+     * @param size        the exact number of elements in {@code ss}
+     * @param ss          an {@link Iterable} object whose elements will be compared
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     */
+    public LengthIndex(int size, Iterable<? extends StringableObject> ss, Algorithm algInstance, Alg alg) {
+        super(size, ss, algInstance, alg);
+        
+//        (length, index) pairs, sorted
+        long[] sorted = new long[size];
+        for(int i = 0; i < size; i++) {
+            sorted[i] = (long) strings[i].length() << 32 | i;
+        }
+        Arrays.sort(sorted);
+        
+        order = new int[size];
+        int[] lengths = new int[size];
+        int[] offsets = new int[size + 1];
+        int buckets = 0;
+        for(int i = 0; i < size; i++) {
+            order[i] = (int) sorted[i];
+            int length = (int) (sorted[i] >>> 32);
+            if(buckets == 0 || lengths[buckets - 1] != length) {
+                lengths[buckets] = length;
+                offsets[buckets++] = i;
+            }
+        }
+        offsets[buckets] = size;
+        
+        bucketLengths = Arrays.copyOf(lengths, buckets);
+        bucketOffsets = Arrays.copyOf(offsets, buckets + 1);
+    }
+    
+    /**
+     * 
+     * @return the number of distinct lengths of the elements
+     */
+    public int getBucketCount() {
+        return bucketLengths.length;
+    }
+    
+    @Override
+    CompareItem[] buildComparePack(String s1, int n, float deadline) {
+        final String ss1 = Utils.normalize(s1);
+        final boolean biggerIsBetter = Utils.biggerIsBetter(alg);
+        final boolean everything = deadline == noDeadline(alg);
+        final int m = ss1.length();
+        final int buckets = bucketLengths.length;
+        if(n <= 0) {
+            return new CompareItem[0];
+        }
+        
+        TopN best = new TopN(n, biggerIsBetter);
+        
+//        the first bucket not shorter than s1, and the last one shorter than s1
+        int up = Arrays.binarySearch(bucketLengths, m);
+        if(up < 0) up = -up - 1;
+        int down = up - 1;
+        
+        while(up < buckets || down >= 0) {
+//            the nearest length first, so that the n-th best match improves early
+            boolean goUp = down < 0 || (up < buckets && bucketLengths[up] - m <= m - bucketLengths[down]);
+            int b = goUp ? up++ : down--;
+            
+            float bound = best.bound(deadline);
+            if(!LengthBounds.reachable(alg.lengthBound(algInstance, m, bucketLengths[b]), bound, biggerIsBetter)) {
+//                the bound doesn't get better moving away from m: the remaining buckets in this direction can be skipped
+                if(goUp) up = buckets;
+                else down = -1;
+                continue;
+            }
+            
+            for(int i = bucketOffsets[b]; i < bucketOffsets[b + 1]; i++) {
+                int e = order[i];
+                float r = Utils.compare(ss1, strings[e], algInstance, alg, best.bound(deadline));
+                if(everything || Utils.respectsDeadline(r, deadline, biggerIsBetter)) {
+                    best.offer(r, items[e], e);
+                }
+            }
+        }
+        
+        return best.drain();
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.MetricDistAlg;
+import it.andreuzzi.comparestring2.algs.Levenshtein;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.Arrays;
+
+/**
+ * 
+ * A trie of the elements, for {@code LEVENSHTEIN} ({@link AlgMap.MetricDistAlg#LEVENSHTEIN}) queries. The query is compared with the trie 
+ *      instead of each element: each node adds one row to the dynamic programming matrix of its parent, so the rows of a prefix shared by many 
+ *      elements are computed once.
+ * <p>
+ * The minimum of a row is a lower bound of the distance of every element below the node, so a subtree is skipped as soon as the minimum of 
+ *      its row exceeds the deadline ({@code withDeadline}), or the distance of the {@code n}-th best element found so far ({@code topNmatches}).
+ * <p>
+ * The index is exact: the results are the same (and in the same order) given by a comparison with every element.
+ * 
+ * @author francescoandreuzzi
+ */
+public class LevenshteinTrie extends Corpus {
+    
+    private static final ThreadLocal<int[]> ROWS = ThreadLocal.withInitial(() -> new int[0]);
+    
+    /**
+     * The nodes, in depth-first order. The subtree of node {@code i} is {@code [i, ends[i])}, node 0 is the root. Each node is labelled with
+     *      the last character of its prefix
+     */
+    private final char[] labels;
+    private final int[] depths;
+    private final int[] ends;
+    
+    /**
+     * The elements whose string is the prefix of node {@code i} are {@code elements[offsets[i], offsets[i + 1])}
+     */
+    private final int[] offsets;
+    private final int[] elements;
+    
+    private final int maxDepth;
+    
+    /**
+     * 
+     * @param ss          the {@code String[]} object whose elements will be compared
+     */
+    public LevenshteinTrie(String[] ss) {
+        this(ss, new Levenshtein(), MetricDistAlg.LEVENSHTEIN);
+    }
+    
+    /**
+     * 
+     * @param ss          the {@code String[]} object whose elements will be compared
+     * @param algInstance an instance of {@link Levenshtein}
+     * @param alg         {@link AlgMap.MetricDistAlg#LEVENSHTEIN}
+     * @throws IllegalArgumentException if {@code algInstance} is not {@link Levenshtein}
+     */
+    public LevenshteinTrie(String[] ss, Algorithm algInstance, MetricDistAlg alg) {
+        this(ss.length, wrap(ss), algInstance, alg);
+    }
+    
+    /**
+     * 
+     * @param ss          the {@code StringableObject[]} object whose elements will be compared
+     * @param algInstance an instance of {@link Levenshtein}
+     * @param alg         {@link AlgMap.MetricDistAlg#LEVENSHTEIN}
+     * @throws IllegalArgumentException if {@code algInstance} is not {@link Levenshtein}
+     */
+    public LevenshteinTrie(StringableObject[] ss, Algorithm algInstance, MetricDistAlg alg) {
+        this(ss.length, Arrays.asList(ss), algInstance, alg);
+    }
+    
+    /**
+     * 
+     * @param size        the exact number of elements in {@code ss}
+     * @param ss          an {@link Iterable} object whose elements will be compared
+     * @param algInstance an instance of {@link Levenshtein}
+     * @param alg         {@link AlgMap.MetricDistAlg#LEVENSHTEIN}
+     * @throws IllegalArgumentException if {@code algInstance} is not {@link Levenshtein}
+     */
+    public LevenshteinTrie(int size, Iterable<? extends StringableObject> ss, Algorithm algInstance, MetricDistAlg alg) {
+        super(size, ss, checkAlg(algInstance), alg);
+        
+        Integer[] sorted = new Integer[size];
+        int chars = 0;
+        for(int i = 0; i < size; i++) {
+            sorted[i] = i;
+            chars += strings[i].length();
+        }
+        Arrays.sort(sorted, (i1, i2) -> strings[i1].compareTo(strings[i2]));
+        
+//        in sorted order, the new nodes of each string follow the longest prefix shared with the previous string
+        char[] nodeLabels = new char[chars + 1];
+        int[] nodeDepths = new int[chars + 1];
+        int[] nodeParents = new int[chars + 1];
+        int[] counts = new int[chars + 2];
+        int[] path = new int[1];
+        int nodes = 1;
+        int depth = 0;
+        String previous = "";
+        
+        elements = new int[size];
+        for(int e = 0; e < size; e++) {
+            String s = strings[sorted[e]];
+            int shared = 0;
+            while(shared < depth && shared < s.length() && s.charAt(shared) == previous.charAt(shared)) shared++;
+            
+            if(path.length < s.length() + 1) path = Arrays.copyOf(path, Math.max(2 * path.length, s.length() + 1));
+            for(int d = shared; d < s.length(); d++) {
+                nodeLabels[nodes] = s.charAt(d);
+                nodeDepths[nodes] = d + 1;
+                nodeParents[nodes] = path[d];
+                path[d + 1] = nodes++;
+            }
+            
+            elements[e] = sorted[e];
+            counts[path[s.length()] + 1]++;
+            previous = s;
+            depth = s.length();
+        }
+        
+        labels = Arrays.copyOf(nodeLabels, nodes);
+        depths = Arrays.copyOf(nodeDepths, nodes);
+        offsets = Arrays.copyOf(counts, nodes + 1);
+        for(int i = 0; i < nodes; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        
+//        a subtree ends where the subtree of its last descendant ends
+        ends = new int[nodes];
+        int max = 0;
+        for(int i = nodes - 1; i >= 0; i--) {
+            if(ends[i] == 0) ends[i] = i + 1;
+            if(i > 0) ends[nodeParents[i]] = Math.max(ends[nodeParents[i]], ends[i]);
+            max = Math.max(max, depths[i]);
+        }
+        maxDepth = max;
+    }
+    
+    private static Algorithm checkAlg(Algorithm algInstance) {
+        if(!(algInstance instanceof Levenshtein)) {
+            throw new IllegalArgumentException("algInstance must be an instance of Levenshtein");
+        }
+        return algInstance;
+    }
+    
+    /**
+     * 
+     * @return the number of nodes of the trie, including the root
+     */
+    public int getNodeCount() {
+        return labels.length;
+    }
+    
+    @Override
+    CompareItem[] buildComparePack(String s1, int n, float deadline) {
+        final String ss1 = Utils.normalize(s1);
+        if(items.length == 0 || n <= 0) {
+            return new CompareItem[0];
+        }
+        
+        boolean everything = Float.isInfinite(deadline);
+        TopN best = new TopN(n, false);
+        
+//        the row of each depth along the current path
+        int m = ss1.length();
+        int width = m + 1;
+        int[] rows = ROWS.get();
+        if(rows.length < (maxDepth + 1) * width) {
+            rows = new int[(maxDepth + 1) * width];
+            ROWS.set(rows);
+        }
+        for(int j = 0; j <= m; j++) {
+            rows[j] = j;
+        }
+        
+        float radius = deadline;
+        int node = 0;
+        while(node < labels.length) {
+            int rowMin = 0;
+            int row = depths[node] * width;
+            if(node > 0) {
+                int previous = row - width;
+                char c = labels[node];
+                rows[row] = depths[node];
+                rowMin = rows[row];
+                for(int j = 1; j <= m; j++) {
+                    int cost = ss1.charAt(j - 1) == c ? 0 : 1;
+                    int d = Math.min(Math.min(rows[previous + j] + 1, rows[row + j - 1] + 1), rows[previous + j - 1] + cost);
+                    rows[row + j] = d;
+                    rowMin = Math.min(rowMin, d);
+                }
+            }
+            
+//            every element below has distance >= rowMin
+            if(rowMin > radius) {
+                node = ends[node];
+                continue;
+            }
+            
+            float d = rows[row + m];
+            if(offsets[node] < offsets[node + 1] && (everything || d <= deadline)) {
+                for(int e = offsets[node]; e < offsets[node + 1]; e++) {
+                    best.offer(d, items[elements[e]], elements[e]);
+                }
+                if(best.isFull()) {
+                    radius = Math.min(deadline, best.worstRank());
+                }
+            }
+            node++;
+        }
+        
+        return best.drain();
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.Jaccard;
+import it.andreuzzi.comparestring2.algs.MinHash;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.Arrays;
+
+/**
+ * 
+ * A locality sensitive hashing index for {@code JACCARD} ({@link AlgMap.NormSimAlg#JACCARD}, {@link AlgMap.NormDistAlg#JACCARD} or
+ *      {@link AlgMap.MetricDistAlg#JACCARD}). The {@link MinHash} signature of each element is split in {@code bands} bands of {@code rows} rows, and 
+ *      the element is put in one bucket for each band. A query is compared (using the exact algorithm) only with the elements which share at least 
+ *      one bucket with it.
+ * <p>
+ * The index is approximate: two strings whose Jaccard index is {@code s} share a bucket with probability {@code 1 - (1 - s^rows)^bands}. The threshold 
+ *      of the index, where this probability grows steeply, is about {@code (1 / bands)^(1 / rows)}. More bands find more pairs (and more false positives), 
+ *      more rows find less pairs. The elements which do not share any bucket with the query are not returned.
+ * 
+ * @author francescoandreuzzi
+ */
+public class LshIndex extends Corpus {
+    
+    private final MinHash minHash;
+    private final int bands;
+    private final int rows;
+    
+    /**
+     * For each band, the sorted entries {@code (hash << 32) | index} of the elements
+     */
+    private final long[][] buckets;
+    
+    /**
+     * 
+     * @param ss          the {@code String[]} object whose elements will be compared
+     * @param bands       the number of bands of the signatures
+     * @param rows        the number of rows of each band
+     * @param alg         an instance of {@link Alg}. Check {@link AlgMap} 
+     * @param args        a list of Object that can be used to build an instance of {@link Algorithm}
+     * @throws IllegalArgumentException if {@code alg} is not {@code JACCARD}, or if {@code bands} or {@code rows} is {@code <= 0}
+     */
+    public LshIndex(String[] ss, int bands, int rows, Alg alg, Object... args) {
+        this(ss, bands, rows, alg.buildAlg(args), alg);
+    }
+    
+    /**
+     * 
+     * @param ss          the {@code String[]} object whose elements will be compared
+     * @param bands       the number of bands of the signatures
+     * @param rows        the number of rows of each band
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @throws IllegalArgumentException if {@code algInstance} is not {@link Jaccard}, or if {@code bands} or {@code rows} is {@code <= 0}
+     */
+    public LshIndex(String[] ss, int bands, int rows, Algorithm algInstance, Alg alg) {
+        this(ss.length, wrap(ss), bands, rows, algInstance, alg);
+    }
+    
+    /**
+     * 
+     * @param ss          the {@code StringableObject[]} object whose elements will be compared
+     * @param bands       the number of bands of the signatures
+     * @param rows        the number of rows of each band
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @throws IllegalArgumentException if {@code algInstance} is not {@link Jaccard}, or if {@code bands} or {@code rows} is {@code <= 0}
+     */
+    public LshIndex(StringableObject[] ss, int bands, int rows, Algorithm algInstance, Alg alg) {
+        this(ss.length, Arrays.asList(ss), bands, rows, algInstance, alg);
+    }
+    
+    /**
+     * 
+     * @param size        the exact number of elements in {@code ss}
+     * @param ss          an {@link Iterable} object whose elements will be compared
+     * @param bands       the number of bands of the signatures
+     * @param rows        the number of rows of each band
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @throws IllegalArgumentException if {@code algInstance} is not {@link Jaccard}, or if {@code bands} or {@code rows} is {@code <= 0}
+     */
+    public LshIndex(int size, Iterable<? extends StringableObject> ss, int bands, int rows, Algorithm algInstance, Alg alg) {
+        super(size, ss, checkAlg(algInstance), alg);
+        
+        if(bands <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("bands and rows should be positive!");
+        }
+        
+        this.bands = bands;
+        this.rows = rows;
+        this.minHash = new MinHash(bands * rows);
+        
+        Jaccard jaccard = (Jaccard) algInstance;
+        buckets = new long[bands][size];
+        
+        int[] signature = new int[bands * rows];
+        for(int i = 0; i < size; i++) {
+            minHash.signature(jaccard.getShingleProfile(strings[i]), signature);
+            for(int b = 0; b < bands; b++) {
+                buckets[b][i] = ((long) bandHash(signature, b) << 32) | i;
+            }
+        }
+        
+        for(long[] band : buckets) {
+            Arrays.sort(band);
+        }
+    }
+    
+    private static Algorithm checkAlg(Algorithm algInstance) {
+        if(!(algInstance instanceof Jaccard)) {
+            throw new IllegalArgumentException("algInstance must be an instance of Jaccard");
+        }
+        return algInstance;
+    }
+    
+    private int bandHash(int[] signature, int band) {
+        int h = 0;
+        for(int r = band * rows, end = r + rows; r < end; r++) {
+            h = (h ^ signature[r]) * 0x9E3779B1;
+            h ^= h >>> 15;
+        }
+        return h;
+    }
+    
+    /**
+     * 
+     * @return the number of bands of the signatures
+     */
+    public int getBands() {
+        return bands;
+    }
+    
+    /**
+     * 
+     * @return the number of rows of each band
+     */
+    public int getRows() {
+        return rows;
+    }
+    
+    /**
+     * 
+     * @param s1    the query
+     * @return      the indexes of the elements which share at least one bucket with {@code s1}, sorted
+     */
+    private int[] candidates(String s1) {
+        int[] signature = minHash.signature(((Jaccard) algInstance).getShingleProfile(s1));
+        
+        int[] candidates = new int[16];
+        int count = 0;
+        for(int b = 0; b < bands; b++) {
+            int h = bandHash(signature, b);
+            long[] band = buckets[b];
+            
+//            ids are >= 0, so the first entry of the bucket is not smaller than (h << 32)
+            int i = Arrays.binarySearch(band, (long) h << 32);
+            if(i < 0) i = -i - 1;
+            
+            for(; i < band.length && (int) (band[i] >> 32) == h; i++) {
+                if(count == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, count * 2);
+                }
+                candidates[count++] = (int) band[i];
+            }
+        }
+        
+        Arrays.sort(candidates, 0, count);
+        int unique = 0;
+        for(int i = 0; i < count; i++) {
+            if(unique == 0 || candidates[i] != candidates[unique - 1]) {
+                candidates[unique++] = candidates[i];
+            }
+        }
+        return Arrays.copyOf(candidates, unique);
+    }
+    
+    @Override
+    CompareItem[] buildComparePack(String s1, int n, float deadline) {
+        final String ss1 = Utils.normalize(s1);
+        int[] candidates = candidates(ss1);
+        
+        TopN best = new TopN(n, Utils.biggerIsBetter(alg));
+        for(int i = 0; i < candidates.length; i++) {
+            int c = candidates[i];
+            best.offer(Utils.compare(ss1, strings[c], algInstance, alg), items[c], c);
+        }
+        
+        return best.drain();
+    }
+}
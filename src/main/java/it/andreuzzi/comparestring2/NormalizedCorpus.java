@@ -0,0 +1,72 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.Arrays;
+
+/**
+ * 
+ * A plain list of candidates, which are normalized once when the list is built (check {@link Corpus}), instead of once for each query. 
+ *      It's not bound to an algorithm: the same list may be compared using any {@link AlgMap.Alg}, with or without splitters, by the list 
+ *      comparisons of {@link CompareStrings} and {@link CompareObjects} which take an {@link Algorithm}, which give the same result given 
+ *      for the original list.
+ *
+ * @author francescoandreuzzi
+ */
+public class NormalizedCorpus extends Corpus {
+    
+    /**
+     * 
+     * @param ss          the {@code String[]} object whose elements will be compared
+     */
+    public NormalizedCorpus(String[] ss) {
+        super(wrap(ss));
+    }
+    
+    /**
+     * 
+     * @param ss          the {@code StringableObject[]} object whose elements will be compared
+     */
+    public NormalizedCorpus(StringableObject[] ss) {
+        super(Arrays.asList(ss));
+    }
+    
+    /**
+     * 
+     * @param ss          an {@link Iterable} object (of any size) whose elements will be compared
+     */
+    public NormalizedCorpus(Iterable<? extends StringableObject> ss) {
+        super(ss);
+    }
+    
+    /**
+     * 
+     * @throws IllegalArgumentException always: a {@link NormalizedCorpus} is not bound to an algorithm
+     */
+    @Override
+    CompareItem[] buildComparePack(String s1, int n, float deadline) {
+        throw new IllegalArgumentException("a NormalizedCorpus is not bound to an algorithm, use the list comparisons which take an Algorithm");
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.Cosine;
+import it.andreuzzi.comparestring2.algs.Jaccard;
+import it.andreuzzi.comparestring2.algs.QGram;
+import it.andreuzzi.comparestring2.algs.ShingleBased;
+import it.andreuzzi.comparestring2.algs.ShingleProfile;
+import it.andreuzzi.comparestring2.algs.SorensenDice;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.Arrays;
+
+/**
+ * 
+ * A list of candidates whose k-shingle profiles are computed once, and then reused by every query. This is useful when the same list is compared
+ *      many times (with different {@code s1}) using a shingle based algorithm ({@code COSINE}, {@code JACCARD}, {@code QGRAM}, {@code SORENSENDICE}).
+ *      Check {@link CompareStrings} and {@link CompareObjects}.
+ *
+ * @author francescoandreuzzi
+ */
+public class ProfiledCorpus extends Corpus {
+    
+    final ShingleProfile[] profiles;
+    
+    /**
+     * 
+     * @param ss          the {@code String[]} object whose elements will be compared
+     * @param alg         an instance of {@link Alg}. Check {@link AlgMap} 
+     * @param args        a list of Object that can be used to build an instance of {@link Algorithm}
+     * @throws IllegalArgumentException if {@code alg} is not a shingle based algorithm
+     */
+    public ProfiledCorpus(String[] ss, Alg alg, Object... args) {
+        this(ss, alg.buildAlg(args), alg);
+    }
+    
+    /**
+     * 
+     * @param ss          the {@code String[]} object whose elements will be compared
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @throws IllegalArgumentException if {@code algInstance} is not a shingle based algorithm
+     */
+    public ProfiledCorpus(String[] ss, Algorithm algInstance, Alg alg) {
+        this(ss.length, wrap(ss), algInstance, alg);
+    }
+    
+    /**
+     * 
+     * @param ss          the {@code StringableObject[]} object whose elements will be compared
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @throws IllegalArgumentException if {@code algInstance} is not a shingle based algorithm
+     */
+    public ProfiledCorpus(StringableObject[] ss, Algorithm algInstance, Alg alg) {
+        this(ss.length, Arrays.asList(ss), algInstance, alg);
+    }
+    
+    /**
+     * 
+     * @param size        the exact number of elements in {@code ss}
+     * @param ss          an {@link Iterable} object whose elements will be compared
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @throws IllegalArgumentException if {@code algInstance} is not a shingle based algorithm
+     */
+    public ProfiledCorpus(int size, Iterable<? extends StringableObject> ss, Algorithm algInstance, Alg alg) {
+        super(size, ss, checkAlg(algInstance), alg);
+        
+        profiles = new ShingleProfile[size];
+        for(int i = 0; i < size; i++) {
+            profiles[i] = ((ShingleBased) algInstance).getShingleProfile(strings[i]);
+        }
+    }
+    
+    private static Algorithm checkAlg(Algorithm algInstance) {
+        if(!(algInstance instanceof Cosine || algInstance instanceof Jaccard || algInstance instanceof QGram || algInstance instanceof SorensenDice)) {
+            throw new IllegalArgumentException("algInstance must be a shingle based algorithm");
+        }
+        return algInstance;
+    }
+    
+    @Override
+    CompareItem[] buildComparePack(String s1, int n, float deadline) {
+        ShingleProfile query = ((ShingleBased) algInstance).getShingleProfile(Utils.normalize(s1));
+        boolean biggerIsBetter = Utils.biggerIsBetter(alg);
+        
+        TopN best = new TopN(n, biggerIsBetter);
+        for(int i = 0; i < items.length; i++) {
+            best.offer(compare(query, profiles[i], biggerIsBetter), items[i], i);
+        }
+        
+        return best.drain();
+    }
+    
+    float compare(ShingleProfile p1, ShingleProfile p2, boolean biggerIsBetter) {
+        if(algInstance instanceof QGram) {
+            return (float) ((QGram) algInstance).distance(p1, p2);
+        } else if(algInstance instanceof Cosine) {
+            Cosine c = (Cosine) algInstance;
+            return (float) (biggerIsBetter ? c.similarity(p1, p2) : c.distance(p1, p2));
+        } else if(algInstance instanceof Jaccard) {
+            Jaccard j = (Jaccard) algInstance;
+            return (float) (biggerIsBetter ? j.similarity(p1, p2) : j.distance(p1, p2));
+        } else {
+            SorensenDice s = (SorensenDice) algInstance;
+            return (float) (biggerIsBetter ? s.similarity(p1, p2) : s.distance(p1, p2));
+        }
+    }
+}
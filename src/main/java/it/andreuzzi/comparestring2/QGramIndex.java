@@ -0,0 +1,431 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.Damerau;
+import it.andreuzzi.comparestring2.algs.Levenshtein;
+import it.andreuzzi.comparestring2.algs.OptimalStringAlignment;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.Arrays;
+
+/**
+ * 
+ * An inverted index of the q-grams of the elements, for edit distance threshold queries with {@code LEVENSHTEIN} ({@link AlgMap.MetricDistAlg#LEVENSHTEIN}),
+ *      {@code DAMERAU} ({@link AlgMap.MetricDistAlg#DAMERAU}) or {@code OSA} ({@link AlgMap.DistAlg#OSA}).
+ * <p>
+ * The {@code deadline} of a query is the max edit distance {@code k}. Each edit operation destroys at most {@code q} q-grams ({@code q + 1} for a 
+ *      transposition), so two strings {@code s} and {@code t} within distance {@code k} share at least 
+ *      {@code max(|s|, |t|) - q + 1 - k * q} q-grams ({@code k * (q + 1)} with transpositions), and their lengths differ by at most {@code k} 
+ *      (Ukkonen, "Approximate string-matching with q-grams and maximal matches", 1992). Only the elements which pass both filters are compared with 
+ *      the exact algorithm. With positional filtering, two q-grams are shared only if their positions differ by at most {@code k} (Gravano et al., 
+ *      "Approximate string joins in a database (almost) for free", 2001).
+ * <p>
+ * The index is exact: the results are the same given by a comparison with every element. Queries without a deadline (like 
+ *      {@link CompareStrings#topNmatches(java.lang.String, it.andreuzzi.comparestring2.Corpus, int) topNmatches}) compare every element.
+ *      The filters are effective when {@code k * q} is small with respect to the length of the strings.
+ * 
+ * @author francescoandreuzzi
+ */
+public class QGramIndex extends Corpus {
+    
+    /**
+     * Largest q whose q-grams are packed into a {@code long} (16 bits per character)
+     */
+    public static final int MAX_Q = 4;
+    
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+    
+    private final int q;
+    private final boolean positional;
+    
+    /**
+     * The max number of q-grams destroyed by one edit operation
+     */
+    private final int perEdit;
+    
+    /**
+     * The sorted distinct q-grams of the elements. The postings of {@code grams[g]} are in {@code [offsets[g], offsets[g + 1])}
+     */
+    private final long[] grams;
+    private final int[] offsets;
+    
+    /**
+     * The element and the position of each occurrence of a q-gram, sorted by element and position. {@code positions} is null without positional filtering
+     */
+    private final int[] ids;
+    private final int[] positions;
+    
+    private final int[] lengths;
+    
+    /**
+     * The sorted entries {@code (length << 32) | index} of the elements
+     */
+    private final long[] byLength;
+    
+    /**
+     * 
+     * @param ss            the {@code String[]} object whose elements will be compared
+     * @param q             the length of the q-grams, in {@code [1, MAX_Q]}
+     * @param positional    true if two q-grams are shared only if their positions differ by at most {@code k}
+     * @param alg           an instance of {@link Alg}. Check {@link AlgMap} 
+     * @param args          a list of Object that can be used to build an instance of {@link Algorithm}
+     * @throws IllegalArgumentException if {@code alg} is not {@code LEVENSHTEIN}, {@code DAMERAU} or {@code OSA}, or if {@code q} is not in {@code [1, MAX_Q]}
+     */
+    public QGramIndex(String[] ss, int q, boolean positional, Alg alg, Object... args) {
+        this(ss, q, positional, alg.buildAlg(args), alg);
+    }
+    
+    /**
+     * 
+     * @param ss            the {@code String[]} object whose elements will be compared
+     * @param q             the length of the q-grams, in {@code [1, MAX_Q]}
+     * @param positional    true if two q-grams are shared only if their positions differ by at most {@code k}
+     * @param algInstance   an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg           an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @throws IllegalArgumentException if {@code algInstance} is not {@link Levenshtein}, {@link Damerau} or {@link OptimalStringAlignment}, 
+     *                      or if {@code q} is not in {@code [1, MAX_Q]}
+     */
+    public QGramIndex(String[] ss, int q, boolean positional, Algorithm algInstance, Alg alg) {
+        this(ss.length, wrap(ss), q, positional, algInstance, alg);
+    }
+    
+    /**
+     * 
+     * @param ss            the {@code StringableObject[]} object whose elements will be compared
+     * @param q             the length of the q-grams, in {@code [1, MAX_Q]}
+     * @param positional    true if two q-grams are shared only if their positions differ by at most {@code k}
+     * @param algInstance   an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg           an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @throws IllegalArgumentException if {@code algInstance} is not {@link Levenshtein}, {@link Damerau} or {@link OptimalStringAlignment}, 
+     *                      or if {@code q} is not in {@code [1, MAX_Q]}
+     */
+    public QGramIndex(StringableObject[] ss, int q, boolean positional, Algorithm algInstance, Alg alg) {
+        this(ss.length, Arrays.asList(ss), q, positional, algInstance, alg);
+    }
+    
+    /**
+     * 
+     * @param size          the exact number of elements in {@code ss}
+     * @param ss            an {@link Iterable} object whose elements will be compared
+     * @param q             the length of the q-grams, in {@code [1, MAX_Q]}
+     * @param positional    true if two q-grams are shared only if their positions differ by at most {@code k}
+     * @param algInstance   an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg           an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @throws IllegalArgumentException if {@code algInstance} is not {@link Levenshtein}, {@link Damerau} or {@link OptimalStringAlignment}, 
+     *                      or if {@code q} is not in {@code [1, MAX_Q]}
+     */
+    public QGramIndex(int size, Iterable<? extends StringableObject> ss, int q, boolean positional, Algorithm algInstance, Alg alg) {
+        super(size, ss, checkAlg(algInstance), alg);
+        
+        if(q < 1 || q > MAX_Q) {
+            throw new IllegalArgumentException("q should be in [1, " + MAX_Q + "]!");
+        }
+        
+        this.q = q;
+        this.positional = positional;
+        this.perEdit = algInstance instanceof Levenshtein ? q : q + 1;
+        
+        lengths = new int[size];
+        byLength = new long[size];
+        int total = 0;
+        for(int i = 0; i < size; i++) {
+            lengths[i] = strings[i].length();
+            byLength[i] = ((long) lengths[i] << 32) | i;
+            total += Math.max(0, lengths[i] - q + 1);
+        }
+        Arrays.sort(byLength);
+        
+//        the q-grams of each element, in order of element and position
+        long[] all = new long[total];
+        int e = 0;
+        for(int i = 0; i < size; i++) {
+            e += grams(strings[i], all, e);
+        }
+        
+        long[] sorted = all.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for(int i = 0; i < total; i++) {
+            if(distinct == 0 || sorted[i] != sorted[distinct - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        grams = Arrays.copyOf(sorted, distinct);
+        
+//        counting sort of the occurrences by q-gram, which keeps the order of element and position
+        int[] slots = new int[total];
+        offsets = new int[distinct + 1];
+        for(int i = 0; i < total; i++) {
+            slots[i] = Arrays.binarySearch(grams, all[i]);
+            offsets[slots[i] + 1]++;
+        }
+        for(int g = 0; g < distinct; g++) {
+            offsets[g + 1] += offsets[g];
+        }
+        
+        ids = new int[total];
+        positions = positional ? new int[total] : null;
+        int[] cursors = Arrays.copyOf(offsets, distinct);
+        e = 0;
+        for(int i = 0; i < size; i++) {
+            for(int p = 0, end = lengths[i] - q + 1; p < end; p++, e++) {
+                int slot = cursors[slots[e]]++;
+                ids[slot] = i;
+                if(positional) positions[slot] = p;
+            }
+        }
+    }
+    
+    private static Algorithm checkAlg(Algorithm algInstance) {
+        if(!(algInstance instanceof Levenshtein || algInstance instanceof Damerau || algInstance instanceof OptimalStringAlignment)) {
+            throw new IllegalArgumentException("algInstance must be an instance of Levenshtein, Damerau or OptimalStringAlignment");
+        }
+        return algInstance;
+    }
+    
+    /**
+     * 
+     * @param s     a {@link String}
+     * @param into  the array which receives the q-grams of {@code s}
+     * @param from  the index of {@code into} where the first q-gram is put
+     * @return      the number of q-grams of {@code s}
+     */
+    private int grams(String s, long[] into, int from) {
+        long mask = q == MAX_Q ? -1L : (1L << (16 * q)) - 1;
+        long key = 0;
+        int count = 0;
+        for(int i = 0; i < s.length(); i++) {
+            key = (key << 16 | s.charAt(i)) & mask;
+            if(i >= q - 1) {
+                into[from + count++] = key;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * 
+     * @return the length of the q-grams
+     */
+    public int getQ() {
+        return q;
+    }
+    
+    /**
+     * 
+     * @return true if two q-grams are shared only if their positions differ by at most {@code k}
+     */
+    public boolean isPositional() {
+        return positional;
+    }
+    
+    /**
+     * 
+     * @param length1   the length of the first {@link String}
+     * @param length2   the length of the second {@link String}
+     * @param k         the max edit distance
+     * @return          the min number of q-grams shared by two strings within distance {@code k}
+     */
+    private long minShared(int length1, int length2, int k) {
+        return (long) Math.max(length1, length2) - q + 1 - (long) k * perEdit;
+    }
+    
+    /**
+     * 
+     * @param s1    the query
+     * @param k     the max edit distance
+     * @param sc    the buffers of the current thread
+     * @return      the number of candidates, whose indexes are the first elements of {@code sc.candidates}
+     */
+    private int candidates(String s1, int k, Scratch sc) {
+        int length = s1.length();
+        sc.ensure(size(), Math.max(0, length - q + 1));
+        
+        int[] counts = sc.counts;
+        int touched = 0;
+        
+//        the q-grams of the query, sorted by q-gram and position
+        int n = grams(s1, sc.keys, 0);
+        for(int i = 0; i < n; i++) {
+            sc.order[i] = i;
+        }
+        sortByKey(sc.keys, sc.order, n);
+        
+        for(int i = 0, j; i < n; i = j) {
+            long key = sc.keys[i];
+            for(j = i + 1; j < n && sc.keys[j] == key; j++);
+            
+            int g = Arrays.binarySearch(grams, key);
+            if(g < 0) continue;
+            
+            for(int p = offsets[g], end = offsets[g + 1], next; p < end; p = next) {
+                int id = ids[p];
+                for(next = p + 1; next < end && ids[next] == id; next++);
+                
+                if(Math.abs(lengths[id] - length) > k) continue;
+                
+                int shared = positional ? match(sc.order, i, j, positions, p, next, k) : Math.min(j - i, next - p);
+                if(shared == 0) continue;
+                
+                if(counts[id] == 0) {
+                    sc.touched[touched++] = id;
+                }
+                counts[id] += shared;
+            }
+        }
+        
+        int found = 0;
+        for(int t = 0; t < touched; t++) {
+            int id = sc.touched[t];
+            long min = minShared(lengths[id], length, k);
+            if(min > 0 && counts[id] >= min) {
+                sc.candidates[found++] = id;
+            }
+            counts[id] = 0;
+        }
+        
+//        when the count filter can't discard anything, only the length filter applies
+        long maxLength = q - 1 + (long) k * perEdit;
+        if(length <= maxLength) {
+            long to = Math.min(length + (long) k, maxLength);
+            int i = Arrays.binarySearch(byLength, (long) Math.max(0, length - k) << 32);
+            if(i < 0) i = -i - 1;
+            
+            for(; i < byLength.length && (byLength[i] >> 32) <= to; i++) {
+                sc.candidates[found++] = (int) byLength[i];
+            }
+        }
+        
+        return found;
+    }
+    
+    /**
+     * 
+     * @param order     the positions of the occurrences of a q-gram in the query, sorted in {@code [from1, to1)}
+     * @param from1     
+     * @param to1       
+     * @param positions the positions of the occurrences of the same q-gram in an element, sorted in {@code [from2, to2)}
+     * @param from2     
+     * @param to2       
+     * @param k         the max edit distance
+     * @return          the max number of pairs of occurrences whose positions differ by at most {@code k}, where each occurrence belongs to one pair
+     */
+    private static int match(int[] order, int from1, int to1, int[] positions, int from2, int to2, int k) {
+        int matched = 0;
+        int i = from1, j = from2;
+        while(i < to1 && j < to2) {
+            if(positions[j] < order[i] - k) j++;
+            else if(positions[j] > order[i] + k) i++;
+            else {
+                matched++;
+                i++;
+                j++;
+            }
+        }
+        return matched;
+    }
+    
+    /**
+     * 
+     * Insertion sort of the first {@code n} elements of {@code keys} (and {@code order}), by key and then by order. The query has few q-grams.
+     */
+    private static void sortByKey(long[] keys, int[] order, int n) {
+        for(int i = 1; i < n; i++) {
+            long key = keys[i];
+            int o = order[i];
+            int j = i - 1;
+            for(; j >= 0 && (keys[j] > key || (keys[j] == key && order[j] > o)); j--) {
+                keys[j + 1] = keys[j];
+                order[j + 1] = order[j];
+            }
+            keys[j + 1] = key;
+            order[j + 1] = o;
+        }
+    }
+    
+    @Override
+    CompareItem[] buildComparePack(String s1, int n, float deadline) {
+        final String ss1 = Utils.normalize(s1);
+        
+//        without a bound on the distance, every element is a candidate
+        if(!(deadline < Integer.MAX_VALUE)) {
+            TopN best = new TopN(n, false);
+            for(int i = 0; i < items.length; i++) {
+                best.offer(Utils.compare(ss1, strings[i], algInstance, alg, best.bound(Float.POSITIVE_INFINITY)), items[i], i);
+            }
+            return best.drain();
+        }
+        
+        if(deadline < 0) {
+            return new CompareItem[0];
+        }
+        
+        int k = (int) deadline;
+        Scratch sc = SCRATCH.get();
+        int found = candidates(ss1, k, sc);
+        
+        TopN best = new TopN(n, false);
+        for(int i = 0; i < found; i++) {
+            int c = sc.candidates[i];
+            float d = Utils.compare(ss1, strings[c], algInstance, alg, best.bound(k));
+            if(d <= k) {
+                best.offer(d, items[c], c);
+            }
+        }
+        
+        return best.drain();
+    }
+    
+    /**
+     * Buffers of a query, reused by the following queries of the same thread.
+     */
+    private static final class Scratch {
+        
+        /**
+         * The number of q-grams shared with each element, 0 for the elements not in {@code touched}
+         */
+        int[] counts = new int[0];
+        int[] touched = new int[0];
+        int[] candidates = new int[0];
+        
+        /**
+         * The q-grams of the query, and their positions
+         */
+        long[] keys = new long[0];
+        int[] order = new int[0];
+        
+        void ensure(int size, int grams) {
+            if(counts.length < size) {
+                counts = new int[size];
+                touched = new int[size];
+                candidates = new int[size];
+            }
+            if(keys.length < grams) {
+                keys = new long[grams];
+                order = new int[grams];
+            }
+        }
+    }
+}
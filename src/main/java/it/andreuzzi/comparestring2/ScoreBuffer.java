@@ -0,0 +1,192 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * 
+ * A growable list of scored candidates, stored as a {@code float[]} of ranks and a parallel array of candidates, which is sorted by a 
+ *      primitive key. Used when every element which respects a deadline is returned: no {@link CompareItem} (nor any other wrapper) is 
+ *      created for the candidates, and the comparator of the candidates is used only to sort the elements with the same rank.
+ *      The elements are sorted like {@link TopN} does, provided that they are added by index.
+ *
+ * @author francescoandreuzzi
+ * @param <E> the class of the candidates
+ */
+abstract class ScoreBuffer<E> {
+    
+    private final boolean biggerIsBetter;
+    private final IntFunction<E[]> newArray;
+    
+    private float[] ranks = new float[16];
+    private E[] candidates;
+    private String[] keys = new String[16];
+    private int size;
+    
+    /**
+     * 
+     * @param biggerIsBetter    true if a bigger rank is better
+     * @param newArray          a function which creates an array of candidates with the given length
+     */
+    ScoreBuffer(boolean biggerIsBetter, IntFunction<E[]> newArray) {
+        this.biggerIsBetter = biggerIsBetter;
+        this.newArray = newArray;
+        candidates = newArray.apply(16);
+    }
+    
+    /**
+     * 
+     * Tell the order of two candidates with the same rank, like {@link CustomComparator} does.
+     * 
+     * @param c1    the first candidate
+     * @param k1    the key given with {@code c1}
+     * @param c2    the second candidate
+     * @param k2    the key given with {@code c2}
+     * @return      a negative integer, zero, or a positive integer as {@code c1} comes before, together or after {@code c2}
+     */
+    abstract int compareTies(E c1, String k1, E c2, String k2);
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * 
+     * @param rank      the rank of {@code candidate}
+     * @param candidate a candidate, whose index is bigger than the index of every candidate already added
+     * @param key       a {@link String} given to {@link #compareTies compareTies} along with {@code candidate}, may be null
+     */
+    void add(float rank, E candidate, String key) {
+        if(size == ranks.length) {
+            ranks = Arrays.copyOf(ranks, 2 * size);
+            candidates = Arrays.copyOf(candidates, 2 * size);
+            keys = Arrays.copyOf(keys, 2 * size);
+        }
+        ranks[size] = rank;
+        candidates[size] = candidate;
+        keys[size] = key;
+        size++;
+    }
+    
+    /**
+     * 
+     * @param slots the values returned by {@link #sort(int) sort}
+     * @return      the candidates in {@code slots}, in the same order
+     */
+    E[] get(int[] slots) {
+        E[] array = newArray.apply(slots.length);
+        for(int i = 0; i < slots.length; i++) {
+            array[i] = candidates[slots[i]];
+        }
+        return array;
+    }
+    
+    /**
+     * 
+     * @param slot  a value returned by {@link #sort(int) sort}
+     * @return      the rank of the candidate in {@code slot}
+     */
+    float rank(int slot) {
+        return ranks[slot];
+    }
+    
+    /**
+     * 
+     * Each element is sorted by a {@code long} whose upper half is its rank, mapped to an {@code int} which preserves the sorting order, and 
+     *      whose lower half is its slot. Then only the runs of elements with the same rank which end up in the returned slice are sorted by 
+     *      {@link #compareTies compareTies}, with a stable sort.
+     * 
+     * @param n     the max number of returned slots
+     * @return      the slots of the best {@code n} elements, from the best to the worst
+     */
+    int[] sort(int n) {
+        long[] sorted = new long[size];
+        for(int i = 0; i < size; i++) {
+            sorted[i] = (long) sortKey(ranks[i]) << 32 | i;
+        }
+        Arrays.sort(sorted);
+        
+        int length = Math.max(0, Math.min(n, size));
+        int[] slots = new int[size];
+        for(int i = 0; i < size; i++) {
+            slots[i] = (int) sorted[i];
+        }
+        
+        int[] buffer = null;
+        for(int from = 0; from < length; ) {
+            int to = from + 1;
+            while(to < size && sorted[to] >>> 32 == sorted[from] >>> 32) {
+                to++;
+            }
+            if(to - from > 1) {
+                if(buffer == null) buffer = new int[size];
+                mergeSort(slots, buffer, from, to);
+            }
+            from = to;
+        }
+        
+        return Arrays.copyOf(slots, length);
+    }
+    
+    /**
+     * 
+     * @return an {@code int} which is smaller for better ranks. Equal ranks (for {@code ==}) give the same {@code int}, NaN is the worst.
+     *           No rank but NaN is mapped to {@code Integer.MAX_VALUE}
+     */
+    private int sortKey(float rank) {
+        if(Float.isNaN(rank)) return Integer.MAX_VALUE;
+        
+//        adding 0 turns -0 into +0, flipping the magnitude bits of negative values gives the order of the floats
+        int bits = Float.floatToIntBits(rank + 0.0f);
+        int key = bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+        return biggerIsBetter ? ~key : key;
+    }
+    
+    /**
+     * 
+     * Stable sort of {@code slots[from, to)} by {@link #compareTies compareTies}.
+     */
+    private void mergeSort(int[] slots, int[] buffer, int from, int to) {
+        for(int width = 1; width < to - from; width *= 2) {
+            for(int left = from; left < to - width; left += 2 * width) {
+                int middle = left + width;
+                int right = Math.min(middle + width, to);
+                
+                System.arraycopy(slots, left, buffer, left, right - left);
+                int i = left, j = middle, k = left;
+                while(i < middle && j < right) {
+                    slots[k++] = compareTies(buffer[j], buffer[i]) < 0 ? buffer[j++] : buffer[i++];
+                }
+                while(i < middle) slots[k++] = buffer[i++];
+                while(j < right) slots[k++] = buffer[j++];
+            }
+        }
+    }
+    
+    private int compareTies(int slot1, int slot2) {
+        return compareTies(candidates[slot1], keys[slot1], candidates[slot2], keys[slot2]);
+    }
+}
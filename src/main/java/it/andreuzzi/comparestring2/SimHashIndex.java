@@ -0,0 +1,216 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.Cosine;
+import it.andreuzzi.comparestring2.algs.SimHash;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.Arrays;
+
+/**
+ * 
+ * A Hamming distance index for {@code COSINE} ({@link AlgMap.NormSimAlg#COSINE} or {@link AlgMap.NormDistAlg#COSINE}). Each element is reduced to 
+ *      the {@link SimHash} fingerprint of its profile, and a query is compared (using the exact algorithm) only with the elements whose fingerprint 
+ *      differs from the one of the query in at most {@code maxHammingDistance} bits.
+ * <p>
+ * The lookup follows Manku, Jain and Das Sarma, "Detecting near-duplicates for web crawling" (2007): the 64 bits of the fingerprints are split in
+ *      {@code maxHammingDistance + 1} blocks (at least 2), and there is one table for each block, where the elements are sorted by the value of 
+ *      that block. Two fingerprints which differ in at most {@code maxHammingDistance} bits have at least one equal block, so the candidates are 
+ *      found with a binary search in each table.
+ * <p>
+ * The index is approximate: the Hamming distance {@code h} of two fingerprints estimates the angle between the profiles, whose cosine similarity is
+ *      about {@code cos(h * pi / 64)}. The elements whose fingerprint is farther than {@code maxHammingDistance} from the one of the query are not 
+ *      returned. Each table is scanned for the elements which share one block with the query, so large values of {@code maxHammingDistance} (and 
+ *      short blocks) make queries slower.
+ * 
+ * @author francescoandreuzzi
+ */
+public class SimHashIndex extends Corpus {
+    
+    private static final int BITS = 64;
+    
+    private final int maxHammingDistance;
+    
+    /**
+     * The fingerprint of each element
+     */
+    private final long[] fingerprints;
+    
+    /**
+     * For each block, the sorted entries {@code (block << 32) | index} of the elements
+     */
+    private final long[][] tables;
+    
+    /**
+     * 
+     * @param ss                    the {@code String[]} object whose elements will be compared
+     * @param maxHammingDistance    the max number of different bits between the fingerprint of the query and the one of a candidate
+     * @param alg                   an instance of {@link Alg}. Check {@link AlgMap} 
+     * @param args                  a list of Object that can be used to build an instance of {@link Algorithm}
+     * @throws IllegalArgumentException if {@code alg} is not {@code COSINE}, or if {@code maxHammingDistance} is not in {@code [0, 64)}
+     */
+    public SimHashIndex(String[] ss, int maxHammingDistance, Alg alg, Object... args) {
+        this(ss, maxHammingDistance, alg.buildAlg(args), alg);
+    }
+    
+    /**
+     * 
+     * @param ss                    the {@code String[]} object whose elements will be compared
+     * @param maxHammingDistance    the max number of different bits between the fingerprint of the query and the one of a candidate
+     * @param algInstance           an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg                   an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @throws IllegalArgumentException if {@code algInstance} is not {@link Cosine}, or if {@code maxHammingDistance} is not in {@code [0, 64)}
+     */
+    public SimHashIndex(String[] ss, int maxHammingDistance, Algorithm algInstance, Alg alg) {
+        this(ss.length, wrap(ss), maxHammingDistance, algInstance, alg);
+    }
+    
+    /**
+     * 
+     * @param ss                    the {@code StringableObject[]} object whose elements will be compared
+     * @param maxHammingDistance    the max number of different bits between the fingerprint of the query and the one of a candidate
+     * @param algInstance           an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg                   an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @throws IllegalArgumentException if {@code algInstance} is not {@link Cosine}, or if {@code maxHammingDistance} is not in {@code [0, 64)}
+     */
+    public SimHashIndex(StringableObject[] ss, int maxHammingDistance, Algorithm algInstance, Alg alg) {
+        this(ss.length, Arrays.asList(ss), maxHammingDistance, algInstance, alg);
+    }
+    
+    /**
+     * 
+     * @param size                  the exact number of elements in {@code ss}
+     * @param ss                    an {@link Iterable} object whose elements will be compared
+     * @param maxHammingDistance    the max number of different bits between the fingerprint of the query and the one of a candidate
+     * @param algInstance           an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg                   an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @throws IllegalArgumentException if {@code algInstance} is not {@link Cosine}, or if {@code maxHammingDistance} is not in {@code [0, 64)}
+     */
+    public SimHashIndex(int size, Iterable<? extends StringableObject> ss, int maxHammingDistance, Algorithm algInstance, Alg alg) {
+        super(size, ss, checkAlg(algInstance), alg);
+        
+        if(maxHammingDistance < 0 || maxHammingDistance >= BITS) {
+            throw new IllegalArgumentException("maxHammingDistance should be in [0, 64)!");
+        }
+        
+        this.maxHammingDistance = maxHammingDistance;
+        
+        Cosine cosine = (Cosine) algInstance;
+        fingerprints = new long[size];
+        for(int i = 0; i < size; i++) {
+            fingerprints[i] = SimHash.fingerprint(cosine.getShingleProfile(strings[i]));
+        }
+        
+//        blocks of at most 32 bits, so that each one fits in the high half of an entry
+        tables = new long[Math.max(maxHammingDistance + 1, 2)][size];
+        for(int b = 0; b < tables.length; b++) {
+            for(int i = 0; i < size; i++) {
+                tables[b][i] = ((long) block(fingerprints[i], b) << 32) | i;
+            }
+            Arrays.sort(tables[b]);
+        }
+    }
+    
+    private static Algorithm checkAlg(Algorithm algInstance) {
+        if(!(algInstance instanceof Cosine)) {
+            throw new IllegalArgumentException("algInstance must be an instance of Cosine");
+        }
+        return algInstance;
+    }
+    
+    /**
+     * 
+     * @param fingerprint   a fingerprint
+     * @param b             the index of a block
+     * @return              the bits of the {@code b}-th block of {@code fingerprint}
+     */
+    private int block(long fingerprint, int b) {
+        int from = b * BITS / tables.length;
+        int to = (b + 1) * BITS / tables.length;
+        return (int) ((fingerprint >>> from) & ((1L << (to - from)) - 1));
+    }
+    
+    /**
+     * 
+     * @return the max number of different bits between the fingerprint of the query and the one of a candidate
+     */
+    public int getMaxHammingDistance() {
+        return maxHammingDistance;
+    }
+    
+    /**
+     * 
+     * @param s1    the query
+     * @return      the indexes of the elements whose fingerprint is within {@code maxHammingDistance} from the one of {@code s1}, sorted
+     */
+    private int[] candidates(String s1) {
+        long fingerprint = SimHash.fingerprint(((Cosine) algInstance).getShingleProfile(s1));
+        
+        int[] candidates = new int[16];
+        int count = 0;
+        for(int b = 0; b < tables.length; b++) {
+            int h = block(fingerprint, b);
+            long[] table = tables[b];
+            
+//            ids are >= 0, so the first entry of the range is not smaller than (h << 32)
+            int i = Arrays.binarySearch(table, (long) h << 32);
+            if(i < 0) i = -i - 1;
+            
+            for(; i < table.length && (int) (table[i] >> 32) == h; i++) {
+                int c = (int) table[i];
+                if(SimHash.hammingDistance(fingerprint, fingerprints[c]) > maxHammingDistance) continue;
+                
+                if(count == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, count * 2);
+                }
+                candidates[count++] = c;
+            }
+        }
+        
+//        an element is found once for each block equal to the one of the query
+        Arrays.sort(candidates, 0, count);
+        int unique = 0;
+        for(int i = 0; i < count; i++) {
+            if(unique == 0 || candidates[i] != candidates[unique - 1]) {
+                candidates[unique++] = candidates[i];
+            }
+        }
+        return Arrays.copyOf(candidates, unique);
+    }
+    
+    @Override
+    CompareItem[] buildComparePack(String s1, int n, float deadline) {
+        final String ss1 = Utils.normalize(s1);
+        int[] candidates = candidates(ss1);
+        
+        TopN best = new TopN(n, Utils.biggerIsBetter(alg));
+        for(int i = 0; i < candidates.length; i++) {
+            int c = candidates[i];
+            best.offer(Utils.compare(ss1, strings[c], algInstance, alg), items[c], c);
+        }
+        
+        return best.drain();
+    }
+}
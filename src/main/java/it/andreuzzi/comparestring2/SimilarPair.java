@@ -0,0 +1,56 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+/**
+ * 
+ * This class holds the result of the comparison of two elements of the same list. Check {@link SimilarityJoin}.
+ *
+ * @author francescoandreuzzi
+ */
+public class SimilarPair {
+    public StringableObject o1;
+    public StringableObject o2;
+    
+    /**
+     * The indexes of {@code o1} and {@code o2} in the list, {@code index1 < index2}
+     */
+    public int index1;
+    public int index2;
+    
+    public float r;
+    
+    public SimilarPair(StringableObject obj1, int index1, StringableObject obj2, int index2, float rank) {
+        this.o1 = obj1;
+        this.index1 = index1;
+        this.o2 = obj2;
+        this.index2 = index2;
+        this.r = rank;
+    }
+    
+    @Override
+    public String toString() {
+        return o1.toString() + " - " + o2.toString() + " - " + r;
+    }
+}
@@ -0,0 +1,471 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.algs.Cosine;
+import it.andreuzzi.comparestring2.algs.Jaccard;
+import it.andreuzzi.comparestring2.algs.ShingleProfile;
+import it.andreuzzi.comparestring2.algs.SorensenDice;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 
+ * A similarity self-join over the elements of a {@link ProfiledCorpus} built with {@code COSINE}, {@code JACCARD} or {@code SORENSENDICE}: it finds 
+ *      every pair of elements whose rank respects a deadline, without comparing every pair.
+ * <p>
+ * The shingles of each element are sorted by a global ordering (the rarest first). Two elements can be similar enough only if their prefixes 
+ *      (the first shingles, as many as the deadline requires) share at least one shingle, so only the prefixes are indexed and probed 
+ *      (Chaudhuri et al., "A primitive operator for similarity joins in data cleaning", 2006; Bayardo et al., "Scaling up all pairs similarity 
+ *      search", 2007). For {@code JACCARD} and {@code SORENSENDICE} the pairs are also pruned by their number of shingles, by the position of 
+ *      the shared shingles, and by a bound on the Hamming distance of their suffixes (Xiao et al., "Efficient similarity joins for near duplicate 
+ *      detection", 2008). {@code COSINE} weights each shingle with its number of occurrences, and prunes the pairs with the norm of their suffixes.
+ * <p>
+ * The join is exact: every candidate pair is compared with the exact algorithm, and the pairs are the same found calling 
+ *      {@link CompareStrings#withDeadline(java.lang.String, it.andreuzzi.comparestring2.Corpus, float) withDeadline} for each element.
+ * 
+ * @author francescoandreuzzi
+ */
+public class SimilarityJoin {
+    
+    /**
+     * The max depth of the recursion of the suffix filter
+     */
+    private static final int MAX_DEPTH = 2;
+    
+    /**
+     * The filters use a threshold slightly smaller than the requested one, so that no pair is discarded because of a rounding error
+     */
+    private static final double SLACK = 1e-6;
+    
+    private final ProfiledCorpus corpus;
+    private final boolean cosine;
+    private final boolean jaccard;
+    
+    /**
+     * The distinct shingles of each element, as sorted positions in the global ordering
+     */
+    private final int[][] tokens;
+    private final int tokenCount;
+    
+    /**
+     * {@code COSINE} only: the weight of each shingle ({@code count / norm}), and the norm of the weights from each position to the end
+     */
+    private final double[][] weights;
+    private final double[][] suffixNorms;
+    
+    /**
+     * The elements, sorted by number of distinct shingles
+     */
+    private final int[] order;
+    
+    /**
+     * 
+     * @param corpus    a {@link ProfiledCorpus} built with {@code COSINE}, {@code JACCARD} or {@code SORENSENDICE}
+     * @throws IllegalArgumentException if the algorithm of {@code corpus} is not {@link Cosine}, {@link Jaccard} or {@link SorensenDice}
+     */
+    public SimilarityJoin(ProfiledCorpus corpus) {
+        if(!(corpus.algInstance instanceof Cosine || corpus.algInstance instanceof Jaccard || corpus.algInstance instanceof SorensenDice)) {
+            throw new IllegalArgumentException("the algorithm of corpus must be Cosine, Jaccard or SorensenDice");
+        }
+        
+        this.corpus = corpus;
+        this.cosine = corpus.algInstance instanceof Cosine;
+        this.jaccard = corpus.algInstance instanceof Jaccard;
+        
+        ShingleProfile[] profiles = corpus.profiles;
+        int size = profiles.length;
+        
+        int total = 0;
+        for(ShingleProfile profile : profiles) {
+            total += profile.size();
+        }
+        
+//        the distinct shingles of the corpus, and their number of occurrences (one for each element)
+        long[] keys = new long[total];
+        int e = 0;
+        for(ShingleProfile profile : profiles) {
+            for(int i = 0; i < profile.size(); i++) {
+                keys[e++] = profile.key(i);
+            }
+        }
+        Arrays.sort(keys);
+        
+        int distinct = 0;
+        int[] frequencies = new int[total];
+        for(int i = 0; i < total; i++) {
+            if(distinct == 0 || keys[i] != keys[distinct - 1]) {
+                keys[distinct++] = keys[i];
+            }
+            frequencies[distinct - 1]++;
+        }
+        keys = Arrays.copyOf(keys, distinct);
+        tokenCount = distinct;
+        
+//        the global ordering: rare shingles first, so that prefixes share few shingles
+        long[] byFrequency = new long[distinct];
+        for(int i = 0; i < distinct; i++) {
+            byFrequency[i] = ((long) frequencies[i] << 32) | i;
+        }
+        Arrays.sort(byFrequency);
+        int[] ranks = new int[distinct];
+        for(int i = 0; i < distinct; i++) {
+            ranks[(int) byFrequency[i]] = i;
+        }
+        
+        tokens = new int[size][];
+        weights = cosine ? new double[size][] : null;
+        suffixNorms = cosine ? new double[size][] : null;
+        long[] entries = new long[0];
+        long[] bySize = new long[size];
+        for(int r = 0; r < size; r++) {
+            ShingleProfile profile = profiles[r];
+            int n = profile.size();
+            
+            if(entries.length < n) entries = new long[n];
+            for(int i = 0; i < n; i++) {
+                entries[i] = ((long) ranks[Arrays.binarySearch(keys, profile.key(i))] << 32) | profile.count(i);
+            }
+            Arrays.sort(entries, 0, n);
+            
+            tokens[r] = new int[n];
+            for(int i = 0; i < n; i++) {
+                tokens[r][i] = (int) (entries[i] >>> 32);
+            }
+            
+            if(cosine) {
+                weights[r] = new double[n];
+                suffixNorms[r] = new double[n + 1];
+                for(int i = 0; i < n; i++) {
+                    weights[r][i] = (int) entries[i] / profile.norm();
+                }
+                double agg = 0;
+                for(int i = n - 1; i >= 0; i--) {
+                    agg += weights[r][i] * weights[r][i];
+                    suffixNorms[r][i] = Math.sqrt(agg);
+                }
+            }
+            
+            bySize[r] = ((long) n << 32) | r;
+        }
+        
+        Arrays.sort(bySize);
+        order = new int[size];
+        for(int i = 0; i < size; i++) {
+            order[i] = (int) bySize[i];
+        }
+    }
+    
+    /**
+     * 
+     * @param deadline  the min similarity (for {@link AlgMap.NormSimAlg}) or the max distance (for {@link AlgMap.NormDistAlg}) of a pair. 
+     *                  It must be {@code > 0} for similarities and {@code < 1} for distances
+     * @return          a sequential {@link Stream} of the pairs of elements whose rank respects {@code deadline}, each pair once. The pairs are found 
+     *                  while the stream is consumed
+     * @throws IllegalArgumentException if {@code deadline} would accept the pairs which have no shingle in common
+     */
+    public Stream<SimilarPair> pairs(float deadline) {
+        boolean biggerIsBetter = Utils.biggerIsBetter(corpus.alg);
+        double threshold = biggerIsBetter ? deadline : 1 - deadline;
+        if(!(threshold > 0)) {
+            throw new IllegalArgumentException("deadline should be > 0 for similarities, < 1 for distances!");
+        }
+        
+        return StreamSupport.stream(new Join(deadline, biggerIsBetter, threshold - SLACK), false);
+    }
+    
+    /**
+     * 
+     * @param size1     the number of distinct shingles of an element
+     * @param size2     the number of distinct shingles of another element
+     * @param threshold the min similarity
+     * @return          the min number of shared shingles of two elements with at least {@code threshold} similarity
+     */
+    private double minOverlap(double size1, double size2, double threshold) {
+        return jaccard ? threshold / (1 + threshold) * (size1 + size2) : threshold / 2 * (size1 + size2);
+    }
+    
+    /**
+     * 
+     * @param size      the number of distinct shingles of an element
+     * @param threshold the min similarity
+     * @return          the min number of distinct shingles of the elements which can have at least {@code threshold} similarity with it
+     */
+    private double minSize(double size, double threshold) {
+        return jaccard ? threshold * size : threshold * size / (2 - threshold);
+    }
+    
+    /**
+     * 
+     * Lower bound of the Hamming distance of the sorted sets {@code x[xFrom, xTo)} and {@code y[yFrom, yTo)}. Both are split around the middle 
+     *      shingle of {@code y}, and the two halves are bounded recursively while the bound doesn't exceed {@code maxDistance}.
+     * 
+     * @return a lower bound of the Hamming distance, or a value greater than {@code maxDistance}
+     */
+    private static int suffixDistance(int[] x, int xFrom, int xTo, int[] y, int yFrom, int yTo, int maxDistance, int depth) {
+        int xLength = xTo - xFrom;
+        int yLength = yTo - yFrom;
+        if(depth > MAX_DEPTH || xLength == 0 || yLength == 0) {
+            return Math.abs(xLength - yLength);
+        }
+        
+        int mid = yFrom + (yLength - 1) / 2;
+        int w = y[mid];
+        
+        int p = Arrays.binarySearch(x, xFrom, xTo, w);
+        int diff = p >= 0 ? 0 : 1;
+        if(p < 0) p = -p - 1;
+        
+//        the shingles smaller than w, and the ones greater than w
+        int xLeft = p - xFrom, yLeft = mid - yFrom;
+        int xRight = xTo - p - (1 - diff), yRight = yTo - mid - 1;
+        int right = Math.abs(xRight - yRight);
+        
+        int distance = Math.abs(xLeft - yLeft) + right + diff;
+        if(distance > maxDistance) {
+            return distance;
+        }
+        
+        int left = suffixDistance(x, xFrom, p, y, yFrom, mid, maxDistance - right - diff, depth + 1);
+        distance = left + right + diff;
+        if(distance > maxDistance) {
+            return distance;
+        }
+        
+        right = suffixDistance(x, p + 1 - diff, xTo, y, mid + 1, yTo, maxDistance - left - diff, depth + 1);
+        return left + right + diff;
+    }
+    
+    /**
+     * 
+     * The pairs of a join. Each element is probed against the index of the prefixes of the elements which precede it in {@code order}.
+     */
+    private final class Join extends Spliterators.AbstractSpliterator<SimilarPair> {
+        
+        private final float deadline;
+        private final boolean biggerIsBetter;
+        private final double threshold;
+        
+        private final int[] probePrefixes;
+        
+        /**
+         * The postings of each shingle: the position in {@code order} of the element, and the position of the shingle in the element. 
+         *      The postings of {@code t} are in {@code [offsets[t], offsets[t + 1])}, sorted by position in {@code order}
+         */
+        private final int[] offsets;
+        private final int[] elements;
+        private final int[] positions;
+        
+        /**
+         * The first posting of each shingle whose element is not too small for the current element
+         */
+        private final int[] starts;
+        
+        /**
+         * For each element (by position in {@code order}), the shared shingles or the partial dot product, -1 if the pair is discarded
+         */
+        private final double[] scores;
+        private final int[] touched;
+        
+        private final ArrayDeque<SimilarPair> buffer = new ArrayDeque<>();
+        private int next;
+        
+        Join(float deadline, boolean biggerIsBetter, double threshold) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+            
+            this.deadline = deadline;
+            this.biggerIsBetter = biggerIsBetter;
+            this.threshold = threshold;
+            
+            int size = order.length;
+            probePrefixes = new int[size];
+            int[] indexPrefixes = new int[size];
+            for(int r = 0; r < size; r++) {
+                int n = tokens[r].length;
+                if(cosine) {
+//                    the shingles after the prefix can't give a cosine similarity above threshold
+                    int prefix = 0;
+                    while(prefix < n && suffixNorms[r][prefix] >= threshold) prefix++;
+                    probePrefixes[r] = prefix;
+                    indexPrefixes[r] = prefix;
+                } else {
+//                    an element is probed against smaller elements, and indexed for larger elements
+                    probePrefixes[r] = prefix(n, minOverlap(n, minSize(n, threshold), threshold));
+                    indexPrefixes[r] = prefix(n, minOverlap(n, n, threshold));
+                }
+            }
+            
+            offsets = new int[tokenCount + 1];
+            for(int r = 0; r < size; r++) {
+                for(int j = 0; j < indexPrefixes[r]; j++) {
+                    offsets[tokens[r][j] + 1]++;
+                }
+            }
+            for(int t = 0; t < tokenCount; t++) {
+                offsets[t + 1] += offsets[t];
+            }
+            
+            elements = new int[offsets[tokenCount]];
+            positions = new int[offsets[tokenCount]];
+            starts = Arrays.copyOf(offsets, tokenCount);
+            int[] cursors = Arrays.copyOf(offsets, tokenCount);
+            for(int q = 0; q < size; q++) {
+                int r = order[q];
+                for(int j = 0; j < indexPrefixes[r]; j++) {
+                    int slot = cursors[tokens[r][j]]++;
+                    elements[slot] = q;
+                    positions[slot] = j;
+                }
+            }
+            
+            scores = new double[size];
+            touched = new int[size];
+            
+            equalWithoutShingles();
+        }
+        
+        /**
+         * 
+         * @param size      the number of distinct shingles of an element
+         * @param overlap   the min number of shared shingles
+         * @return          the number of shingles of the element which must share at least one shingle with the prefix of any similar element
+         */
+        private int prefix(int size, double overlap) {
+            long prefix = size - (long) Math.ceil(overlap) + 1;
+            return (int) Math.max(0, Math.min(size, prefix));
+        }
+        
+        /**
+         * Equal strings are similar even when they have no shingles (they are shorter than k), so these pairs are found without the index
+         */
+        private void equalWithoutShingles() {
+            int count = 0;
+            while(count < order.length && tokens[order[count]].length == 0) count++;
+            
+            Integer[] empty = new Integer[count];
+            for(int i = 0; i < count; i++) {
+                empty[i] = order[i];
+            }
+            Arrays.sort(empty, (i1, i2) -> corpus.strings[i1].compareTo(corpus.strings[i2]));
+            
+            for(int i = 0; i < count; i++) {
+                for(int j = i + 1; j < count && corpus.strings[empty[i]].equals(corpus.strings[empty[j]]); j++) {
+                    verify(empty[i], empty[j]);
+                }
+            }
+        }
+        
+        @Override
+        public boolean tryAdvance(Consumer<? super SimilarPair> action) {
+            while(buffer.isEmpty() && next < order.length) {
+                probe(next++);
+            }
+            
+            if(buffer.isEmpty()) {
+                return false;
+            }
+            action.accept(buffer.poll());
+            return true;
+        }
+        
+        /**
+         * Find the pairs of {@code order[p]} and the elements which precede it in {@code order}, and put them into the buffer.
+         * 
+         * @param p     a position in {@code order}
+         */
+        private void probe(int p) {
+            int x = order[p];
+            int[] xTokens = tokens[x];
+            int xSize = xTokens.length;
+            double minSize = cosine ? 0 : minSize(xSize, threshold);
+            int count = 0;
+            
+            for(int i = 0; i < probePrefixes[x]; i++) {
+                int t = xTokens[i];
+                int end = offsets[t + 1];
+                
+//                elements are probed by size, so an element which is too small stays too small
+                int s = starts[t];
+                while(s < end && tokens[order[elements[s]]].length < minSize) s++;
+                starts[t] = s;
+                
+                for(; s < end && elements[s] < p; s++) {
+                    int q = elements[s];
+                    if(scores[q] < 0) continue;
+                    
+                    int y = order[q];
+                    int j = positions[s];
+                    if(scores[q] == 0) touched[count++] = q;
+                    
+                    if(cosine) {
+                        double product = weights[x][i] * weights[y][j];
+                        double bound = scores[q] + product + suffixNorms[x][i + 1] * suffixNorms[y][j + 1];
+                        scores[q] = bound >= threshold ? scores[q] + product : -1;
+                        continue;
+                    }
+                    
+                    int ySize = tokens[y].length;
+                    int overlap = (int) Math.ceil(minOverlap(xSize, ySize, threshold));
+                    
+//                    the shingles after i and j can add at most min(...) shared shingles
+                    if(scores[q] + 1 + Math.min(xSize - i - 1, ySize - j - 1) < overlap) {
+                        scores[q] = -1;
+                        continue;
+                    }
+                    
+//                    the first shared shingle: the shingles before i and j are all different
+                    if(scores[q] == 0) {
+                        int maxDistance = xSize + ySize - 2 * overlap - i - j;
+                        if(suffixDistance(xTokens, i + 1, xSize, tokens[y], j + 1, ySize, maxDistance, 1) > maxDistance) {
+                            scores[q] = -1;
+                            continue;
+                        }
+                    }
+                    scores[q]++;
+                }
+            }
+            
+            for(int c = 0; c < count; c++) {
+                int q = touched[c];
+                if(scores[q] > 0) {
+                    verify(x, order[q]);
+                }
+                scores[q] = 0;
+            }
+        }
+        
+        private void verify(int x, int y) {
+            float rank = corpus.compare(corpus.profiles[x], corpus.profiles[y], biggerIsBetter);
+            if(biggerIsBetter ? rank >= deadline : rank <= deadline) {
+                int index1 = Math.min(x, y), index2 = Math.max(x, y);
+                buffer.add(new SimilarPair(corpus.items[index1], index1, corpus.items[index2], index2, rank));
+            }
+        }
+    }
+}
@@ -36,6 +36,16 @@ public class StringableStringWrapper implements StringableObject {
         this.s = s;
         this.lower = s.toLowerCase();
     }
+    
+    /**
+     * 
+     * @param s     the wrapped {@link String}
+     * @param lower the {@link String} returned by {@link #getLowercaseString() getLowercaseString()}
+     */
+    StringableStringWrapper(String s, String lower) {
+        this.s = s;
+        this.lower = lower;
+    }
 
     @Override
     public String getLowercaseString() {
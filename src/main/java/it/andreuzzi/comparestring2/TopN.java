@@ -0,0 +1,222 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import java.util.Arrays;
+
+/**
+ * 
+ * A bounded heap which keeps the best {@code n} elements it is offered. An element is kept as its rank, its index and its {@link StringableObject}
+ *      in three parallel arrays, and a {@link CompareItem} is created only for the elements which are in the heap when it's drained. The 
+ *      elements are ordered like {@link CustomComparator} does, and the elements which are equal for the comparator by their index, so that 
+ *      the result is the same given by a stable sort of every element by index.
+ *
+ * @author francescoandreuzzi
+ */
+final class TopN {
+    
+    private final boolean biggerIsBetter;
+    private final int capacity;
+    
+    /**
+     * A binary heap whose root is the worst element
+     */
+    private float[] ranks;
+    private StringableObject[] objects;
+    private int[] indexes;
+    private int size;
+    
+    /**
+     * 
+     * @param n                 the max number of elements
+     * @param biggerIsBetter    true if a bigger rank is better
+     */
+    TopN(int n, boolean biggerIsBetter) {
+        this.biggerIsBetter = biggerIsBetter;
+        capacity = Math.max(0, n);
+        
+        int length = Math.min(capacity, 16);
+        ranks = new float[length];
+        objects = new StringableObject[length];
+        indexes = new int[length];
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * 
+     * @return true if the heap contains {@code n} elements
+     */
+    boolean isFull() {
+        return size == capacity;
+    }
+    
+    /**
+     * 
+     * @return the rank of the worst element in the heap. The heap must not be empty
+     */
+    float worstRank() {
+        return ranks[0];
+    }
+    
+    /**
+     * 
+     * @param deadline  the min/max rank of the elements the caller is interested in
+     * @return          the min/max rank an element must have in order to respect {@code deadline} and be kept: the stricter between 
+     *                      {@code deadline} and the rank of the worst element, once the heap is full
+     */
+    float bound(float deadline) {
+        if(size < capacity || size == 0 || Float.isNaN(ranks[0])) return deadline;
+        return biggerIsBetter ? Math.max(deadline, ranks[0]) : Math.min(deadline, ranks[0]);
+    }
+    
+    /**
+     * 
+     * Tell whether an element with the given rank may be kept, without looking at the element. Used to skip the creation of the 
+     *      {@link StringableObject} of most of the elements, once the heap is full.
+     * 
+     * @param rank  a rank
+     * @return      false if the heap is full, and {@code rank} is worse than the rank of its worst element
+     */
+    boolean accepts(float rank) {
+        if(size < capacity) return true;
+        if(size == 0) return false;
+        
+        float worst = ranks[0];
+        if(Float.isNaN(rank)) return Float.isNaN(worst);
+        if(Float.isNaN(worst)) return true;
+        return biggerIsBetter ? rank >= worst : rank <= worst;
+    }
+    
+    /**
+     * 
+     * @param rank  the rank of {@code o}
+     * @param o     a {@link StringableObject}
+     * @param index the index of {@code o}
+     * @return      true if {@code o} is kept, false if the heap is full and {@code o} is not better than its worst element
+     */
+    boolean offer(float rank, StringableObject o, int index) {
+        if(size < capacity) {
+            if(size == ranks.length) {
+                int length = (int) Math.min(capacity, 2L * size);
+                ranks = Arrays.copyOf(ranks, length);
+                objects = Arrays.copyOf(objects, length);
+                indexes = Arrays.copyOf(indexes, length);
+            }
+            
+            int c = size++;
+            while(c > 0) {
+                int parent = (c - 1) / 2;
+                if(!worse(rank, o, index, parent)) break;
+                move(parent, c);
+                c = parent;
+            }
+            set(c, rank, o, index);
+            return true;
+        }
+        
+        if(!accepts(rank) || !worse(0, rank, o, index)) {
+            return false;
+        }
+        siftDown(rank, o, index);
+        return true;
+    }
+    
+    /**
+     * 
+     * Offer every element of {@code other} to this heap, with its index. Used to merge the heaps of disjoint parts of the same list,
+     *      the result doesn't depend on the order of the merges.
+     * 
+     * @param other a {@link TopN} with the same {@code n} and sorting order. It must not be used anymore
+     */
+    void merge(TopN other) {
+        for(int i = 0; i < other.size; i++) {
+            offer(other.ranks[i], other.objects[i], other.indexes[i]);
+        }
+    }
+    
+    /**
+     * 
+     * @return the elements in the heap, from the best to the worst. The heap is emptied
+     */
+    CompareItem[] drain() {
+        CompareItem[] sorted = new CompareItem[size];
+        while(size > 0) {
+            sorted[size - 1] = new CompareItem(objects[0], ranks[0]);
+            size--;
+            if(size > 0) siftDown(ranks[size], objects[size], indexes[size]);
+            objects[size] = null;
+        }
+        return sorted;
+    }
+    
+    /**
+     * 
+     * Replace the root with the given element, and move it down to its place.
+     */
+    private void siftDown(float rank, StringableObject o, int index) {
+        int c = 0;
+        while(2 * c + 1 < size) {
+            int child = 2 * c + 1;
+            if(child + 1 < size && worse(child + 1, child)) {
+                child++;
+            }
+            if(!worse(child, rank, o, index)) {
+                break;
+            }
+            move(child, c);
+            c = child;
+        }
+        set(c, rank, o, index);
+    }
+    
+    private void move(int from, int to) {
+        set(to, ranks[from], objects[from], indexes[from]);
+    }
+    
+    private void set(int c, float rank, StringableObject o, int index) {
+        ranks[c] = rank;
+        objects[c] = o;
+        indexes[c] = index;
+    }
+    
+    private boolean worse(int c1, int c2) {
+        return worse(c1, ranks[c2], objects[c2], indexes[c2]);
+    }
+    
+    private boolean worse(int c, float rank, StringableObject o, int index) {
+        return worse(ranks[c], objects[c], indexes[c], rank, o, index);
+    }
+    
+    private boolean worse(float rank, StringableObject o, int index, int c) {
+        return worse(rank, o, index, ranks[c], objects[c], indexes[c]);
+    }
+    
+    private boolean worse(float rank1, StringableObject o1, int index1, float rank2, StringableObject o2, int index2) {
+        int c = CustomComparator.compare(rank1, o1, rank2, o2, biggerIsBetter);
+        return c > 0 || (c == 0 && index1 > index2);
+    }
+}
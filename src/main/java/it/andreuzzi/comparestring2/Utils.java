@@ -61,12 +61,12 @@ public class Utils {
      * @param <T>       the class of the returned array
      * @param c         the class that will be used to cast the returned elements
      * @param items     a sorted array of {@link CompareItem}
-     * @param n         the length of the returned array
-     * @return          an array of {@code T} containing the first {@code n} elements of {@code items}
+     * @param n         the max length of the returned array
+     * @return          an array of {@code T} containing the first {@code n} elements of {@code items}, or every element if {@code items}
+     *                      contains less than {@code n} elements
      */
     public static <T> T[] gather(Class<T> c, CompareItem[] items, int n) {
-        int length = Math.min(n, items.length - 1);
-        if(length < 0) length = 0;
+        int length = Math.max(0, Math.min(n, items.length));
         T[] array = (T[]) Array.newInstance(c, length);
         for(int i = 0; i < length; i++) {
             array[i] = (T) items[i].o;
@@ -91,22 +91,30 @@ public class Utils {
      * @param items             a sorted array of {@link CompareItem}
      * @param deadline          the deadline
      * @param biggerIsBetter    refer to {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) biggerIsBetter(Alg)}
-     * @return                  the index of the first element before the first element whose {@code r} value is {@code > deadline} if 
-     *                              {@code biggerIsBetter} is false, the index of the first element before the first element whose {@code r} value is {@code < deadline} if 
-     *                              {@code biggerIsBetter} is true
+     * @return                  the index of the first element whose {@code r} value is {@code > deadline} if {@code biggerIsBetter} is false, 
+     *                              {@code < deadline} if {@code biggerIsBetter} is true, or NaN. This is the number of elements which respect 
+     *                              {@code deadline}. If every element respects {@code deadline}, {@code items.length}
      */
     public static int firstBeyondDeadline(CompareItem[] items, double deadline, boolean biggerIsBetter) {
-        boolean check = false;
         int c = 0;
         for(; c < items.length; c++) {
-            boolean case1 = biggerIsBetter && items[c].r < deadline;
-            boolean case2 = !biggerIsBetter && items[c].r > deadline;
-            
-            check = case1 || case2;
-            if(check) break;
+//            NaN ranks are sorted last, and never respect a deadline
+            if(!respectsDeadline(items[c].r, deadline, biggerIsBetter)) break;
         }
         
-        return c - (check ? 1 : 0);
+        return c;
+    }
+    
+    /**
+     * 
+     * @param r                 the rank of an element
+     * @param deadline          the deadline
+     * @param biggerIsBetter    refer to {@link Utils#biggerIsBetter(it.andreuzzi.comparestring2.AlgMap.Alg) biggerIsBetter(Alg)}
+     * @return                  {@code true} if {@code r >= deadline} and {@code biggerIsBetter} is true, or {@code r <= deadline} and 
+     *                              {@code biggerIsBetter} is false. A NaN rank never respects a deadline
+     */
+    static boolean respectsDeadline(float r, double deadline, boolean biggerIsBetter) {
+        return biggerIsBetter ? r >= deadline : r <= deadline;
     }
     
     public static void log(Object o) {
@@ -139,24 +147,50 @@ public class Utils {
      * @return            the value of the best match
      */
     public static float checkSplits(String s1, String s2, String[] splitters, Algorithm algInstance, AlgMap.Alg alg) {
+        return checkSplits(s1, s2, splitters, algInstance, alg, Corpus.noDeadline(alg));
+    }
+    
+    /**
+     * Like {@link Utils#checkSplits(java.lang.String, java.lang.String, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg) checkSplits(String, String, String[], Algorithm, Alg)}, 
+     * but each comparison may stop as soon as its result is known not to respect {@code bound}, or to be worse than the best match found so far.
+     * 
+     * @param s1          the first {@link String} of the comparison
+     * @param s2          the second {@link String} of the comparison
+     * @param splitters   refer to {@link Utils#checkSplits(java.lang.String, java.lang.String, java.lang.String[], it.andreuzzi.comparestring2.algs.interfaces.Algorithm, it.andreuzzi.comparestring2.AlgMap.Alg) checkSplits(String, String, String[], Algorithm, Alg)}
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance  of {@link Alg}. Check {@link AlgMap} 
+     * @param bound       the min/max value the caller is interested in
+     * @return            the value of the best match if it respects {@code bound}, otherwise any value which does not respect {@code bound}
+     * @see               Alg#compare(it.andreuzzi.comparestring2.algs.interfaces.Algorithm, java.lang.String, java.lang.String, float) 
+     */
+    public static float checkSplits(String s1, String s2, String[] splitters, Algorithm algInstance, AlgMap.Alg alg, float bound) {
         boolean biggerIsBetter = Utils.biggerIsBetter(alg);
         float result = Utils.baseRank(alg);
         
         for(String q : splitters) {
             String[] split = s2.split(Pattern.quote(q));
             for(int i = 1; i < split.length; i++) {
-                float r = compare(s1, split[i], algInstance, alg);
+                float r = compare(s1, split[i], algInstance, alg, tighten(bound, result, biggerIsBetter));
                 result = biggerIsBetter ? Math.max(result, r) : Math.min(result, r);
             }
         }
         
 //        test the whole word
-        float r = compare(s1, s2, algInstance, alg);
+        float r = compare(s1, s2, algInstance, alg, tighten(bound, result, biggerIsBetter));
         result = biggerIsBetter ? Math.max(result, r) : Math.min(result, r);
         
         return result;
     }
     
+    /**
+     * 
+     * @return the stricter between {@code bound} and {@code best}
+     */
+    private static float tighten(float bound, float best, boolean biggerIsBetter) {
+        if(Float.isNaN(best)) return bound;
+        return biggerIsBetter ? Math.max(bound, best) : Math.min(bound, best);
+    }
+    
     private static final Pattern accentPattern = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
     private static final String EMPTYSTRING = "";
     
@@ -166,10 +200,21 @@ public class Utils {
      * @return  {@code s}, lowercase, without accents, or similar weird characters
      */
     public static String normalize(String s) {
+//        lowercase ASCII is left unchanged by the decomposition, the pattern and toLowerCase
+        if(isLowercaseAscii(s)) return s;
+        
         String decomposed = Normalizer.normalize(s, Normalizer.Form.NFD);
         return accentPattern.matcher(decomposed).replaceAll(EMPTYSTRING).toLowerCase();
     }
     
+    private static boolean isLowercaseAscii(String s) {
+        for(int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if(c >= 0x80 || (c >= 'A' && c <= 'Z')) return false;
+        }
+        return true;
+    }
+    
     /**
      * 
      * @param s1          the {@link String} string of the comparison
@@ -183,6 +228,21 @@ public class Utils {
         return alg.compare(algInstance, s1, s2);
     }
     
+    /**
+     * 
+     * @param s1          the {@link String} string of the comparison
+     * @param s2          the {@link String} string of the comparison
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @param bound       the min/max value the caller is interested in
+     * @return            the distance/similarity between {@code s1} and {@code s2} if it respects {@code bound}, otherwise any value which 
+     *                      does not respect {@code bound}
+     * @see               Alg#compare(it.andreuzzi.comparestring2.algs.interfaces.Algorithm, java.lang.String, java.lang.String, float) 
+    */
+    public static float compare(String s1, String s2, Algorithm algInstance, Alg alg, float bound) {
+        return alg.compare(algInstance, s1, s2, bound);
+    }
+    
     /**
      * 
      * @param s1          the first {@link String} of the comparison
@@ -0,0 +1,319 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import it.andreuzzi.comparestring2.algs.interfaces.MetricStringDistance;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 
+ * A vantage point tree (Yianilos, "Data structures and algorithms for nearest neighbor search in general metric spaces", 1993) over the elements,
+ *      for the distances which respect the triangle inequality: the algorithms in {@link AlgMap.MetricDistAlg}, {@link AlgMap.NormDistAlg#JACCARD} 
+ *      and {@link AlgMap.NormDistAlg#METRICLCS}.
+ * <p>
+ * Each node is an element (the vantage point), which splits the other elements of its subtree at the median of their distances from it: 
+ *      the inner subtree holds the nearest half, the outer subtree the farthest half. Each node keeps the min and max distance of each subtree, 
+ *      so that a subtree whose elements can't be within the range of a query is skipped. Nearest neighbours queries ({@code topNmatches}) 
+ *      shrink the range to the distance of the {@code n}-th best element found so far, and visit the nearest subtree first.
+ * <p>
+ * Unlike {@link BkTree}, the pruning doesn't depend on the number of distinct distances, so VP-trees suit the normalized distances, which take 
+ *      continuous values. The tree is built in parallel on the common {@link ForkJoinPool}: {@code algInstance} must be safe for concurrent use, 
+ *      like every {@link Algorithm} in this library.
+ * <p>
+ * The index is exact: the results are the same (and in the same order) given by a comparison with every element. How many subtrees are skipped 
+ *      depends on the elements: when most of them are about equally far from each other (e.g. random strings), the bounds prune little.
+ * 
+ * @author francescoandreuzzi
+ */
+public class VpTree extends Corpus {
+    
+    /**
+     * The ranges are widened by this much, so that no element is discarded because of a rounding error
+     */
+    private static final float SLACK = 1e-6f;
+    
+    /**
+     * Subtrees with less elements are built by the current task
+     */
+    private static final int SEQUENTIAL_SIZE = 1 << 10;
+    
+    /**
+     * The elements, in the order of the nodes. The subtree of the node in position {@code p} is in {@code [p, end)}: its vantage point is 
+     *      {@code order[p]}, the inner subtree is in {@code [p + 1, splits[p])} and the outer subtree in {@code [splits[p], end)}
+     */
+    private final int[] order;
+    private final int[] splits;
+    
+    /**
+     * The min and max distances from the vantage point of the elements in the inner and outer subtrees
+     */
+    private final float[] innerMin, innerMax;
+    private final float[] outerMin, outerMax;
+    
+    /**
+     * 
+     * @param ss          the {@code String[]} object whose elements will be compared
+     * @param alg         an instance of {@link Alg}. Check {@link AlgMap} 
+     * @param args        a list of Object that can be used to build an instance of {@link Algorithm}
+     * @throws IllegalArgumentException if {@code alg} is not a metric distance
+     */
+    public VpTree(String[] ss, Alg alg, Object... args) {
+        this(ss, alg.buildAlg(args), alg);
+    }
+    
+    /**
+     * 
+     * @param ss          the {@code String[]} object whose elements will be compared
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @throws IllegalArgumentException if {@code algInstance} is not a {@link MetricStringDistance}, or {@code alg} is not a distance
+     */
+    public VpTree(String[] ss, Algorithm algInstance, Alg alg) {
+        this(ss.length, wrap(ss), algInstance, alg);
+    }
+    
+    /**
+     * 
+     * @param ss          the {@code StringableObject[]} object whose elements will be compared
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @throws IllegalArgumentException if {@code algInstance} is not a {@link MetricStringDistance}, or {@code alg} is not a distance
+     */
+    public VpTree(StringableObject[] ss, Algorithm algInstance, Alg alg) {
+        this(ss.length, Arrays.asList(ss), algInstance, alg);
+    }
+    
+    /**
+     * 
+     * @param size        the exact number of elements in {@code ss}
+     * @param ss          an {@link Iterable} object whose elements will be compared
+     * @param algInstance an instance of {@link Algorithm} that will be used to perform the comparison
+     * @param alg         an instance of {@link Alg}. It must refer to the same algorithm referred by {@code algInstance}. Check {@link AlgMap} 
+     * @throws IllegalArgumentException if {@code algInstance} is not a {@link MetricStringDistance}, or {@code alg} is not a distance
+     */
+    public VpTree(int size, Iterable<? extends StringableObject> ss, Algorithm algInstance, Alg alg) {
+        super(size, ss, algInstance, alg);
+        
+        if(!(algInstance instanceof MetricStringDistance) || Utils.biggerIsBetter(alg)) {
+            throw new IllegalArgumentException("algInstance must be a MetricStringDistance, and alg a distance");
+        }
+        
+        order = new int[size];
+        for(int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        splits = new int[size];
+        innerMin = new float[size];
+        innerMax = new float[size];
+        outerMin = new float[size];
+        outerMax = new float[size];
+        
+        ForkJoinPool.commonPool().invoke(new Build(0, size, new float[size]));
+    }
+    
+    private float distance(String s1, String s2) {
+        return Utils.compare(s1, s2, algInstance, alg);
+    }
+    
+    /**
+     * Build the subtree in {@code [from, to)}. {@code distances} is shared by the tasks, each one uses only its range.
+     */
+    private final class Build extends RecursiveAction {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final int from, to;
+        private final float[] distances;
+        
+        Build(int from, int to, float[] distances) {
+            this.from = from;
+            this.to = to;
+            this.distances = distances;
+        }
+        
+        @Override
+        protected void compute() {
+            if(to - from <= SEQUENTIAL_SIZE) {
+                build(from, to);
+                return;
+            }
+            
+            int split = split(from, to);
+            invokeAll(new Build(from + 1, split, distances), new Build(split, to, distances));
+        }
+        
+        private void build(int from, int to) {
+            while(to - from > 1) {
+                int split = split(from, to);
+                build(from + 1, split);
+                from = split;
+            }
+        }
+        
+        /**
+         * 
+         * Choose the vantage point of {@code [from, to)}, and split the other elements at the median of their distances from it.
+         * 
+         * @return the beginning of the outer subtree
+         */
+        private int split(int from, int to) {
+//            a pseudo random vantage point, the same at each build
+            int h = from * 0x9E3779B9;
+            swap(from, from + (int) (((h ^ (h >>> 16)) & 0x7FFFFFFFL) % (to - from)));
+            
+            String vantage = strings[order[from]];
+            for(int i = from + 1; i < to; i++) {
+                float d = distance(vantage, strings[order[i]]);
+//                NaN distances are the farthest, and the subtrees which hold them are never pruned
+                distances[i] = Float.isNaN(d) ? Float.POSITIVE_INFINITY : d;
+            }
+            
+            int split = from + 1 + (to - from - 1) / 2;
+            select(from + 1, to, split);
+            
+            splits[from] = split;
+            innerMax[from] = max(from + 1, split);
+            innerMin[from] = innerMax[from] == Float.POSITIVE_INFINITY ? 0 : min(from + 1, split);
+            outerMax[from] = max(split, to);
+            outerMin[from] = outerMax[from] == Float.POSITIVE_INFINITY ? 0 : min(split, to);
+            return split;
+        }
+        
+        /**
+         * 
+         * Reorder {@code [from, to)} so that the distances before {@code k} are not greater than the distance in {@code k}, and the distances 
+         *      after {@code k} are not smaller (Hoare's selection).
+         */
+        private void select(int from, int to, int k) {
+            int lo = from, hi = to - 1;
+            while(lo < hi) {
+                float pivot = distances[lo + (hi - lo) / 2];
+                int i = lo, j = hi;
+                while(i <= j) {
+                    while(distances[i] < pivot) i++;
+                    while(distances[j] > pivot) j--;
+                    if(i <= j) swap(i++, j--);
+                }
+                if(k <= j) hi = j;
+                else if(k >= i) lo = i;
+                else return;
+            }
+        }
+        
+        private float min(int from, int to) {
+            float min = Float.POSITIVE_INFINITY;
+            for(int i = from; i < to; i++) min = Math.min(min, distances[i]);
+            return min;
+        }
+        
+        private float max(int from, int to) {
+            float max = 0;
+            for(int i = from; i < to; i++) max = Math.max(max, distances[i]);
+            return max;
+        }
+        
+        private void swap(int i, int j) {
+            int o = order[i];
+            order[i] = order[j];
+            order[j] = o;
+            float d = distances[i];
+            distances[i] = distances[j];
+            distances[j] = d;
+        }
+    }
+    
+    @Override
+    CompareItem[] buildComparePack(String s1, int n, float deadline) {
+        final String ss1 = Utils.normalize(s1);
+        if(items.length == 0 || n <= 0) {
+            return new CompareItem[0];
+        }
+        
+        boolean everything = Float.isInfinite(deadline);
+        TopN best = new TopN(n, false);
+        
+//        each entry is a subtree [from, to), and a lower bound of the distance of its elements from s1
+        int[] froms = new int[16];
+        int[] tos = new int[16];
+        float[] bounds = new float[16];
+        int top = 0;
+        froms[top] = 0;
+        tos[top] = items.length;
+        bounds[top++] = 0;
+        
+        while(top > 0) {
+            top--;
+            int from = froms[top], to = tos[top];
+            
+//            the n best elements found so far, or the deadline, limit the range. NaN bounds are never pruned
+            float radius = deadline;
+            if(best.isFull()) {
+                float worst = best.worstRank();
+                radius = Float.isNaN(worst) ? radius : Math.min(radius, worst);
+            }
+            if(bounds[top] > radius + SLACK) {
+                continue;
+            }
+            
+            int node = order[from];
+            float d = distance(ss1, strings[node]);
+            if(everything || d <= deadline) {
+                best.offer(d, items[node], node);
+            }
+            
+            if(to - from == 1) {
+                continue;
+            }
+            
+            if(top + 2 > froms.length) {
+                froms = Arrays.copyOf(froms, 2 * froms.length);
+                tos = Arrays.copyOf(tos, froms.length);
+                bounds = Arrays.copyOf(bounds, froms.length);
+            }
+            
+            int split = splits[from];
+            float inner = Math.max(Math.max(innerMin[from] - d, d - innerMax[from]), 0);
+            float outer = Math.max(Math.max(outerMin[from] - d, d - outerMax[from]), 0);
+            
+//            the nearest subtree is pushed last, so that it is visited first
+            boolean innerFirst = !(inner > outer);
+            for(int c = 0; c < 2; c++) {
+                boolean pushInner = (c == 0) != innerFirst;
+                int childFrom = pushInner ? from + 1 : split;
+                int childTo = pushInner ? split : to;
+                if(childFrom < childTo) {
+                    froms[top] = childFrom;
+                    tos[top] = childTo;
+                    bounds[top++] = pushInner ? inner : outer;
+                }
+            }
+        }
+        
+        return best.drain();
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2.algs;
+
+import java.util.Arrays;
+
+/**
+ * Bit-parallel kernels used by the edit distance and LCS implementations.
+ *
+ * The shorter string (the pattern) is encoded as a set of bit masks, one for
+ * each distinct character, and the columns of the dynamic programming matrix
+ * are then computed 64 cells at a time. Patterns of up to 64 characters fit in
+ * a single machine word, longer patterns are split in blocks of 64 characters
+ * which are chained through their horizontal deltas.
+ *
+ * Levenshtein: G. Myers, "A fast bit-vector algorithm for approximate string
+ * matching based on dynamic programming", J. ACM 46(3), 1999, in the
+ * formulation given by H. Hyyrö, "Explaining and extending the bit-parallel
+ * approximate string matching algorithm of Myers", 2001.
+ *
+ * Longest common subsequence: L. Allison and T. I. Dix, "A bit-string
+ * longest-common-subsequence algorithm", Inf. Process. Lett. 23(6), 1986, in
+ * the formulation given by H. Hyyrö, "Bit-parallel LCS-length computation
+ * revisited", 2004.
+ *
+ * @author francescoandreuzzi
+ */
+final class BitParallel {
+
+    static final int WORD = 64;
+    private static final long HIGH_BIT = 1L << (WORD - 1);
+
+    private BitParallel() {
+    }
+
+    /**
+     * Compute the Levenshtein distance between s1 and s2. The result is
+     * identical to the one given by the Wagner-Fischer algorithm.
+     *
+     * @param s1 The first string to compare.
+     * @param s2 The second string to compare.
+     * @return The Levenshtein distance between s1 and s2.
+     */
+    static int levenshtein(final String s1, final String s2) {
+        int len1 = s1.length();
+        int len2 = s2.length();
+
+        // the common prefix and suffix do not contribute to the distance
+        int start = 0;
+        while (start < len1 && start < len2
+                && s1.charAt(start) == s2.charAt(start)) {
+            start++;
+        }
+        while (len1 > start && len2 > start
+                && s1.charAt(len1 - 1) == s2.charAt(len2 - 1)) {
+            len1--;
+            len2--;
+        }
+
+        String pattern = s1, text = s2;
+        int m = len1 - start, n = len2 - start;
+        if (m > n) {
+            pattern = s2;
+            text = s1;
+            m = len2 - start;
+            n = len1 - start;
+        }
+
+        if (m == 0) {
+            return n;
+        }
+
+        PatternMasks peq = new PatternMasks(pattern, start, m);
+        if (m <= WORD) {
+            return levenshteinWord(peq, text, start, n);
+        }
+        return levenshteinBlocks(peq, text, start, n);
+    }
+
+    private static int levenshteinWord(final PatternMasks peq,
+            final String text, final int offset, final int n) {
+        final long last = 1L << (peq.length - 1);
+        long pv = -1L;
+        long mv = 0L;
+        int score = peq.length;
+
+        for (int j = offset, end = offset + n; j < end; j++) {
+            long eq = peq.mask(text.charAt(j));
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+
+            if ((ph & last) != 0) {
+                score++;
+            } else if ((mh & last) != 0) {
+                score--;
+            }
+
+            // the first row of the matrix grows by one at each column
+            ph = (ph << 1) | 1L;
+            mh <<= 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+        }
+
+        return score;
+    }
+
+    private static int levenshteinBlocks(final PatternMasks peq,
+            final String text, final int offset, final int n) {
+        final int words = peq.words;
+        final long last = 1L << ((peq.length - 1) & (WORD - 1));
+        long[] pv = new long[words];
+        long[] mv = new long[words];
+        Arrays.fill(pv, -1L);
+        int score = peq.length;
+
+        for (int j = offset, end = offset + n; j < end; j++) {
+            int slot = peq.slot(text.charAt(j));
+
+            // horizontal delta entering the block from above
+            int hin = 1;
+            for (int b = 0; b < words; b++) {
+                long eq = slot < 0 ? 0L : peq.masks[slot * words + b];
+                long pvb = pv[b];
+                long mvb = mv[b];
+
+                long xv = eq | mvb;
+                if (hin < 0) {
+                    eq |= 1L;
+                }
+                long xh = (((eq & pvb) + pvb) ^ pvb) | eq;
+                long ph = mvb | ~(xh | pvb);
+                long mh = pvb & xh;
+
+                long high = b == words - 1 ? last : HIGH_BIT;
+                int hout = 0;
+                if ((ph & high) != 0) {
+                    hout = 1;
+                } else if ((mh & high) != 0) {
+                    hout = -1;
+                }
+
+                ph <<= 1;
+                mh <<= 1;
+                if (hin < 0) {
+                    mh |= 1L;
+                } else if (hin > 0) {
+                    ph |= 1L;
+                }
+                pv[b] = mh | ~(xv | ph);
+                mv[b] = ph & xv;
+
+                hin = hout;
+            }
+
+            score += hin;
+        }
+
+        return score;
+    }
+
+    /**
+     * Compute the length of the longest common subsequence of s1 and s2,
+     * using O(min(m, n) / 64) words of state.
+     *
+     * @param s1 The first string to compare.
+     * @param s2 The second string to compare.
+     * @return The length of LCS(s1, s2).
+     */
+    static int lcsLength(final String s1, final String s2) {
+        int len1 = s1.length();
+        int len2 = s2.length();
+
+        // the common prefix and suffix belong to every LCS
+        int start = 0;
+        while (start < len1 && start < len2
+                && s1.charAt(start) == s2.charAt(start)) {
+            start++;
+        }
+        int common = start;
+        while (len1 > start && len2 > start
+                && s1.charAt(len1 - 1) == s2.charAt(len2 - 1)) {
+            len1--;
+            len2--;
+            common++;
+        }
+
+        String pattern = s1, text = s2;
+        int m = len1 - start, n = len2 - start;
+        if (m > n) {
+            pattern = s2;
+            text = s1;
+            m = len2 - start;
+            n = len1 - start;
+        }
+
+        if (m == 0) {
+            return common;
+        }
+
+        PatternMasks peq = new PatternMasks(pattern, start, m);
+        if (m <= WORD) {
+            return common + lcsWord(peq, text, start, n);
+        }
+        return common + lcsBlocks(peq, text, start, n);
+    }
+
+    private static int lcsWord(final PatternMasks peq, final String text,
+            final int offset, final int n) {
+        long v = -1L;
+
+        for (int j = offset, end = offset + n; j < end; j++) {
+            long u = v & peq.mask(text.charAt(j));
+            v = (v + u) | (v - u);
+        }
+
+        // each zero bit of v is a matched character of the pattern
+        long valid = peq.length == WORD ? -1L : (1L << peq.length) - 1;
+        return Long.bitCount(~v & valid);
+    }
+
+    private static int lcsBlocks(final PatternMasks peq, final String text,
+            final int offset, final int n) {
+        final int words = peq.words;
+        long[] v = new long[words];
+        Arrays.fill(v, -1L);
+
+        for (int j = offset, end = offset + n; j < end; j++) {
+            int slot = peq.slot(text.charAt(j));
+            if (slot < 0) {
+                // u = 0 leaves v unchanged
+                continue;
+            }
+
+            // multi-word addition, the carry moves to the next block
+            long carry = 0;
+            for (int b = 0; b < words; b++) {
+                long vb = v[b];
+                long u = vb & peq.masks[slot * words + b];
+                long sum = vb + u + carry;
+                carry = Long.compareUnsigned(sum, vb) < 0
+                        || (carry != 0 && sum == vb) ? 1 : 0;
+                v[b] = sum | (vb - u);
+            }
+        }
+
+        int length = 0;
+        for (int b = 0; b < words - 1; b++) {
+            length += Long.bitCount(~v[b]);
+        }
+        int rest = peq.length - (words - 1) * WORD;
+        long valid = rest == WORD ? -1L : (1L << rest) - 1;
+        return length + Long.bitCount(~v[words - 1] & valid);
+    }
+
+    /**
+     * Match masks of a pattern: for each distinct character c of the pattern,
+     * bit i of the mask is set if the i-th character of the pattern is c.
+     * Characters are stored in a small open addressing table, which maps each
+     * of them to the index of its masks.
+     */
+    static final class PatternMasks {
+
+        final int length;
+        final int words;
+        final long[] masks;
+
+        private final char[] keys;
+        private final int[] indexes;
+        private final int tableMask;
+
+        PatternMasks(final String pattern, final int offset,
+                final int length) {
+            this.length = length;
+            this.words = (length + WORD - 1) / WORD;
+
+            int capacity = 8;
+            while (capacity < 2 * length) {
+                capacity <<= 1;
+            }
+            this.tableMask = capacity - 1;
+            this.keys = new char[capacity];
+            this.indexes = new int[capacity];
+            Arrays.fill(indexes, -1);
+
+            int distinct = 0;
+            for (int i = 0; i < length; i++) {
+                char c = pattern.charAt(offset + i);
+                int s = hash(c);
+                while (indexes[s] >= 0 && keys[s] != c) {
+                    s = (s + 1) & tableMask;
+                }
+                if (indexes[s] < 0) {
+                    keys[s] = c;
+                    indexes[s] = distinct++;
+                }
+            }
+
+            this.masks = new long[distinct * words];
+            for (int i = 0; i < length; i++) {
+                int index = slot(pattern.charAt(offset + i));
+                masks[index * words + i / WORD] |= 1L << (i & (WORD - 1));
+            }
+        }
+
+        /**
+         * @param c
+         * @return the index of the masks of c, or -1 if c does not appear in
+         * the pattern
+         */
+        int slot(final char c) {
+            int s = hash(c);
+            int index;
+            while ((index = indexes[s]) >= 0) {
+                if (keys[s] == c) {
+                    return index;
+                }
+                s = (s + 1) & tableMask;
+            }
+            return -1;
+        }
+
+        /**
+         * @param c
+         * @return the mask of c, for single word patterns
+         */
+        long mask(final char c) {
+            int index = slot(c);
+            return index < 0 ? 0L : masks[index];
+        }
+
+        private int hash(final char c) {
+            return (c * 0x9E3779B9) >>> 16 & tableMask;
+        }
+    }
+}
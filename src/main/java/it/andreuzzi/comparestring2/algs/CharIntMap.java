@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2.algs;
+
+import java.util.Arrays;
+
+/**
+ * A map from char to int with open addressing (linear probing), which doesn't
+ * box keys or values. It is meant to be reused: {@link #clear() clear()} keeps
+ * the allocated storage.
+ *
+ * @author francescoandreuzzi
+ */
+final class CharIntMap {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private char[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int mask;
+    private int size;
+
+    CharIntMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param c
+     * @param missing the value returned if c is not in the map
+     * @return the value associated to c, or missing
+     */
+    int get(final char c, final int missing) {
+        int s = hash(c);
+        while (used[s]) {
+            if (keys[s] == c) {
+                return values[s];
+            }
+            s = (s + 1) & mask;
+        }
+        return missing;
+    }
+
+    /**
+     * Associate value to c, replacing the previous value if any.
+     *
+     * @param c
+     * @param value
+     */
+    void put(final char c, final int value) {
+        int s = hash(c);
+        while (used[s]) {
+            if (keys[s] == c) {
+                values[s] = value;
+                return;
+            }
+            s = (s + 1) & mask;
+        }
+
+        used[s] = true;
+        keys[s] = c;
+        values[s] = value;
+
+        if (++size * 2 > keys.length) {
+            rehash();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Remove every key, keeping the allocated storage.
+     */
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(used, false);
+            size = 0;
+        }
+    }
+
+    private void rehash() {
+        char[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+
+        allocate(oldKeys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        keys = new char[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private int hash(final char c) {
+        return (c * 0x9E3779B9) >>> 16 & mask;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2.algs;
+
+import java.util.Arrays;
+
+/**
+ * A weight model compiled into dense cost tables over a declared alphabet.
+ *
+ * The costs of every substitution, insertion and deletion between characters
+ * of the alphabet are computed once, when the table is built. The costs
+ * involving a character outside of the alphabet are asked to the original
+ * weight model.
+ *
+ * A {@link WeightedLevenshtein} built with a table reads the costs straight
+ * from it, instead of calling the weight model for every cell of the matrix.
+ * This pays off when the weights are static, and the same table is used for
+ * many comparisons.
+ *
+ * @author francescoandreuzzi
+ */
+public final class CharacterCostTable implements
+        CharacterSubstitutionInterface, CharacterInsDelInterface {
+
+    private final CharacterSubstitutionInterface charsub;
+    private final CharacterInsDelInterface charchange;
+
+    /**
+     * Index of each character in the alphabet, -1 if absent.
+     */
+    private final int[] indexes;
+    private final int size;
+
+    private final double[] substitution;
+    private final double[] insertion;
+    private final double[] deletion;
+
+    /**
+     * Compile the given substitution weights over alphabet. Insertions and
+     * deletions cost 1.
+     *
+     * @param alphabet The characters whose costs are stored in the table.
+     * @param charsub The strategy to determine character substitution weights.
+     */
+    public CharacterCostTable(final String alphabet,
+                              final CharacterSubstitutionInterface charsub) {
+        this(alphabet, charsub, null);
+    }
+
+    /**
+     * Compile the given substitution, insertion and deletion weights over
+     * alphabet.
+     *
+     * @param alphabet The characters whose costs are stored in the table.
+     * @param charsub The strategy to determine character substitution weights.
+     * @param charchange The strategy to determine character insertion /
+     *                   deletion weights, or null if they all cost 1.
+     * @throws NullPointerException if alphabet or charsub is null.
+     */
+    public CharacterCostTable(final String alphabet,
+                              final CharacterSubstitutionInterface charsub,
+                              final CharacterInsDelInterface charchange) {
+        if (alphabet == null) {
+            throw new NullPointerException("alphabet must not be null");
+        }
+
+        if (charsub == null) {
+            throw new NullPointerException("charsub must not be null");
+        }
+
+        this.charsub = charsub;
+        this.charchange = charchange;
+
+        int maxChar = -1;
+        for (int i = 0; i < alphabet.length(); i++) {
+            maxChar = Math.max(maxChar, alphabet.charAt(i));
+        }
+
+        indexes = new int[maxChar + 1];
+        Arrays.fill(indexes, -1);
+        StringBuilder chars = new StringBuilder();
+        for (int i = 0; i < alphabet.length(); i++) {
+            char c = alphabet.charAt(i);
+            if (indexes[c] < 0) {
+                indexes[c] = chars.length();
+                chars.append(c);
+            }
+        }
+
+        size = chars.length();
+        substitution = new double[size * size];
+        insertion = new double[size];
+        deletion = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            char c1 = chars.charAt(i);
+            insertion[i] = charchange == null
+                    ? 1 : charchange.insertionCost(c1);
+            deletion[i] = charchange == null
+                    ? 1 : charchange.deletionCost(c1);
+
+            for (int j = 0; j < size; j++) {
+                char c2 = chars.charAt(j);
+                // WeightedLevenshtein never substitutes a char with itself
+                substitution[i * size + j] = c1 == c2
+                        ? 0 : charsub.cost(c1, c2);
+            }
+        }
+    }
+
+    /**
+     * @param c
+     * @return the index of c in the alphabet, or -1 if c is not in the
+     * alphabet
+     */
+    int index(final char c) {
+        return c < indexes.length ? indexes[c] : -1;
+    }
+
+    /**
+     * @param i1 the index of c1, as returned by {@link #index(char) index}
+     * @param i2 the index of c2, as returned by {@link #index(char) index}
+     * @param c1
+     * @param c2
+     * @return the cost of the substitution of c1 with c2
+     */
+    double cost(final int i1, final int i2, final char c1, final char c2) {
+        if (i1 >= 0 && i2 >= 0) {
+            return substitution[i1 * size + i2];
+        }
+        return c1 == c2 ? 0 : charsub.cost(c1, c2);
+    }
+
+    /**
+     * @return true if every insertion and deletion costs 1
+     */
+    boolean unitInsDel() {
+        return charchange == null;
+    }
+
+    /**
+     * Indicate the cost of substitution c1 and c2. The cost of the
+     * substitution of a character with itself is 0.
+     * @param c1 The first character of the substitution.
+     * @param c2 The second character of the substitution.
+     * @return The cost in the range [0, 1].
+     */
+    @Override
+    public double cost(final char c1, final char c2) {
+        return cost(index(c1), index(c2), c1, c2);
+    }
+
+    @Override
+    public double deletionCost(final char c) {
+        int i = index(c);
+        if (i >= 0) {
+            return deletion[i];
+        }
+        return charchange == null ? 1 : charchange.deletionCost(c);
+    }
+
+    @Override
+    public double insertionCost(final char c) {
+        int i = index(c);
+        if (i >= 0) {
+            return insertion[i];
+        }
+        return charchange == null ? 1 : charchange.insertionCost(c);
+    }
+}
@@ -84,11 +84,8 @@ public class Cosine extends ShingleBased implements
             return 0;
         }
 
-        Map<String, Integer> profile1 = getProfile(s1);
-        Map<String, Integer> profile2 = getProfile(s2);
-
-        return dotProduct(profile1, profile2)
-                / (norm(profile1) * norm(profile2));
+        ShingleProfile[] profiles = scratchProfiles(s1, s2);
+        return similarity(profiles[0], profiles[1]);
     }
 
     /**
@@ -157,4 +154,48 @@ public class Cosine extends ShingleBased implements
                 / (norm(profile1) * norm(profile2));
     }
 
+    /**
+     * Compute the cosine similarity using precomputed profiles. The result is
+     * the same given by {@link #similarity(String, String)} for the strings
+     * of the profiles.
+     *
+     * @param profile1 The profile of the first string to compare.
+     * @param profile2 The profile of the second string to compare.
+     * @return The cosine similarity in the range [0, 1]
+     * @throws NullPointerException if profile1 or profile2 is null.
+     * @throws IllegalArgumentException if a profile was computed with a
+     * different k.
+     */
+    public final double similarity(final ShingleProfile profile1,
+                                   final ShingleProfile profile2) {
+        checkProfiles(profile1, profile2);
+
+        if (profile1.string.equals(profile2.string)) {
+            return 1;
+        }
+
+        if (profile1.string.length() < getK()
+                || profile2.string.length() < getK()) {
+            return 0;
+        }
+
+        return ShingleProfile.dotProduct(profile1, profile2)
+                / (profile1.norm() * profile2.norm());
+    }
+
+    /**
+     * Return 1.0 - similarity, using precomputed profiles.
+     *
+     * @param profile1 The profile of the first string to compare.
+     * @param profile2 The profile of the second string to compare.
+     * @return 1.0 - the cosine similarity in the range [0, 1]
+     * @throws NullPointerException if profile1 or profile2 is null.
+     * @throws IllegalArgumentException if a profile was computed with a
+     * different k.
+     */
+    public final double distance(final ShingleProfile profile1,
+                                 final ShingleProfile profile2) {
+        return 1.0 - similarity(profile1, profile2);
+    }
+
 }
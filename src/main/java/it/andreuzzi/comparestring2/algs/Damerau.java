@@ -23,7 +23,6 @@
  */
 package it.andreuzzi.comparestring2.algs;
 
-import java.util.HashMap;
 import it.andreuzzi.comparestring2.algs.interfaces.MetricStringDistance;
 
 /**
@@ -38,10 +37,26 @@ import it.andreuzzi.comparestring2.algs.interfaces.MetricStringDistance;
  * This is not to be confused with the optimal string alignment distance, which
  * is an extension where no substring can be edited more than once.
  *
+ * The implementation doesn't allocate memory for each pair of strings: the
+ * distance matrix is stored in a flat array, and the last row where each
+ * character appeared is stored in a dense table for Latin-1 characters and in
+ * a primitive hash map for the others. Both are reused by the following
+ * comparisons made by the same thread.
+ *
  * @author Thibault Debatty
  */
 public class Damerau implements MetricStringDistance {
 
+    private static final int LATIN = 256;
+
+    /**
+     * Matrices larger than this (in cells) are not kept for reuse.
+     */
+    private static final int MAX_RETAINED_CELLS = 1 << 20;
+
+    private static final ThreadLocal<Scratch> SCRATCH =
+            ThreadLocal.withInitial(Scratch::new);
+
     /**
      * Compute the distance between strings: the minimum number of operations
      * needed to transform one string into the other (insertion, deletion,
@@ -66,62 +81,78 @@ public class Damerau implements MetricStringDistance {
             return 0;
         }
 
-        // INFinite distance is the max possible distance
-        int inf = s1.length() + s2.length();
+        final int m = s1.length();
+        final int n = s2.length();
 
-        // Create and initialize the character array indices
-        HashMap<Character, Integer> da = new HashMap<Character, Integer>();
-
-        for (int d = 0; d < s1.length(); d++) {
-            da.put(s1.charAt(d), 0);
-        }
+        // INFinite distance is the max possible distance
+        int inf = m + n;
 
-        for (int d = 0; d < s2.length(); d++) {
-            da.put(s2.charAt(d), 0);
-        }
+        Scratch scratch = SCRATCH.get();
+        int[] latin = scratch.latin;
+        CharIntMap wide = scratch.wide;
 
-        // Create the distance matrix H[0 .. s1.length+1][0 .. s2.length+1]
-        int[][] h = new int[s1.length() + 2][s2.length() + 2];
+        // Create the distance matrix H[0 .. m+1][0 .. n+1], stored by rows
+        final int w = n + 2;
+        int[] h = scratch.matrix((m + 2) * w);
 
         // initialize the left and top edges of H
-        for (int i = 0; i <= s1.length(); i++) {
-            h[i + 1][0] = inf;
-            h[i + 1][1] = i;
+        h[0] = 0;
+        for (int i = 0; i <= m; i++) {
+            h[(i + 1) * w] = inf;
+            h[(i + 1) * w + 1] = i;
         }
 
-        for (int j = 0; j <= s2.length(); j++) {
-            h[0][j + 1] = inf;
-            h[1][j + 1] = j;
-
+        for (int j = 0; j <= n; j++) {
+            h[j + 1] = inf;
+            h[w + j + 1] = j;
         }
 
         // fill in the distance matrix H
         // look at each character in s1
-        for (int i = 1; i <= s1.length(); i++) {
+        for (int i = 1; i <= m; i++) {
+            char c1 = s1.charAt(i - 1);
+            int row = (i + 1) * w;
+            int prev = i * w;
             int db = 0;
 
             // look at each character in b
-            for (int j = 1; j <= s2.length(); j++) {
-                int i1 = da.get(s2.charAt(j - 1));
+            for (int j = 1; j <= n; j++) {
+                char c2 = s2.charAt(j - 1);
+                int i1 = c2 < LATIN ? latin[c2] : wide.get(c2, 0);
                 int j1 = db;
 
                 int cost = 1;
-                if (s1.charAt(i - 1) == s2.charAt(j - 1)) {
+                if (c1 == c2) {
                     cost = 0;
                     db = j;
                 }
 
-                h[i + 1][j + 1] = min(
-                        h[i][j] + cost, // substitution
-                        h[i + 1][j] + 1, // insertion
-                        h[i][j + 1] + 1, // deletion
-                        h[i1][j1] + (i - i1 - 1) + 1 + (j - j1 - 1));
+                h[row + j + 1] = min(
+                        h[prev + j] + cost, // substitution
+                        h[row + j] + 1, // insertion
+                        h[prev + j + 1] + 1, // deletion
+                        h[i1 * w + j1] + (i - i1 - 1) + 1 + (j - j1 - 1));
             }
 
-            da.put(s1.charAt(i - 1), i);
+            if (c1 < LATIN) {
+                latin[c1] = i;
+            } else {
+                wide.put(c1, i);
+            }
         }
 
-        return h[s1.length() + 1][s2.length() + 1];
+        int distance = h[(m + 1) * w + n + 1];
+
+        // leave the character tables empty for the next comparison
+        for (int i = 0; i < m; i++) {
+            char c1 = s1.charAt(i);
+            if (c1 < LATIN) {
+                latin[c1] = 0;
+            }
+        }
+        wide.clear();
+
+        return distance;
     }
 
     private static int min(
@@ -129,4 +160,24 @@ public class Damerau implements MetricStringDistance {
         return Math.min(a, Math.min(b, Math.min(c, d)));
     }
 
+    /**
+     * Per-thread buffers reused across comparisons.
+     */
+    private static final class Scratch {
+
+        private final int[] latin = new int[LATIN];
+        private final CharIntMap wide = new CharIntMap();
+        private int[] matrix = new int[0];
+
+        private int[] matrix(final int cells) {
+            if (matrix.length >= cells) {
+                return matrix;
+            }
+            if (cells > MAX_RETAINED_CELLS) {
+                return new int[cells];
+            }
+            matrix = new int[cells];
+            return matrix;
+        }
+    }
 }
@@ -24,9 +24,7 @@
 
 package it.andreuzzi.comparestring2.algs;
 
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 import it.andreuzzi.comparestring2.algs.interfaces.MetricStringDistance;
 import it.andreuzzi.comparestring2.algs.interfaces.NormalizedStringDistance;
 import it.andreuzzi.comparestring2.algs.interfaces.NormalizedStringSimilarity;
@@ -85,18 +83,8 @@ public class Jaccard extends ShingleBased implements
             return 1;
         }
 
-        Map<String, Integer> profile1 = getProfile(s1);
-        Map<String, Integer> profile2 = getProfile(s2);
-
-
-        Set<String> union = new HashSet<String>();
-        union.addAll(profile1.keySet());
-        union.addAll(profile2.keySet());
-
-        int inter = profile1.keySet().size() + profile2.keySet().size()
-                - union.size();
-
-        return 1.0 * inter / union.size();
+        ShingleProfile[] profiles = scratchProfiles(s1, s2);
+        return similarity(profiles[0], profiles[1]);
     }
 
 
@@ -110,4 +98,75 @@ public class Jaccard extends ShingleBased implements
     public final double distance(final String s1, final String s2) {
         return 1.0 - similarity(s1, s2);
     }
+
+    /**
+     * Compute Jaccard index using precomputed profiles.
+     *
+     * @param profile1
+     * @param profile2
+     * @return The Jaccard index in the range [0, 1]
+     */
+    public final double similarity(
+            final Map<String, Integer> profile1,
+            final Map<String, Integer> profile2) {
+
+        int inter = intersection(profile1, profile2);
+        int union = profile1.size() + profile2.size() - inter;
+
+        return 1.0 * inter / union;
+    }
+
+    /**
+     * Distance is computed as 1 - similarity, using precomputed profiles.
+     *
+     * @param profile1
+     * @param profile2
+     * @return 1 - the Jaccard similarity.
+     */
+    public final double distance(
+            final Map<String, Integer> profile1,
+            final Map<String, Integer> profile2) {
+        return 1.0 - similarity(profile1, profile2);
+    }
+
+    /**
+     * Compute Jaccard index using precomputed profiles. The result is the
+     * same given by {@link #similarity(String, String)} for the strings of
+     * the profiles.
+     *
+     * @param profile1 The profile of the first string to compare.
+     * @param profile2 The profile of the second string to compare.
+     * @return The Jaccard index in the range [0, 1]
+     * @throws NullPointerException if profile1 or profile2 is null.
+     * @throws IllegalArgumentException if a profile was computed with a
+     * different k.
+     */
+    public final double similarity(final ShingleProfile profile1,
+                                   final ShingleProfile profile2) {
+        checkProfiles(profile1, profile2);
+
+        if (profile1.string.equals(profile2.string)) {
+            return 1;
+        }
+
+        int inter = ShingleProfile.intersection(profile1, profile2);
+        int union = profile1.size() + profile2.size() - inter;
+
+        return 1.0 * inter / union;
+    }
+
+    /**
+     * Distance is computed as 1 - similarity, using precomputed profiles.
+     *
+     * @param profile1 The profile of the first string to compare.
+     * @param profile2 The profile of the second string to compare.
+     * @return 1 - the Jaccard similarity.
+     * @throws NullPointerException if profile1 or profile2 is null.
+     * @throws IllegalArgumentException if a profile was computed with a
+     * different k.
+     */
+    public final double distance(final ShingleProfile profile1,
+                                 final ShingleProfile profile2) {
+        return 1.0 - similarity(profile1, profile2);
+    }
 }
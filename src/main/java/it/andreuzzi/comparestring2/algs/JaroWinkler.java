@@ -13,6 +13,15 @@ import it.andreuzzi.comparestring2.algs.interfaces.NormalizedStringSimilarity;
  * Jaro-Winkler was developed in the area of record linkage (duplicate
  * detection) (Winkler, 1990). It returns a value in the interval [0.0, 1.0].
  * The distance is computed as 1 - Jaro-Winkler similarity.
+ *
+ * The comparison doesn't allocate memory: the match flags are kept in buffers
+ * reused by the following comparisons made by the same thread. When the
+ * first string is the longest one, the matching characters are looked up in
+ * a list of positions for each of its characters instead of scanning the
+ * whole matching window. The lists are kept, so comparing the same query
+ * against many candidates builds them only once. When the first string is
+ * the shortest one, its characters are matched in the windows of the other
+ * string as usual.
  * @author Thibault Debatty
  */
 public class JaroWinkler
@@ -23,6 +32,9 @@ public class JaroWinkler
     private static final double JW_COEF = 0.1;
     private final double threshold;
 
+    private static final ThreadLocal<Scratch> SCRATCH =
+            ThreadLocal.withInitial(Scratch::new);
+
     /**
      * Instantiate with default threshold (0.7).
      *
@@ -71,17 +83,19 @@ public class JaroWinkler
             return 1;
         }
 
-        int[] mtp = matches(s1, s2);
-        float m = mtp[0];
+        Scratch scratch = SCRATCH.get();
+        matches(s1, s2, scratch);
+        float m = scratch.matches;
         if (m == 0) {
             return 0f;
         }
-        double j = ((m / s1.length() + m / s2.length() + (m - mtp[1]) / m))
-                / THREE;
+        double j = ((m / s1.length() + m / s2.length()
+                + (m - scratch.transpositions) / m)) / THREE;
         double jw = j;
 
         if (j > getThreshold()) {
-            jw = j + Math.min(JW_COEF, 1.0 / mtp[THREE]) * mtp[2] * (1 - j);
+            jw = j + Math.min(JW_COEF, 1.0 / scratch.maxLength)
+                    * scratch.prefix * (1 - j);
         }
         return jw;
     }
@@ -98,7 +112,8 @@ public class JaroWinkler
         return 1.0 - similarity(s1, s2);
     }
 
-    private int[] matches(final String s1, final String s2) {
+    private static void matches(final String s1, final String s2,
+            final Scratch scratch) {
         String max, min;
         if (s1.length() > s2.length()) {
             max = s1;
@@ -107,43 +122,55 @@ public class JaroWinkler
             max = s2;
             min = s1;
         }
+
         int range = Math.max(max.length() / 2 - 1, 0);
-        int[] match_indexes = new int[min.length()];
-        Arrays.fill(match_indexes, -1);
-        boolean[] match_flags = new boolean[max.length()];
+        boolean[] min_flags = scratch.minFlags(min.length());
+        boolean[] match_flags = scratch.maxFlags(max.length());
         int matches = 0;
-        for (int mi = 0; mi < min.length(); mi++) {
-            char c1 = min.charAt(mi);
-            for (int xi = Math.max(mi - range, 0),
-                    xn = Math.min(mi + range + 1, max.length());
-                    xi < xn;
-                    xi++) {
-                if (!match_flags[xi] && c1 == max.charAt(xi)) {
-                    match_indexes[mi] = xi;
+        if (max == s1) {
+            // the positions of s1 are built once for a list of comparisons
+            // with the same first string, and replace the window scan
+            CharPositions index = scratch.query(s1);
+            index.rewind();
+            for (int mi = 0; mi < min.length(); mi++) {
+                int xi = index.firstFree(min.charAt(mi),
+                        Math.max(mi - range, 0),
+                        Math.min(mi + range + 1, max.length()),
+                        match_flags);
+                if (xi >= 0) {
+                    min_flags[mi] = true;
                     match_flags[xi] = true;
                     matches++;
-                    break;
                 }
             }
-        }
-        char[] ms1 = new char[matches];
-        char[] ms2 = new char[matches];
-        for (int i = 0, si = 0; i < min.length(); i++) {
-            if (match_indexes[i] != -1) {
-                ms1[si] = min.charAt(i);
-                si++;
-            }
-        }
-        for (int i = 0, si = 0; i < max.length(); i++) {
-            if (match_flags[i]) {
-                ms2[si] = max.charAt(i);
-                si++;
+        } else {
+            // the longer string changes at each comparison, its positions
+            // would cost more to build than the windows cost to scan
+            for (int mi = 0; mi < min.length(); mi++) {
+                char c1 = min.charAt(mi);
+                for (int xi = Math.max(mi - range, 0),
+                        xn = Math.min(mi + range + 1, max.length());
+                        xi < xn;
+                        xi++) {
+                    if (!match_flags[xi] && c1 == max.charAt(xi)) {
+                        min_flags[mi] = true;
+                        match_flags[xi] = true;
+                        matches++;
+                        break;
+                    }
+                }
             }
         }
         int transpositions = 0;
-        for (int mi = 0; mi < ms1.length; mi++) {
-            if (ms1[mi] != ms2[mi]) {
-                transpositions++;
+        for (int mi = 0, xi = 0; mi < min.length(); mi++) {
+            if (min_flags[mi]) {
+                while (!match_flags[xi]) {
+                    xi++;
+                }
+                if (min.charAt(mi) != max.charAt(xi)) {
+                    transpositions++;
+                }
+                xi++;
             }
         }
         int prefix = 0;
@@ -154,6 +181,140 @@ public class JaroWinkler
                 break;
             }
         }
-        return new int[]{matches, transpositions / 2, prefix, max.length()};
+
+        scratch.matches = matches;
+        scratch.transpositions = transpositions / 2;
+        scratch.prefix = prefix;
+        scratch.maxLength = max.length();
+    }
+
+    /**
+     * For each distinct character of a string, the ascending list of its
+     * positions. The lists are stored one after the other in a single array.
+     */
+    private static final class CharPositions {
+
+        private final CharIntMap ids = new CharIntMap();
+        private int[] positions = new int[0];
+        private int[] start = new int[0];
+        private int[] cursor = new int[0];
+        private int distinct;
+
+        private void build(final String s) {
+            ids.clear();
+            distinct = 0;
+            int length = s.length();
+            if (positions.length < length) {
+                positions = new int[length];
+            }
+            if (start.length < length + 1) {
+                start = new int[length + 1];
+                cursor = new int[length + 1];
+            }
+
+            // count the occurrences of each character
+            for (int i = 0; i < length; i++) {
+                char c = s.charAt(i);
+                int id = ids.get(c, -1);
+                if (id < 0) {
+                    id = distinct++;
+                    ids.put(c, id);
+                    cursor[id] = 0;
+                }
+                cursor[id]++;
+            }
+
+            int offset = 0;
+            for (int id = 0; id < distinct; id++) {
+                start[id] = offset;
+                offset += cursor[id];
+                cursor[id] = start[id];
+            }
+            start[distinct] = offset;
+
+            for (int i = 0; i < length; i++) {
+                positions[cursor[ids.get(s.charAt(i), -1)]++] = i;
+            }
+        }
+
+        /**
+         * Reset the cursors before a comparison.
+         */
+        private void rewind() {
+            System.arraycopy(start, 0, cursor, 0, distinct);
+        }
+
+        /**
+         * The windows of the successive calls of a comparison have
+         * non-decreasing bounds, so the positions skipped here are not looked
+         * at again.
+         *
+         * @return the first position in [from, to) where c appears and whose
+         * flag is false, or -1 if there isn't one
+         */
+        private int firstFree(final char c, final int from, final int to,
+                final boolean[] flags) {
+            int id = ids.get(c, -1);
+            if (id < 0) {
+                return -1;
+            }
+
+            int end = start[id + 1];
+            int p = cursor[id];
+            while (p < end && (positions[p] < from || flags[positions[p]])) {
+                p++;
+            }
+            cursor[id] = p;
+
+            for (; p < end && positions[p] < to; p++) {
+                if (!flags[positions[p]]) {
+                    return positions[p];
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Per-thread buffers reused across comparisons.
+     */
+    private static final class Scratch {
+
+        private final CharPositions last = new CharPositions();
+        private String lastQuery;
+
+        private boolean[] minFlags = new boolean[0];
+        private boolean[] maxFlags = new boolean[0];
+
+        private int matches;
+        private int transpositions;
+        private int prefix;
+        private int maxLength;
+
+        private CharPositions query(final String s) {
+            if (s != lastQuery && !s.equals(lastQuery)) {
+                last.build(s);
+                lastQuery = s;
+            }
+            return last;
+        }
+
+        private boolean[] minFlags(final int length) {
+            if (minFlags.length < length) {
+                minFlags = new boolean[length];
+            } else {
+                Arrays.fill(minFlags, 0, length, false);
+            }
+            return minFlags;
+        }
+
+        private boolean[] maxFlags(final int length) {
+            if (maxFlags.length < length) {
+                maxFlags = new boolean[length];
+            } else {
+                Arrays.fill(maxFlags, 0, length, false);
+            }
+            return maxFlags;
+        }
     }
 }
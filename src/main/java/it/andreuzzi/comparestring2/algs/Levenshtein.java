@@ -1,5 +1,6 @@
 package it.andreuzzi.comparestring2.algs;
 
+import it.andreuzzi.comparestring2.algs.interfaces.BoundedStringDistance;
 import it.andreuzzi.comparestring2.algs.interfaces.MetricStringDistance;
 
 /**
@@ -9,7 +10,8 @@ import it.andreuzzi.comparestring2.algs.interfaces.MetricStringDistance;
  *
  * @author Thibault Debatty
  */
-public class Levenshtein implements MetricStringDistance {
+public class Levenshtein implements MetricStringDistance,
+        BoundedStringDistance {
 
     /**
      * Equivalent to distance(s1, s2, Integer.MAX_VALUE).
@@ -34,9 +36,16 @@ public class Levenshtein implements MetricStringDistance {
      * between two strings is no greater than the sum Levenshtein distances from
      * a third string).
      *
-     * Implementation uses dynamic programming (Wagner–Fischer algorithm), with
-     * only 2 rows of data. The space requirement is thus O(m) and the algorithm
-     * runs in O(mn).
+     * When the limit cannot be reached (it is greater than the length of the
+     * longest string), or when the shortest string fits in a single machine
+     * word, the distance is computed with the bit-parallel algorithm of Myers,
+     * which processes 64 cells of the matrix at once and runs in
+     * O(n * ceil(m / 64)).
+     * Otherwise the implementation uses dynamic programming (Wagner–Fischer
+     * algorithm) restricted to the diagonal band of width 2 * limit + 1
+     * (Ukkonen), since the cells outside of the band can't hold a value
+     * smaller than limit. The space requirement is thus O(m) and the algorithm
+     * runs in O(limit * n).
      *
      * @param s1 The first string to compare.
      * @param s2 The second string to compare.
@@ -45,7 +54,8 @@ public class Levenshtein implements MetricStringDistance {
      *              only care about strings with a certain similarity.
      *              Set this to Integer.MAX_VALUE if you want to run the
      *              calculation to completion in every case.
-     * @return The computed Levenshtein distance.
+     * @return The computed Levenshtein distance, or limit if the distance is
+     *         greater than or equal to limit.
      * @throws NullPointerException if s1 or s2 is null.
      */
     public final double distance(final String s1, final String s2,
@@ -63,62 +73,127 @@ public class Levenshtein implements MetricStringDistance {
         }
 
         if (s1.length() == 0) {
-            return s2.length();
+            return Math.min(s2.length(), limit);
         }
 
         if (s2.length() == 0) {
-            return s1.length();
+            return Math.min(s1.length(), limit);
         }
 
+        int min_len = Math.min(s1.length(), s2.length());
+        int max_len = Math.max(s1.length(), s2.length());
+
+        if (limit > max_len) {
+            return BitParallel.levenshtein(s1, s2);
+        }
+
+        // the distance is at least the difference of the lengths
+        if (max_len - min_len >= limit) {
+            return limit;
+        }
+
+        if (min_len <= BitParallel.WORD || 2 * limit + 1 >= min_len) {
+            return Math.min(BitParallel.levenshtein(s1, s2), limit);
+        }
+
+        return bandedDistance(s1, s2, limit);
+    }
+
+    /**
+     * Compute the distance, stopping as soon as it can't be smaller than
+     * limit. The distance is an integer, so this is equivalent to
+     * distance(s1, s2, (int) Math.ceil(limit)).
+     *
+     * @param s1 The first string to compare.
+     * @param s2 The second string to compare.
+     * @param limit The maximum result to compute before stopping.
+     * @return The computed Levenshtein distance, or a value greater than or
+     *         equal to limit if the distance is greater than or equal to
+     *         limit.
+     * @throws NullPointerException if s1 or s2 is null.
+     */
+    @Override
+    public final double distance(final String s1, final String s2,
+                                 final double limit) {
+        return distance(s1, s2, intLimit(limit));
+    }
+
+    /**
+     * @param limit
+     * @return the smallest non negative int which is not smaller than limit,
+     * or Integer.MAX_VALUE if there is none
+     */
+    static int intLimit(final double limit) {
+        if (!(limit < Integer.MAX_VALUE)) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) Math.max(0, Math.ceil(limit));
+    }
+
+    private static int bandedDistance(final String s1, final String s2,
+                                      final int limit) {
+        // cells farther than k from the diagonal hold a value > k, which
+        // is represented by limit (k + 1)
+        final int k = limit - 1;
+        final int n = s2.length();
+
         // create two work vectors of integer distances
-        int[] v0 = new int[s2.length() + 1];
-        int[] v1 = new int[s2.length() + 1];
+        int[] v0 = new int[n + 1];
+        int[] v1 = new int[n + 1];
         int[] vtemp;
 
         // initialize v0 (the previous row of distances)
         // this row is A[0][i]: edit distance for an empty s
         // the distance is just the number of characters to delete from t
-        for (int i = 0; i < v0.length; i++) {
-            v0[i] = i;
+        int top = Math.min(n, k);
+        for (int j = 0; j <= top; j++) {
+            v0[j] = j;
         }
+        if (top < n) {
+            v0[top + 1] = limit;
+        }
+
+        for (int i = 1; i <= s1.length(); i++) {
+            char s1i = s1.charAt(i - 1);
 
-        for (int i = 0; i < s1.length(); i++) {
-            // calculate v1 (current row distances) from the previous row v0
-            // first element of v1 is A[i+1][0]
-            //   edit distance is delete (i+1) chars from s to match empty t
-            v1[0] = i + 1;
+            // the band of the current row is [from, to]
+            int from = Math.max(1, i - k);
+            int to = Math.min(n, i + k);
 
-            int minv1 = v1[0];
+            // left boundary: A[i][0] = i, or out of the band
+            v1[from - 1] = from == 1 ? Math.min(i, limit) : limit;
 
-            // use formula to fill in the rest of the row
-            for (int j = 0; j < s2.length(); j++) {
+            int minv1 = v1[from - 1];
+
+            for (int j = from; j <= to; j++) {
                 int cost = 1;
-                if (s1.charAt(i) == s2.charAt(j)) {
+                if (s1i == s2.charAt(j - 1)) {
                     cost = 0;
                 }
-                v1[j + 1] = Math.min(
-                        v1[j] + 1,              // Cost of insertion
+                v1[j] = Math.min(
+                        v1[j - 1] + 1,              // Cost of insertion
                         Math.min(
-                                v0[j + 1] + 1,  // Cost of remove
-                                v0[j] + cost)); // Cost of substitution
+                                v0[j] + 1,          // Cost of remove
+                                v0[j - 1] + cost)); // Cost of substitution
 
-                minv1 = Math.min(minv1, v1[j + 1]);
+                minv1 = Math.min(minv1, v1[j]);
+            }
+
+            // right boundary, read by the next row
+            if (to < n) {
+                v1[to + 1] = limit;
             }
 
             if (minv1 >= limit) {
                 return limit;
             }
 
-            // copy v1 (current row) to v0 (previous row) for next iteration
-            //System.arraycopy(v1, 0, v0, 0, v0.length);
-
             // Flip references to current and previous row
             vtemp = v0;
             v0 = v1;
             v1 = vtemp;
-
         }
 
-        return v0[s2.length()];
+        return Math.min(v0[n], limit);
     }
 }
@@ -17,8 +17,9 @@ import it.andreuzzi.comparestring2.algs.interfaces.StringDistance;
  * deletion is allowed (no substitution), or when the cost of the substitution
  * is the double of the cost of an insertion or deletion.
  *
- * ! This class currently implements the dynamic programming approach, which has
- * a space requirement O(m * n)!
+ * The length of the LCS is computed with the bit-parallel algorithm of
+ * Allison and Dix, which has a space requirement O(min(m, n) / 64) and runs in
+ * O(max(m, n) * ceil(min(m, n) / 64)).
  *
  * @author Thibault Debatty
  */
@@ -68,41 +69,6 @@ public class LongestCommonSubsequence implements StringDistance {
             throw new NullPointerException("s2 must not be null");
         }
 
-        /* function LCSLength(X[1..m], Y[1..n])
-         C = array(0..m, 0..n)
-
-         for i := 0..m
-         C[i,0] = 0
-
-         for j := 0..n
-         C[0,j] = 0
-
-         for i := 1..m
-         for j := 1..n
-         if X[i] = Y[j]
-         C[i,j] := C[i-1,j-1] + 1
-         else
-         C[i,j] := max(C[i,j-1], C[i-1,j])
-         return C[m,n]
-         */
-        int s1_length = s1.length();
-        int s2_length = s2.length();
-        char[] x = s1.toCharArray();
-        char[] y = s2.toCharArray();
-
-        int[][] c = new int[s1_length + 1][s2_length + 1];
-
-        for (int i = 1; i <= s1_length; i++) {
-            for (int j = 1; j <= s2_length; j++) {
-                if (x[i - 1] == y[j - 1]) {
-                    c[i][j] = c[i - 1][j - 1] + 1;
-
-                } else {
-                    c[i][j] = Math.max(c[i][j - 1], c[i - 1][j]);
-                }
-            }
-        }
-
-        return c[s1_length][s2_length];
+        return BitParallel.lcsLength(s1, s2);
     }
 }
@@ -0,0 +1,171 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2.algs;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * MinHash signatures of k-shingle profiles (Broder, "On the resemblance and
+ * containment of documents", 1997).
+ *
+ * Each component of the signature is the minimum, over the shingles of the
+ * profile, of a different hash function. Two profiles have the same value in
+ * a component with probability equal to their Jaccard index, so the fraction
+ * of equal components is an unbiased estimate of the Jaccard index.
+ *
+ * The hash functions are h_i(x) = (a_i * x + b_i) mod 2^64, with a_i odd,
+ * applied to a mix of the shingle key; the high 32 bits are kept. They are
+ * drawn from a seeded generator, so two instances built with the same
+ * arguments give the same signatures.
+ *
+ * @author francescoandreuzzi
+ */
+public final class MinHash {
+
+    private static final long DEFAULT_SEED = 0x5DEECE66DL;
+
+    private final long[] a;
+    private final long[] b;
+
+    /**
+     * Instantiate with numHashes hash functions, and the default seed.
+     *
+     * @param numHashes the length of the signatures
+     * @throws IllegalArgumentException if numHashes is &lt;= 0
+     */
+    public MinHash(final int numHashes) {
+        this(numHashes, DEFAULT_SEED);
+    }
+
+    /**
+     * Instantiate with numHashes hash functions.
+     *
+     * @param numHashes the length of the signatures
+     * @param seed the seed of the hash functions
+     * @throws IllegalArgumentException if numHashes is &lt;= 0
+     */
+    public MinHash(final int numHashes, final long seed) {
+        if (numHashes <= 0) {
+            throw new IllegalArgumentException(
+                    "numHashes should be positive!");
+        }
+
+        Random random = new Random(seed);
+        a = new long[numHashes];
+        b = new long[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            a[i] = random.nextLong() | 1L;
+            b[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * @return the length of the signatures
+     */
+    public int size() {
+        return a.length;
+    }
+
+    /**
+     * Compute the MinHash signature of profile. The signature of an empty
+     * profile has every component equal to -1.
+     *
+     * @param profile
+     * @return the signature of profile
+     * @throws NullPointerException if profile is null.
+     */
+    public int[] signature(final ShingleProfile profile) {
+        return signature(profile, new int[a.length]);
+    }
+
+    /**
+     * Compute the MinHash signature of profile into signature.
+     *
+     * @param profile
+     * @param signature an array of length {@link #size() size()}
+     * @return signature
+     * @throws NullPointerException if profile or signature is null.
+     * @throws IllegalArgumentException if signature is too short.
+     */
+    public int[] signature(final ShingleProfile profile,
+                           final int[] signature) {
+        if (profile == null) {
+            throw new NullPointerException("profile must not be null");
+        }
+
+        if (signature.length < a.length) {
+            throw new IllegalArgumentException("signature is too short");
+        }
+
+        // components are compared as unsigned ints
+        Arrays.fill(signature, 0, a.length, -1);
+        for (int j = 0; j < profile.size; j++) {
+            long x = mix(profile.keys[j]);
+            for (int i = 0; i < a.length; i++) {
+                int h = (int) ((a[i] * x + b[i]) >>> 32);
+                if (Integer.compareUnsigned(h, signature[i]) < 0) {
+                    signature[i] = h;
+                }
+            }
+        }
+
+        return signature;
+    }
+
+    /**
+     * Estimate the Jaccard index of two profiles from their signatures.
+     *
+     * @param signature1
+     * @param signature2
+     * @return the fraction of equal components, in the range [0, 1]
+     * @throws IllegalArgumentException if the signatures have different
+     * lengths.
+     */
+    public static double similarity(final int[] signature1,
+                                    final int[] signature2) {
+        if (signature1.length != signature2.length) {
+            throw new IllegalArgumentException(
+                    "signatures must have the same length");
+        }
+
+        int equal = 0;
+        for (int i = 0; i < signature1.length; i++) {
+            if (signature1[i] == signature2[i]) {
+                equal++;
+            }
+        }
+        return 1.0 * equal / signature1.length;
+    }
+
+    /**
+     * Finalizer of MurmurHash3, spreads the bits of the packed shingles.
+     */
+    private static long mix(final long key) {
+        long x = key;
+        x = (x ^ (x >>> 33)) * 0xFF51AFD7ED558CCDL;
+        x = (x ^ (x >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return x ^ (x >>> 33);
+    }
+}
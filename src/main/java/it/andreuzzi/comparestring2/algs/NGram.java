@@ -1,5 +1,6 @@
 package it.andreuzzi.comparestring2.algs;
 
+import it.andreuzzi.comparestring2.algs.interfaces.BoundedStringDistance;
 import it.andreuzzi.comparestring2.algs.interfaces.NormalizedStringDistance;
 
 /**
@@ -12,12 +13,20 @@ import it.andreuzzi.comparestring2.algs.interfaces.NormalizedStringDistance;
  * total similarity score the original length of the longest word.
  *
  * http://webdocs.cs.ualberta.ca/~kondrak/papers/spire05.pdf
+ *
+ * The n-grams are compared in place over the (affixed) characters of the two
+ * strings, and the character and cost rows are kept in buffers reused by the
+ * following comparisons made by the same thread.
  */
-public class NGram implements NormalizedStringDistance {
+public class NGram implements NormalizedStringDistance,
+        BoundedStringDistance {
 
     private static final int DEFAULT_N = 2;
     private final int n;
 
+    private static final ThreadLocal<Scratch> SCRATCH =
+            ThreadLocal.withInitial(Scratch::new);
+
     /**
      * Instantiate with given value for n-gram length.
      * @param n
@@ -41,6 +50,24 @@ public class NGram implements NormalizedStringDistance {
      * @throws NullPointerException if s0 or s1 is null.
      */
     public final double distance(final String s0, final String s1) {
+        return distance(s0, s1, Double.MAX_VALUE);
+    }
+
+    /**
+     * Compute n-gram distance, stopping as soon as the result can't be
+     * smaller than limit.
+     * @param s0 The first string to compare.
+     * @param s1 The second string to compare.
+     * @param limit The maximum result to compute before stopping. Set this
+     *              to Double.MAX_VALUE if you want to run the calculation to
+     *              completion in every case.
+     * @return The computed n-gram distance in the range [0, 1], or limit if
+     *         the distance is greater than or equal to limit.
+     * @throws NullPointerException if s0 or s1 is null.
+     */
+    @Override
+    public final double distance(final String s0, final String s1,
+                                 final double limit) {
         if (s0 == null) {
             throw new NullPointerException("s0 must not be null");
         }
@@ -58,7 +85,7 @@ public class NGram implements NormalizedStringDistance {
         final int tl = s1.length();
 
         if (sl == 0 || tl == 0) {
-            return 1;
+            return Math.min(1, limit);
         }
 
         int cost = 0;
@@ -68,56 +95,44 @@ public class NGram implements NormalizedStringDistance {
                     cost++;
                 }
             }
-            return (float) cost / Math.max(sl, tl);
+            return Math.min((float) cost / Math.max(sl, tl), limit);
         }
 
-        char[] sa = new char[sl + n - 1];
-        float[] p; //'previous' cost array, horizontally
-        float[] d; // cost array, horizontally
-        float[] d2; //placeholder to assist in swapping p and d
+        final int maxLength = Math.max(tl, sl);
+        Scratch scratch = SCRATCH.get();
 
-        //construct sa with prefix
-        for (int i = 0; i < sa.length; i++) {
-            if (i < n - 1) {
-                sa[i] = special; //add prefix
-            } else {
-                sa[i] = s0.charAt(i - n + 1);
-            }
-        }
-        p = new float[sl + 1];
-        d = new float[sl + 1];
+        //construct sa and ta with prefix
+        char[] sa = scratch.sa = affix(scratch.sa, s0, special);
+        char[] ta = scratch.ta = affix(scratch.ta, s1, special);
+
+        //'previous' cost array, horizontally
+        float[] p = scratch.p = row(scratch.p, sl + 1);
+        // cost array, horizontally
+        float[] d = scratch.d = row(scratch.d, sl + 1);
+        float[] d2; //placeholder to assist in swapping p and d
 
         // indexes into strings s and t
         int i; // iterates through source
         int j; // iterates through target
 
-        char[] t_j = new char[n]; // jth n-gram of t
-
         for (i = 0; i <= sl; i++) {
             p[i] = i;
         }
 
         for (j = 1; j <= tl; j++) {
-            //construct t_j n-gram
-            if (j < n) {
-                for (int ti = 0; ti < n - j; ti++) {
-                    t_j[ti] = special; //add prefix
-                }
-                for (int ti = n - j; ti < n; ti++) {
-                    t_j[ti] = s1.charAt(ti - (n - j));
-                }
-            } else {
-                t_j = s1.substring(j - n, j).toCharArray();
-            }
+            // the jth n-gram of t starts at ta[j - 1]
+            final int tj = j - 1;
             d[0] = j;
+            float min = d[0];
             for (i = 1; i <= sl; i++) {
                 cost = 0;
                 int tn = n;
-                //compare sa to t_j
+                //compare the ith n-gram of s to the jth n-gram of t
                 for (int ni = 0; ni < n; ni++) {
-                    if (sa[i - 1 + ni] != t_j[ni]) {
+                    char sc = sa[i - 1 + ni];
+                    if (sc != ta[tj + ni]) {
                         cost++;
-                    } else if (sa[i - 1 + ni] == special) {
+                    } else if (sc == special) {
                         //discount matches on prefix
                         tn--;
                     }
@@ -127,7 +142,14 @@ public class NGram implements NormalizedStringDistance {
                 // diagonally left and up +cost
                 d[i] = Math.min(
                         Math.min(d[i - 1] + 1, p[i] + 1), p[i - 1] + ec);
+                min = Math.min(min, d[i]);
+            }
+
+            // the minimum of a row never decreases in the following rows
+            if (min / maxLength >= limit) {
+                return limit;
             }
+
             // copy current distance counts to 'previous row' distance counts
             d2 = p;
             p = d;
@@ -136,6 +158,36 @@ public class NGram implements NormalizedStringDistance {
 
         // our last action in the above loop was to switch d and p, so p now
         // actually has the most recent cost counts
-        return p[sl] / Math.max(tl, sl);
+        return Math.min(p[sl] / maxLength, limit);
+    }
+
+    /**
+     * @return the characters of s, preceded by n - 1 special characters,
+     * stored in buffer if it is large enough
+     */
+    private char[] affix(final char[] buffer, final String s,
+            final char special) {
+        int length = s.length() + n - 1;
+        char[] a = buffer.length >= length ? buffer : new char[length];
+        for (int i = 0; i < n - 1; i++) {
+            a[i] = special; //add prefix
+        }
+        s.getChars(0, s.length(), a, n - 1);
+        return a;
+    }
+
+    private static float[] row(final float[] buffer, final int length) {
+        return buffer.length >= length ? buffer : new float[length];
+    }
+
+    /**
+     * Per-thread buffers reused across comparisons.
+     */
+    private static final class Scratch {
+
+        private char[] sa = new char[0];
+        private char[] ta = new char[0];
+        private float[] p = new float[0];
+        private float[] d = new float[0];
     }
 }
@@ -23,6 +23,8 @@
  */
 package it.andreuzzi.comparestring2.algs;
 
+import it.andreuzzi.comparestring2.algs.interfaces.BoundedStringDistance;
+import it.andreuzzi.comparestring2.algs.interfaces.BoundedStringSimilarity;
 import it.andreuzzi.comparestring2.algs.interfaces.NormalizedStringDistance;
 import it.andreuzzi.comparestring2.algs.interfaces.NormalizedStringSimilarity;
 
@@ -35,7 +37,8 @@ import it.andreuzzi.comparestring2.algs.interfaces.NormalizedStringSimilarity;
  * @author Thibault Debatty
  */
 public class NormalizedLevenshtein implements
-        NormalizedStringDistance, NormalizedStringSimilarity {
+        NormalizedStringDistance, NormalizedStringSimilarity,
+        BoundedStringDistance, BoundedStringSimilarity {
 
     private final Levenshtein l = new Levenshtein();
 
@@ -80,4 +83,83 @@ public class NormalizedLevenshtein implements
         return 1.0 - distance(s1, s2);
     }
 
+    /**
+     * Compute the distance, stopping as soon as it can't be smaller than
+     * limit.
+     * @param s1 The first string to compare.
+     * @param s2 The second string to compare.
+     * @param limit The maximum result to compute before stopping.
+     * @return The computed distance in the range [0, 1], or limit if the
+     * distance is greater than or equal to limit
+     * @throws NullPointerException if s1 or s2 is null.
+     */
+    @Override
+    public final double distance(final String s1, final String s2,
+                                 final double limit) {
+        if (s1 == null) {
+            throw new NullPointerException("s1 must not be null");
+        }
+
+        if (s2 == null) {
+            throw new NullPointerException("s2 must not be null");
+        }
+
+        if (s1.equals(s2)) {
+            return 0;
+        }
+
+        int m_len = Math.max(s1.length(), s2.length());
+
+        int d = levenshtein(s1, s2, m_len, limit);
+        return d < 0 ? limit : (double) d / m_len;
+    }
+
+    /**
+     * Return 1 - distance, stopping as soon as it can't be greater than
+     * limit.
+     * @param s1 The first string to compare.
+     * @param s2 The second string to compare.
+     * @param limit The minimum result to compute before stopping.
+     * @return 1.0 - the computed distance, or limit if it is smaller than or
+     * equal to limit
+     * @throws NullPointerException if s1 or s2 is null.
+     */
+    @Override
+    public final double similarity(final String s1, final String s2,
+                                   final double limit) {
+        if (s1 == null) {
+            throw new NullPointerException("s1 must not be null");
+        }
+
+        if (s2 == null) {
+            throw new NullPointerException("s2 must not be null");
+        }
+
+        if (s1.equals(s2)) {
+            return 1;
+        }
+
+        int m_len = Math.max(s1.length(), s2.length());
+
+        int d = levenshtein(s1, s2, m_len, 1.0 - limit);
+        return d < 0 ? limit : 1.0 - (double) d / m_len;
+    }
+
+    /**
+     * @param s1
+     * @param s2
+     * @param m_len the length of the longest string, greater than 0
+     * @param limit the bound of the normalized distance
+     * @return the Levenshtein distance between s1 and s2, or -1 if the
+     * normalized distance is greater than limit
+     */
+    private int levenshtein(final String s1, final String s2,
+                            final int m_len, final double limit) {
+        // one more than needed, which absorbs the rounding of limit * m_len
+        double k = Math.floor(limit * m_len) + 2;
+        int bound = (int) Math.max(0, Math.min(k, m_len + 1));
+
+        int d = (int) l.distance(s1, s2, bound);
+        return d < bound ? d : -1;
+    }
 }
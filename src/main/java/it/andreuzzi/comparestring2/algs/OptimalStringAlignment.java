@@ -1,120 +1,184 @@
-/*
- * The MIT License
- *
- * Copyright 2016 Thibault Debatty.
- *
- * Permission is hereby granted, free of charge, to any person obtaining a copy
- * of this software and associated documentation files (the "Software"), to deal
- * in the Software without restriction, including without limitation the rights
- * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
- * copies of the Software, and to permit persons to whom the Software is
- * furnished to do so, subject to the following conditions:
- *
- * The above copyright notice and this permission notice shall be included in
- * all copies or substantial portions of the Software.
- *
- * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
- * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
- * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
- * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
- * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
- * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
- * THE SOFTWARE.
- */
-package it.andreuzzi.comparestring2.algs;
-
-import it.andreuzzi.comparestring2.algs.interfaces.StringDistance;
-
-/**
- * Implementation of the the Optimal String Alignment (sometimes called the
- * restricted edit distance) variant of the Damerau-Levenshtein distance.
- *
- * The difference between the two algorithms consists in that the Optimal String
- * Alignment algorithm computes the number of edit operations needed to make the
- * strings equal under the condition that no substring is edited more than once,
- * whereas Damerau-Levenshtein presents no such restriction.
- *
- * @author Michail Bogdanos
- */
-public final class OptimalStringAlignment implements StringDistance {
-
-    /**
-     * Compute the distance between strings: the minimum number of operations
-     * needed to transform one string into the other (insertion, deletion,
-     * substitution of a single character, or a transposition of two adjacent
-     * characters) while no substring is edited more than once.
-     *
-     * @param s1 The first string to compare.
-     * @param s2 The second string to compare.
-     * @return the OSA distance
-     * @throws NullPointerException if s1 or s2 is null.
-     */
-    public double distance(final String s1, final String s2) {
-        if (s1 == null) {
-            throw new NullPointerException("s1 must not be null");
-        }
-
-        if (s2 == null) {
-            throw new NullPointerException("s2 must not be null");
-        }
-
-        if (s1.equals(s2)) {
-            return 0;
-        }
-
-        int n = s1.length(), m = s2.length();
-
-        if (n == 0) {
-            return m;
-        }
-
-        if (m == 0) {
-            return n;
-        }
-
-        // Create the distance matrix H[0 .. s1.length+1][0 .. s2.length+1]
-        int[][] d = new int[n + 2][m + 2];
-
-        //initialize top row and leftmost column
-        for (int i = 0; i <= n; i++) {
-            d[i][0] = i;
-        }
-        for (int j = 0; j <= m; j++) {
-            d[0][j] = j;
-        }
-
-        //fill the distance matrix
-        int cost;
-
-        for (int i = 1; i <= n; i++) {
-            for (int j = 1; j <= m; j++) {
-
-                //if s1[i - 1] = s2[j - 1] then cost = 0, else cost = 1
-                cost = 1;
-                if (s1.charAt(i - 1) == s2.charAt(j - 1)) {
-                    cost = 0;
-                }
-
-                d[i][j] = min(
-                        d[i - 1][j - 1] + cost, // substitution
-                        d[i][j - 1] + 1, // insertion
-                        d[i - 1][j] + 1 // deletion
-                );
-
-                //transposition check
-                if (i > 1 && j > 1
-                        && s1.charAt(i - 1) == s2.charAt(j - 2)
-                        && s1.charAt(i - 2) == s2.charAt(j - 1)) {
-                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + cost);
-                }
-            }
-        }
-
-        return d[n][m];
-    }
-
-    private static int min(
-            final int a, final int b, final int c) {
-        return Math.min(a, Math.min(b, c));
-    }
-}
+/*
+ * The MIT License
+ *
+ * Copyright 2016 Thibault Debatty.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2.algs;
+
+import it.andreuzzi.comparestring2.algs.interfaces.BoundedStringDistance;
+
+/**
+ * Implementation of the the Optimal String Alignment (sometimes called the
+ * restricted edit distance) variant of the Damerau-Levenshtein distance.
+ *
+ * The difference between the two algorithms consists in that the Optimal String
+ * Alignment algorithm computes the number of edit operations needed to make the
+ * strings equal under the condition that no substring is edited more than once,
+ * whereas Damerau-Levenshtein presents no such restriction.
+ *
+ * @author Michail Bogdanos
+ */
+public final class OptimalStringAlignment implements BoundedStringDistance {
+
+    /**
+     * Equivalent to distance(s1, s2, Integer.MAX_VALUE).
+     *
+     * @param s1 The first string to compare.
+     * @param s2 The second string to compare.
+     * @return the OSA distance
+     * @throws NullPointerException if s1 or s2 is null.
+     */
+    public double distance(final String s1, final String s2) {
+        return distance(s1, s2, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Compute the distance, stopping as soon as it can't be smaller than
+     * limit. The distance is an integer, so this is equivalent to
+     * distance(s1, s2, (int) Math.ceil(limit)).
+     *
+     * @param s1 The first string to compare.
+     * @param s2 The second string to compare.
+     * @param limit The maximum result to compute before stopping.
+     * @return the OSA distance, or a value greater than or equal to limit if
+     *         the distance is greater than or equal to limit.
+     * @throws NullPointerException if s1 or s2 is null.
+     */
+    @Override
+    public double distance(final String s1, final String s2,
+                           final double limit) {
+        return distance(s1, s2, Levenshtein.intLimit(limit));
+    }
+
+    /**
+     * Compute the distance between strings: the minimum number of operations
+     * needed to transform one string into the other (insertion, deletion,
+     * substitution of a single character, or a transposition of two adjacent
+     * characters) while no substring is edited more than once.
+     *
+     * The recurrence only looks two rows back, so only three rows of the
+     * distance matrix are kept: the space requirement is O(m). The minimum of
+     * a row can't be smaller than the minimum of the previous row, hence the
+     * computation stops as soon as every cell of a row reaches the limit.
+     *
+     * @param s1 The first string to compare.
+     * @param s2 The second string to compare.
+     * @param limit The maximum result to compute before stopping. This
+     *              means that the calculation can terminate early if you
+     *              only care about strings with a certain similarity.
+     *              Set this to Integer.MAX_VALUE if you want to run the
+     *              calculation to completion in every case.
+     * @return the OSA distance, or limit if the distance is greater than or
+     *         equal to limit.
+     * @throws NullPointerException if s1 or s2 is null.
+     */
+    public double distance(final String s1, final String s2,
+                           final int limit) {
+        if (s1 == null) {
+            throw new NullPointerException("s1 must not be null");
+        }
+
+        if (s2 == null) {
+            throw new NullPointerException("s2 must not be null");
+        }
+
+        if (s1.equals(s2)) {
+            return 0;
+        }
+
+        int n = s1.length(), m = s2.length();
+
+        if (n == 0) {
+            return Math.min(m, limit);
+        }
+
+        if (m == 0) {
+            return Math.min(n, limit);
+        }
+
+        // the distance is at least the difference of the lengths
+        if (Math.abs(n - m) >= limit) {
+            return limit;
+        }
+
+        // rows i - 2, i - 1 and i of the distance matrix
+        int[] d2 = new int[m + 1];
+        int[] d1 = new int[m + 1];
+        int[] d0 = new int[m + 1];
+        int[] dtemp;
+
+        //initialize top row
+        for (int j = 0; j <= m; j++) {
+            d1[j] = j;
+        }
+
+        //fill the distance matrix
+        int cost;
+
+        for (int i = 1; i <= n; i++) {
+            char c1 = s1.charAt(i - 1);
+            d0[0] = i;
+            int min = i;
+
+            for (int j = 1; j <= m; j++) {
+                char c2 = s2.charAt(j - 1);
+
+                //if s1[i - 1] = s2[j - 1] then cost = 0, else cost = 1
+                cost = 1;
+                if (c1 == c2) {
+                    cost = 0;
+                }
+
+                d0[j] = min(
+                        d1[j - 1] + cost, // substitution
+                        d0[j - 1] + 1, // insertion
+                        d1[j] + 1 // deletion
+                );
+
+                //transposition check
+                if (i > 1 && j > 1
+                        && c1 == s2.charAt(j - 2)
+                        && s1.charAt(i - 2) == c2) {
+                    d0[j] = Math.min(d0[j], d2[j - 2] + cost);
+                }
+
+                min = Math.min(min, d0[j]);
+            }
+
+            if (min >= limit) {
+                return limit;
+            }
+
+            // rotate the rows
+            dtemp = d2;
+            d2 = d1;
+            d1 = d0;
+            d0 = dtemp;
+        }
+
+        return Math.min(d1[m], limit);
+    }
+
+    private static int min(
+            final int a, final int b, final int c) {
+        return Math.min(a, Math.min(b, c));
+    }
+}
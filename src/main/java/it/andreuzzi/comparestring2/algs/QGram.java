@@ -68,10 +68,8 @@ public class QGram extends ShingleBased implements StringDistance {
             return 0;
         }
 
-        Map<String, Integer> profile1 = getProfile(s1);
-        Map<String, Integer> profile2 = getProfile(s2);
-
-        return distance(profile1, profile2);
+        ShingleProfile[] profiles = scratchProfiles(s1, s2);
+        return distance(profiles[0], profiles[1]);
     }
 
     /**
@@ -106,4 +104,27 @@ public class QGram extends ShingleBased implements StringDistance {
         }
         return agg;
     }
+
+    /**
+     * Compute QGram distance using precomputed profiles. The result is the
+     * same given by {@link #distance(String, String)} for the strings of the
+     * profiles.
+     *
+     * @param profile1 The profile of the first string to compare.
+     * @param profile2 The profile of the second string to compare.
+     * @return The computed Q-gram distance.
+     * @throws NullPointerException if profile1 or profile2 is null.
+     * @throws IllegalArgumentException if a profile was computed with a
+     * different k.
+     */
+    public final double distance(final ShingleProfile profile1,
+                                 final ShingleProfile profile2) {
+        checkProfiles(profile1, profile2);
+
+        if (profile1.string.equals(profile2.string)) {
+            return 0;
+        }
+
+        return ShingleProfile.l1Distance(profile1, profile2);
+    }
 }
@@ -52,6 +52,10 @@ public abstract class ShingleBased {
 
     private static final int DEFAULT_K = 3;
 
+    private static final ThreadLocal<ShingleProfile[]> SCRATCH =
+            ThreadLocal.withInitial(() -> new ShingleProfile[] {
+                new ShingleProfile(), new ShingleProfile()});
+
     private final int k;
 
     /**
@@ -114,4 +118,84 @@ public abstract class ShingleBased {
 
         return Collections.unmodifiableMap(shingles);
     }
+
+    /**
+     * Compute and return the profile of s, like
+     * {@link #getProfile(String) getProfile}, as a {@link ShingleProfile}.
+     * The profile is built in a single pass over s, and doesn't create the
+     * string of each k-shingle.
+     *
+     * @param string
+     * @return the profile of this string
+     */
+    public final ShingleProfile getShingleProfile(final String string) {
+        if (string == null) {
+            throw new NullPointerException("string must not be null");
+        }
+
+        return ShingleProfile.of(string, k);
+    }
+
+    /**
+     * Compute the profiles of s1 and s2 into per-thread buffers, which are
+     * reused by the next comparison made by the same thread. The profiles
+     * must not escape the comparison.
+     *
+     * @param s1
+     * @param s2
+     * @return the profiles of s1 and s2
+     */
+    final ShingleProfile[] scratchProfiles(final String s1, final String s2) {
+        ShingleProfile[] profiles = SCRATCH.get();
+        profiles[0].fill(s1, k);
+        profiles[1].fill(s2, k);
+        return profiles;
+    }
+
+    /**
+     * @param profile1
+     * @param profile2
+     * @return the number of k-shingles which appear in both profiles
+     */
+    static int intersection(final Map<String, Integer> profile1,
+                            final Map<String, Integer> profile2) {
+        // Loop over the smallest map
+        Map<String, Integer> small_profile = profile2;
+        Map<String, Integer> large_profile = profile1;
+        if (profile1.size() < profile2.size()) {
+            small_profile = profile1;
+            large_profile = profile2;
+        }
+
+        int inter = 0;
+        for (String key : small_profile.keySet()) {
+            if (large_profile.containsKey(key)) {
+                inter++;
+            }
+        }
+        return inter;
+    }
+
+    /**
+     * @param profile1
+     * @param profile2
+     * @throws NullPointerException if profile1 or profile2 is null.
+     * @throws IllegalArgumentException if the length of the k-shingles of
+     * profile1 or profile2 is not k.
+     */
+    final void checkProfiles(final ShingleProfile profile1,
+                             final ShingleProfile profile2) {
+        if (profile1 == null) {
+            throw new NullPointerException("profile1 must not be null");
+        }
+
+        if (profile2 == null) {
+            throw new NullPointerException("profile2 must not be null");
+        }
+
+        if (profile1.getK() != k || profile2.getK() != k) {
+            throw new IllegalArgumentException(
+                    "profiles must be computed with k = " + k);
+        }
+    }
 }
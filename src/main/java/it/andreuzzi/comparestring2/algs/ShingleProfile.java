@@ -0,0 +1,388 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2.algs;
+
+import java.util.Arrays;
+
+/**
+ * The profile of a string (the number of occurrences of each of its
+ * k-shingles), stored as a sorted array of 64 bit shingle keys and a parallel
+ * array of counts.
+ *
+ * Shingles of up to 4 characters are packed into their key (16 bits per
+ * character), so two shingles have the same key only if they are equal.
+ * Longer shingles are hashed with a rolling polynomial hash: two different
+ * shingles may then share the same key, with a probability of about 2^-64 for
+ * each pair.
+ *
+ * The profile is built in a single pass over the string, without creating the
+ * string of each shingle. Like {@link ShingleBased#getProfile(String)},
+ * multiple subsequent white spaces are treated as a single space.
+ *
+ * Profiles given to the user are immutable. The number of distinct shingles
+ * and the L2 norm are computed when the profile is built. A profile keeps a
+ * reference to its string, so that comparing two profiles gives the same
+ * result as comparing their strings.
+ *
+ * @author francescoandreuzzi
+ */
+public final class ShingleProfile {
+
+    /**
+     * Largest k whose shingles are packed into their key.
+     */
+    private static final int MAX_PACKED_K = 4;
+
+    /**
+     * Multiplier of the rolling hash, used for k &gt; MAX_PACKED_K.
+     */
+    private static final long HASH_BASE = 0x100000001B3L;
+
+    /**
+     * When a profile has this many times the shingles of the other one, the
+     * intersection looks up each shingle of the smaller profile with a
+     * galloping search, instead of merging the two profiles.
+     */
+    private static final int GALLOP_RATIO = 16;
+
+    private int k;
+
+    /**
+     * The string of this profile.
+     */
+    String string;
+
+    /**
+     * The first size elements are the sorted keys of the shingles, and their
+     * number of occurrences.
+     */
+    long[] keys = new long[0];
+    int[] counts = new int[0];
+    int size;
+
+    private double norm;
+
+    /**
+     * The last k characters, needed to roll the hash of long shingles.
+     */
+    private char[] window = new char[0];
+
+    ShingleProfile() {
+    }
+
+    /**
+     * Compute the profile of the k-shingles of s.
+     *
+     * @param s
+     * @param k
+     * @return the profile of s
+     */
+    static ShingleProfile of(final String s, final int k) {
+        ShingleProfile profile = new ShingleProfile().fill(s, k);
+
+        // the buffers were sized for every shingle, keep the distinct ones
+        profile.keys = Arrays.copyOf(profile.keys, profile.size);
+        profile.counts = Arrays.copyOf(profile.counts, profile.size);
+        return profile;
+    }
+
+    /**
+     * Replace the content of this profile with the profile of the
+     * k-shingles of s, reusing its buffers. Only profiles which are never
+     * given to the user are filled again.
+     *
+     * @param s
+     * @param k
+     * @return this profile
+     */
+    ShingleProfile fill(final String s, final int k) {
+        this.k = k;
+        this.string = s;
+
+        int count = Math.max(0, s.length() - k + 1);
+        if (keys.length < count) {
+            keys = new long[count];
+            counts = new int[count];
+        }
+
+        // keys holds every shingle, then only the distinct ones
+        long[] grams = keys;
+        int n = 0;
+
+        boolean packed = k <= MAX_PACKED_K;
+        if (!packed && window.length < k) {
+            window = new char[k];
+        }
+        long packedMask = k >= MAX_PACKED_K ? -1L : (1L << (16 * k)) - 1;
+        long pow = 1;
+        for (int i = 1; i < k; i++) {
+            pow *= HASH_BASE;
+        }
+
+        long key = 0;
+        int length = 0;
+        boolean space = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+
+            // same characters as \s in java.util.regex
+            boolean white = c == ' ' || c == '\t' || c == '\n'
+                    || c == '\u000B' || c == '\f' || c == '\r';
+            if (white) {
+                if (space) {
+                    continue;
+                }
+                c = ' ';
+            }
+            space = white;
+
+            if (packed) {
+                key = (key << 16 | c) & packedMask;
+            } else {
+                if (length >= k) {
+                    key -= window[length % k] * pow;
+                }
+                key = key * HASH_BASE + c;
+                window[length % k] = c;
+            }
+
+            if (++length >= k) {
+                grams[n++] = key;
+            }
+        }
+
+        Arrays.sort(grams, 0, n);
+
+        // compact in place, the write index never passes the read index
+        int d = -1;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || grams[i] != grams[d]) {
+                grams[++d] = grams[i];
+                counts[d] = 0;
+            }
+            counts[d]++;
+        }
+        size = d + 1;
+
+        double agg = 0;
+        for (int i = 0; i < size; i++) {
+            agg += 1.0 * counts[i] * counts[i];
+        }
+        norm = Math.sqrt(agg);
+
+        return this;
+    }
+
+    /**
+     * Return k, the length of the shingles of this profile.
+     *
+     * @return The length of k-shingles.
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * @return the number of distinct shingles
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param i the index of a shingle, in [0, size())
+     * @return the key of the i-th shingle. Keys are sorted in increasing
+     * order
+     * @throws IndexOutOfBoundsException if i is not in [0, size()).
+     */
+    public long key(final int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("i must be in [0, size())");
+        }
+        return keys[i];
+    }
+
+    /**
+     * @param i the index of a shingle, in [0, size())
+     * @return the number of occurrences of the i-th shingle
+     * @throws IndexOutOfBoundsException if i is not in [0, size()).
+     */
+    public int count(final int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("i must be in [0, size())");
+        }
+        return counts[i];
+    }
+
+    /**
+     * Compute the norm L2 : sqrt(Sum_i( v_i²)).
+     *
+     * @return L2 norm
+     */
+    public double norm() {
+        return norm;
+    }
+
+    /**
+     * @param p1
+     * @param p2
+     * @return the number of shingles which appear in both profiles
+     */
+    static int intersection(final ShingleProfile p1,
+                            final ShingleProfile p2) {
+        ShingleProfile small = p1.size <= p2.size ? p1 : p2;
+        ShingleProfile large = small == p1 ? p2 : p1;
+        final long[] k1 = small.keys;
+        final long[] k2 = large.keys;
+        final int n1 = small.size;
+        final int n2 = large.size;
+        int inter = 0;
+
+        if (n2 / GALLOP_RATIO > n1) {
+            int from = 0;
+            for (int i = 0; i < n1 && from < n2; i++) {
+                int index = gallop(k2, from, n2, k1[i]);
+                if (index >= 0) {
+                    inter++;
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+            }
+            return inter;
+        }
+
+        int i = 0, j = 0;
+        while (i < n1 && j < n2) {
+            if (k1[i] < k2[j]) {
+                i++;
+            } else if (k1[i] > k2[j]) {
+                j++;
+            } else {
+                inter++;
+                i++;
+                j++;
+            }
+        }
+        return inter;
+    }
+
+    /**
+     * @param p1
+     * @param p2
+     * @return the dot product of the profiles
+     */
+    static double dotProduct(final ShingleProfile p1,
+                             final ShingleProfile p2) {
+        ShingleProfile small = p1.size <= p2.size ? p1 : p2;
+        ShingleProfile large = small == p1 ? p2 : p1;
+        final long[] k1 = small.keys;
+        final long[] k2 = large.keys;
+        final int n1 = small.size;
+        final int n2 = large.size;
+        double agg = 0;
+
+        if (n2 / GALLOP_RATIO > n1) {
+            int from = 0;
+            for (int i = 0; i < n1 && from < n2; i++) {
+                int index = gallop(k2, from, n2, k1[i]);
+                if (index >= 0) {
+                    agg += 1.0 * small.counts[i] * large.counts[index];
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+            }
+            return agg;
+        }
+
+        int i = 0, j = 0;
+        while (i < n1 && j < n2) {
+            if (k1[i] < k2[j]) {
+                i++;
+            } else if (k1[i] > k2[j]) {
+                j++;
+            } else {
+                agg += 1.0 * small.counts[i] * large.counts[j];
+                i++;
+                j++;
+            }
+        }
+        return agg;
+    }
+
+    /**
+     * @param p1
+     * @param p2
+     * @return the L1 norm of the difference of the profiles
+     */
+    static int l1Distance(final ShingleProfile p1, final ShingleProfile p2) {
+        final long[] k1 = p1.keys;
+        final long[] k2 = p2.keys;
+        final int n1 = p1.size;
+        final int n2 = p2.size;
+        int i = 0, j = 0, agg = 0;
+        while (i < n1 && j < n2) {
+            if (k1[i] < k2[j]) {
+                agg += p1.counts[i++];
+            } else if (k1[i] > k2[j]) {
+                agg += p2.counts[j++];
+            } else {
+                agg += Math.abs(p1.counts[i++] - p2.counts[j++]);
+            }
+        }
+        while (i < n1) {
+            agg += p1.counts[i++];
+        }
+        while (j < n2) {
+            agg += p2.counts[j++];
+        }
+        return agg;
+    }
+
+    /**
+     * Exponential search of key in the sorted range [from, to) of keys,
+     * followed by a binary search in the last step.
+     *
+     * @param keys
+     * @param from
+     * @param to
+     * @param key
+     * @return the index of key, or (-(insertion point) - 1), like
+     * {@link Arrays#binarySearch(long[], int, int, long) binarySearch}
+     */
+    private static int gallop(final long[] keys, final int from,
+                              final int to, final long key) {
+        // every key before lo is smaller than key
+        int lo = from;
+        int hi = from;
+        int step = 1;
+        while (hi < to && keys[hi] < key) {
+            lo = hi + 1;
+            hi += step;
+            step <<= 1;
+        }
+        return Arrays.binarySearch(keys, lo, Math.min(hi + 1, to), key);
+    }
+}
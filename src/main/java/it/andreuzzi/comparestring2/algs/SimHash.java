@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2.algs;
+
+/**
+ * 64 bit SimHash fingerprints of k-shingle profiles (Charikar, "Similarity
+ * estimation techniques from rounding algorithms", 2002).
+ *
+ * Each shingle is hashed to 64 bits, and votes for each bit of the
+ * fingerprint with a weight equal to its number of occurrences: +count if the
+ * bit of its hash is set, -count otherwise. A bit of the fingerprint is set if
+ * the sum of its votes is positive.
+ *
+ * The Hamming distance h between the fingerprints of two profiles estimates
+ * the angle between them: theta ~ h * pi / 64, so that their cosine
+ * similarity is about cos(h * pi / 64).
+ *
+ * @author francescoandreuzzi
+ */
+public final class SimHash {
+
+    private static final int BITS = 64;
+
+    private SimHash() {
+    }
+
+    /**
+     * Compute the SimHash fingerprint of profile. The fingerprint of an empty
+     * profile is 0.
+     *
+     * @param profile
+     * @return the fingerprint of profile
+     * @throws NullPointerException if profile is null.
+     */
+    public static long fingerprint(final ShingleProfile profile) {
+        if (profile == null) {
+            throw new NullPointerException("profile must not be null");
+        }
+
+        int[] votes = new int[BITS];
+        for (int j = 0; j < profile.size; j++) {
+            long h = mix(profile.keys[j]);
+            int count = profile.counts[j];
+            for (int bit = 0; bit < BITS; bit++) {
+                votes[bit] += (h >>> bit & 1L) != 0 ? count : -count;
+            }
+        }
+
+        long fingerprint = 0;
+        for (int bit = 0; bit < BITS; bit++) {
+            if (votes[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * @param fingerprint1
+     * @param fingerprint2
+     * @return the number of different bits of the fingerprints
+     */
+    public static int hammingDistance(final long fingerprint1,
+                                      final long fingerprint2) {
+        return Long.bitCount(fingerprint1 ^ fingerprint2);
+    }
+
+    /**
+     * Estimate the cosine similarity of two profiles from the Hamming
+     * distance of their fingerprints.
+     *
+     * @param hammingDistance
+     * @return cos(hammingDistance * pi / 64)
+     */
+    public static double similarity(final int hammingDistance) {
+        return Math.cos(hammingDistance * Math.PI / BITS);
+    }
+
+    /**
+     * Finalizer of MurmurHash3, spreads the bits of the packed shingles.
+     */
+    private static long mix(final long key) {
+        long x = key;
+        x = (x ^ (x >>> 33)) * 0xFF51AFD7ED558CCDL;
+        x = (x ^ (x >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return x ^ (x >>> 33);
+    }
+}
@@ -23,9 +23,7 @@
  */
 package it.andreuzzi.comparestring2.algs;
 
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 import it.andreuzzi.comparestring2.algs.interfaces.NormalizedStringDistance;
 import it.andreuzzi.comparestring2.algs.interfaces.NormalizedStringSimilarity;
 
@@ -87,22 +85,8 @@ public class SorensenDice extends ShingleBased implements
             return 1;
         }
 
-        Map<String, Integer> profile1 = getProfile(s1);
-        Map<String, Integer> profile2 = getProfile(s2);
-
-        Set<String> union = new HashSet<String>();
-        union.addAll(profile1.keySet());
-        union.addAll(profile2.keySet());
-
-        int inter = 0;
-
-        for (String key : union) {
-            if (profile1.containsKey(key) && profile2.containsKey(key)) {
-                inter++;
-            }
-        }
-
-        return 2.0 * inter / (profile1.size() + profile2.size());
+        ShingleProfile[] profiles = scratchProfiles(s1, s2);
+        return similarity(profiles[0], profiles[1]);
     }
 
     /**
@@ -116,4 +100,74 @@ public class SorensenDice extends ShingleBased implements
     public final double distance(final String s1, final String s2) {
         return 1 - similarity(s1, s2);
     }
+
+    /**
+     * Similarity is computed as 2 * |A inter B| / (|A| + |B|), using
+     * precomputed profiles.
+     *
+     * @param profile1
+     * @param profile2
+     * @return The computed Sorensen-Dice similarity.
+     */
+    public final double similarity(
+            final Map<String, Integer> profile1,
+            final Map<String, Integer> profile2) {
+
+        int inter = intersection(profile1, profile2);
+
+        return 2.0 * inter / (profile1.size() + profile2.size());
+    }
+
+    /**
+     * Returns 1 - similarity, using precomputed profiles.
+     *
+     * @param profile1
+     * @param profile2
+     * @return 1.0 - the computed similarity
+     */
+    public final double distance(
+            final Map<String, Integer> profile1,
+            final Map<String, Integer> profile2) {
+        return 1 - similarity(profile1, profile2);
+    }
+
+    /**
+     * Similarity is computed as 2 * |A inter B| / (|A| + |B|), using
+     * precomputed profiles. The result is the same given by
+     * {@link #similarity(String, String)} for the strings of the profiles.
+     *
+     * @param profile1 The profile of the first string to compare.
+     * @param profile2 The profile of the second string to compare.
+     * @return The computed Sorensen-Dice similarity.
+     * @throws NullPointerException if profile1 or profile2 is null.
+     * @throws IllegalArgumentException if a profile was computed with a
+     * different k.
+     */
+    public final double similarity(final ShingleProfile profile1,
+                                   final ShingleProfile profile2) {
+        checkProfiles(profile1, profile2);
+
+        if (profile1.string.equals(profile2.string)) {
+            return 1;
+        }
+
+        int inter = ShingleProfile.intersection(profile1, profile2);
+
+        return 2.0 * inter / (profile1.size() + profile2.size());
+    }
+
+    /**
+     * Returns 1 - similarity, using precomputed profiles.
+     *
+     * @param profile1 The profile of the first string to compare.
+     * @param profile2 The profile of the second string to compare.
+     * @return 1.0 - the computed similarity
+     * @throws NullPointerException if profile1 or profile2 is null.
+     * @throws IllegalArgumentException if a profile was computed with a
+     * different k.
+     */
+    public final double distance(final ShingleProfile profile1,
+                                 final ShingleProfile profile2) {
+        return 1 - similarity(profile1, profile2);
+    }
 }
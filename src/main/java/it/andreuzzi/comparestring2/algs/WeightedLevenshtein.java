@@ -23,7 +23,7 @@
  */
 package it.andreuzzi.comparestring2.algs;
 
-import it.andreuzzi.comparestring2.algs.interfaces.StringDistance;
+import it.andreuzzi.comparestring2.algs.interfaces.BoundedStringDistance;
 
 /**
  * Implementation of Levenshtein that allows to define different weights for
@@ -31,10 +31,14 @@ import it.andreuzzi.comparestring2.algs.interfaces.StringDistance;
  *
  * @author Thibault Debatty
  */
-public class WeightedLevenshtein implements StringDistance {
+public class WeightedLevenshtein implements BoundedStringDistance {
+
+    private static final ThreadLocal<Scratch> SCRATCH =
+            ThreadLocal.withInitial(Scratch::new);
 
     private final CharacterSubstitutionInterface charsub;
     private final CharacterInsDelInterface charchange;
+    private final CharacterCostTable table;
 
     /**
      * Instantiate with provided character substitution.
@@ -55,6 +59,18 @@ public class WeightedLevenshtein implements StringDistance {
                                final CharacterInsDelInterface charchange) {
         this.charsub = charsub;
         this.charchange = charchange;
+        this.table = charsub instanceof CharacterCostTable
+                && charchange == charsub ? (CharacterCostTable) charsub : null;
+    }
+
+    /**
+     * Instantiate with a compiled cost table, which provides substitution,
+     * insertion and deletion weights. The costs of the characters in the
+     * alphabet of the table are read straight from it.
+     * @param table The compiled weights.
+     */
+    public WeightedLevenshtein(final CharacterCostTable table) {
+        this(table, table);
     }
 
     /**
@@ -66,6 +82,18 @@ public class WeightedLevenshtein implements StringDistance {
 
     /**
      * Compute Levenshtein distance using provided weights for substitution.
+     *
+     * When no insertion / deletion weights are provided, every insertion and
+     * deletion costs 1: the cells of the matrix farther than limit from the
+     * diagonal can't hold a value smaller than limit, and only the diagonal
+     * band of width 2 * limit + 1 is computed (Ukkonen). The algorithm then
+     * runs in O(limit * n) instead of O(m * n).
+     *
+     * Insertion costs of s2 are computed once per call. When the weights come
+     * from a {@link CharacterCostTable}, the characters are mapped to their
+     * index in the alphabet once, and substitution costs are then read from
+     * the table without calling the weight model.
+     *
      * @param s1 The first string to compare.
      * @param s2 The second string to compare.
      * @param limit The maximum result to compute before stopping. This
@@ -73,9 +101,11 @@ public class WeightedLevenshtein implements StringDistance {
      *              only care about strings with a certain similarity.
      *              Set this to Double.MAX_VALUE if you want to run the
      *              calculation to completion in every case.
-     * @return The computed weighted Levenshtein distance.
+     * @return The computed weighted Levenshtein distance, or limit if the
+     *         distance is greater than or equal to limit.
      * @throws NullPointerException if s1 or s2 is null.
      */
+    @Override
     public final double distance(final String s1, final String s2,
                                  final double limit) {
         if (s1 == null) {
@@ -90,62 +120,118 @@ public class WeightedLevenshtein implements StringDistance {
             return 0;
         }
 
+        // the cost of inserting (deleting) every character of the other string
         if (s1.length() == 0) {
-            return s2.length();
+            double cost = 0;
+            for (int j = 0; j < s2.length() && cost < limit; j++) {
+                cost += insertionCost(s2.charAt(j));
+            }
+            return Math.min(cost, limit);
         }
 
         if (s2.length() == 0) {
-            return s1.length();
+            double cost = 0;
+            for (int i = 0; i < s1.length() && cost < limit; i++) {
+                cost += deletionCost(s1.charAt(i));
+            }
+            return Math.min(cost, limit);
+        }
+
+        // maximum distance of a computed cell from the diagonal
+        int band = Integer.MAX_VALUE;
+        if (unitInsDel()
+                && limit <= Math.max(s1.length(), s2.length())) {
+            // the distance is at least the difference of the lengths
+            if (Math.abs(s1.length() - s2.length()) >= limit) {
+                return limit;
+            }
+            band = (int) Math.ceil(limit) - 1;
         }
 
+        return distance(s1, s2, limit, band);
+    }
+
+    private double distance(final String s1, final String s2,
+                            final double limit, final int band) {
+        final int n = s2.length();
+
         // create two work vectors of floating point (i.e. weighted) distances
-        double[] v0 = new double[s2.length() + 1];
-        double[] v1 = new double[s2.length() + 1];
+        Scratch scratch = SCRATCH.get();
+        double[] v0 = scratch.v0(n + 1);
+        double[] v1 = scratch.v1(n + 1);
         double[] vtemp;
 
+        // insertion cost and alphabet index of each character of s2
+        double[] ins = scratch.ins(n);
+        int[] index2 = scratch.index2(n);
+        for (int j = 0; j < n; j++) {
+            char s2j = s2.charAt(j);
+            ins[j] = insertionCost(s2j);
+            if (table != null) {
+                index2[j] = table.index(s2j);
+            }
+        }
+
         // initialize v0 (the previous row of distances)
         // this row is A[0][i]: edit distance for an empty s1
         // the distance is the cost of inserting each character of s2
+        int top = Math.min(n, band);
         v0[0] = 0;
-        for (int i = 1; i < v0.length; i++) {
-            v0[i] = v0[i - 1] + insertionCost(s2.charAt(i - 1));
+        for (int i = 1; i <= top; i++) {
+            v0[i] = v0[i - 1] + ins[i - 1];
+        }
+        if (top < n) {
+            v0[top + 1] = Double.POSITIVE_INFINITY;
         }
 
-        for (int i = 0; i < s1.length(); i++) {
-            char s1i = s1.charAt(i);
+        for (int i = 1; i <= s1.length(); i++) {
+            char s1i = s1.charAt(i - 1);
             double deletion_cost = deletionCost(s1i);
+            int index1 = table != null ? table.index(s1i) : -1;
+
+            // the band of the current row is [from, to]
+            int from = Math.max(1, i - band);
+            int to = (int) Math.min(n, (long) i + band);
 
             // calculate v1 (current row distances) from the previous row v0
-            // first element of v1 is A[i+1][0]
+            // first element of v1 is A[i][0]
             // Edit distance is the cost of deleting characters from s1
             // to match empty t.
-            v1[0] = v0[0] + deletion_cost;
+            if (from == 1) {
+                v1[0] = v0[0] + deletion_cost;
+            } else {
+                v1[from - 1] = Double.POSITIVE_INFINITY;
+            }
 
-            double minv1 = v1[0];
+            double minv1 = v1[from - 1];
 
             // use formula to fill in the rest of the row
-            for (int j = 0; j < s2.length(); j++) {
-                char s2j = s2.charAt(j);
+            for (int j = from; j <= to; j++) {
+                char s2j = s2.charAt(j - 1);
                 double cost = 0;
                 if (s1i != s2j) {
-                    cost = charsub.cost(s1i, s2j);
+                    cost = table != null
+                            ? table.cost(index1, index2[j - 1], s1i, s2j)
+                            : charsub.cost(s1i, s2j);
                 }
-                double insertion_cost = insertionCost(s2j);
-                v1[j + 1] = Math.min(
-                        v1[j] + insertion_cost, // Cost of insertion
+                v1[j] = Math.min(
+                        v1[j - 1] + ins[j - 1], // Cost of insertion
                         Math.min(
-                                v0[j + 1] + deletion_cost, // Cost of deletion
-                                v0[j] + cost)); // Cost of substitution
+                                v0[j] + deletion_cost, // Cost of deletion
+                                v0[j - 1] + cost)); // Cost of substitution
 
-                minv1 = Math.min(minv1, v1[j + 1]);
+                minv1 = Math.min(minv1, v1[j]);
+            }
+
+            // right boundary, read by the next row
+            if (to < n) {
+                v1[to + 1] = Double.POSITIVE_INFINITY;
             }
 
             if (minv1 >= limit) {
                 return limit;
             }
 
-            // copy v1 (current row) to v0 (previous row) for next iteration
-            //System.arraycopy(v1, 0, v0, 0, v0.length);
             // Flip references to current and previous row
             vtemp = v0;
             v0 = v1;
@@ -153,9 +239,12 @@ public class WeightedLevenshtein implements StringDistance {
 
         }
 
-        return v0[s2.length()];
+        return Math.min(v0[n], limit);
     }
 
+    private boolean unitInsDel() {
+        return charchange == null || table != null && table.unitInsDel();
+    }
 
     private double insertionCost(final char c) {
         if (charchange == null) {
@@ -172,4 +261,43 @@ public class WeightedLevenshtein implements StringDistance {
             return charchange.deletionCost(c);
         }
     }
+
+    /**
+     * Per-thread buffers reused across comparisons.
+     */
+    private static final class Scratch {
+
+        private double[] v0 = new double[0];
+        private double[] v1 = new double[0];
+        private double[] ins = new double[0];
+        private int[] index2 = new int[0];
+
+        private double[] v0(final int length) {
+            if (v0.length < length) {
+                v0 = new double[length];
+            }
+            return v0;
+        }
+
+        private double[] v1(final int length) {
+            if (v1.length < length) {
+                v1 = new double[length];
+            }
+            return v1;
+        }
+
+        private double[] ins(final int length) {
+            if (ins.length < length) {
+                ins = new double[length];
+            }
+            return ins;
+        }
+
+        private int[] index2(final int length) {
+            if (index2.length < length) {
+                index2 = new int[length];
+            }
+            return index2;
+        }
+    }
 }
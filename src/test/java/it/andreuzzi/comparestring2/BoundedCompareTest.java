@@ -0,0 +1,175 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.CharacterSubstitutionInterface;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import org.junit.Test;
+
+/**
+ * 
+ * @author francescoandreuzzi
+ */
+public class BoundedCompareTest {
+    
+    private static final String[] SPLITTERS = {" "};
+    
+    private static List<Alg> algs() {
+        List<Alg> algs = new ArrayList<>();
+        Collections.addAll(algs, AlgMap.DistAlg.values());
+        Collections.addAll(algs, AlgMap.NormDistAlg.values());
+        Collections.addAll(algs, AlgMap.NormSimAlg.values());
+        Collections.addAll(algs, AlgMap.MetricDistAlg.values());
+        return algs;
+    }
+    
+    /**
+     * 
+     * @return an instance of {@code alg}. {@code WLEVENSHTEIN} needs a substitution cost
+     */
+    private static Algorithm buildAlg(Alg alg) {
+        if(alg == AlgMap.DistAlg.WLEVENSHTEIN) {
+            return alg.buildAlg(new CharacterSubstitutionInterface() {
+                @Override
+                public double cost(char c1, char c2) {
+                    return c1 == ' ' || c2 == ' ' ? 1 : 0.5;
+                }
+            });
+        }
+        return alg.buildAlg();
+    }
+    
+    /**
+     * 
+     * A bounded comparison must be exact when its result respects the bound, and must not respect the bound otherwise. The bounds are the 
+     *      result itself, the floats next to it, and random values.
+     */
+    @Test
+    public void testCompare() {
+        RandomStrings random = new RandomStrings(20);
+        for(Alg alg : algs()) {
+            Algorithm algInstance = buildAlg(alg);
+            boolean biggerIsBetter = Utils.biggerIsBetter(alg);
+            
+            for(int i = 0; i < 100; i++) {
+                String s1 = random.next(RandomStrings.TEXT, 0, 20);
+                String s2 = random.nextInt(2) == 0 ? random.mutate(s1, RandomStrings.TEXT, random.nextInt(6)) : random.next(RandomStrings.TEXT, 0, 20);
+                float r = Utils.compare(s1, s2, algInstance, alg);
+                
+                float[] bounds = {r, Math.nextUp(r), Math.nextDown(r), random.nextInt(10), random.nextInt(11) / 10f, Corpus.noDeadline(alg)};
+                for(float bound : bounds) {
+                    assertBounded(alg + " " + s1 + " / " + s2 + " / " + bound, r, Utils.compare(s1, s2, algInstance, alg, bound), bound, biggerIsBetter);
+                    assertBounded(alg + " " + s1 + " / " + s2 + " / " + bound + " (splits)", Utils.checkSplits(s1, s2, SPLITTERS, algInstance, alg), 
+                            Utils.checkSplits(s1, s2, SPLITTERS, algInstance, alg, bound), bound, biggerIsBetter);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 
+     * The bounds passed to the kernels by the {@code String} APIs must not change their result: it must be the same given by a stable sort 
+     *      of the unbounded ranks of every element.
+     */
+    @Test
+    public void testSameMatches() {
+        RandomStrings random = new RandomStrings(21);
+        for(Alg alg : algs()) {
+            Algorithm algInstance = buildAlg(alg);
+            String[] ss = random.ties(150, RandomStrings.TEXT, 0, 16);
+            
+            for(int i = 0; i < 10; i++) {
+                String s1 = random.mutate(ss[random.nextInt(ss.length)], RandomStrings.TEXT, random.nextInt(4));
+                int n = 1 + random.nextInt(10);
+                CompareItem[] sorted = reference(s1, ss, null, algInstance, alg);
+                float deadline = sorted[Math.min(sorted.length - 1, 20)].r;
+                
+                assertArrayEquals(alg + " " + s1, cut(sorted, n, Float.NaN, alg), CompareStrings.topNmatches(s1, ss, n, algInstance, alg));
+                assertArrayEquals(alg + " " + s1 + " / " + deadline, cut(sorted, Integer.MAX_VALUE, deadline, alg), 
+                        CompareStrings.withDeadline(s1, ss, deadline, algInstance, alg));
+                assertArrayEquals(alg + " " + s1 + " / " + deadline, cut(sorted, n, deadline, alg), 
+                        CompareStrings.topMatchesWithDeadline(s1, ss, n, deadline, algInstance, alg));
+                
+                sorted = reference(s1, ss, SPLITTERS, algInstance, alg);
+                assertArrayEquals(alg + " " + s1 + " (splits)", cut(sorted, n, Float.NaN, alg), 
+                        CompareStrings.topNmatches(s1, ss, n, SPLITTERS, algInstance, alg));
+            }
+        }
+    }
+    
+    private static void assertBounded(String message, float expected, float actual, float bound, boolean biggerIsBetter) {
+        if(Utils.respectsDeadline(expected, bound, biggerIsBetter)) {
+            assertEquals(message, expected, actual, 0);
+        } else {
+            assertFalse(message + ": " + actual, Utils.respectsDeadline(actual, bound, biggerIsBetter));
+        }
+    }
+    
+    /**
+     * 
+     * @return every element of {@code ss}, with its unbounded rank, stably sorted like the {@code String} APIs do
+     */
+    private static CompareItem[] reference(String s1, String[] ss, String[] splitters, Algorithm algInstance, Alg alg) {
+        final boolean biggerIsBetter = Utils.biggerIsBetter(alg);
+        String ss1 = Utils.normalize(s1);
+        
+        CompareItem[] items = new CompareItem[ss.length];
+        for(int i = 0; i < ss.length; i++) {
+            String st = Utils.normalize(ss[i]);
+            float r = splitters != null ? Utils.checkSplits(ss1, st, splitters, algInstance, alg) : Utils.compare(ss1, st, algInstance, alg);
+            items[i] = new CompareItem(new StringableStringWrapper(ss[i], st), r);
+        }
+        
+        Arrays.sort(items, new Comparator<CompareItem>() {
+            @Override
+            public int compare(CompareItem i1, CompareItem i2) {
+                return CustomComparator.compare(i1.r, i1.o, i2.r, i2.o, biggerIsBetter);
+            }
+        });
+        return items;
+    }
+    
+    /**
+     * 
+     * @return the first {@code n} elements of {@code sorted} which respect {@code deadline}, or every one if it's NaN
+     */
+    private static String[] cut(CompareItem[] sorted, int n, float deadline, Alg alg) {
+        List<String> result = new ArrayList<>();
+        for(int i = 0; i < sorted.length && result.size() < n; i++) {
+            if(Float.isNaN(deadline) || Utils.respectsDeadline(sorted[i].r, deadline, Utils.biggerIsBetter(alg))) {
+                result.add(sorted[i].o.getString());
+            }
+        }
+        return result.toArray(new String[0]);
+    }
+}
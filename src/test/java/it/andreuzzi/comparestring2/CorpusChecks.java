@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Assertions shared by the tests of the subclasses of {@link Corpus}: a corpus must give the same elements, in the same order, 
+ *      as a comparison with every element of the {@code String[]} it was built from.
+ *
+ * @author francescoandreuzzi
+ */
+final class CorpusChecks {
+    
+    private CorpusChecks() {}
+    
+    /**
+     * 
+     * @param s1          the first {@link String} of the comparison
+     * @param ss          the elements of {@code corpus}
+     * @param corpus      a {@link Corpus} built from {@code ss}
+     * @param algInstance the instance of {@link Algorithm} of {@code corpus}
+     * @param alg         the {@link Alg} of {@code corpus}
+     * @param n           the number of elements of the top-n queries
+     * @param deadline    the deadline of the deadline queries
+     */
+    static void assertSameMatches(String s1, String[] ss, Corpus corpus, Algorithm algInstance, Alg alg, int n, float deadline) {
+        assertEquals(s1, CompareStrings.bestMatch(s1, ss, algInstance, alg), CompareStrings.bestMatch(s1, corpus));
+        assertArrayEquals(s1, CompareStrings.topNmatches(s1, ss, n, algInstance, alg), CompareStrings.topNmatches(s1, corpus, n));
+        assertArrayEquals(s1 + " / " + deadline, CompareStrings.withDeadline(s1, ss, deadline, algInstance, alg), 
+                CompareStrings.withDeadline(s1, corpus, deadline));
+        assertArrayEquals(s1 + " / " + deadline, CompareStrings.topMatchesWithDeadline(s1, ss, n, deadline, algInstance, alg), 
+                CompareStrings.topMatchesWithDeadline(s1, corpus, n, deadline));
+    }
+    
+    /**
+     * 
+     * Check the result of an approximate index, which may miss some elements but must rank and sort the others exactly.
+     * 
+     * @param message   the message of the failure
+     * @param expected  the result of a comparison with every element
+     * @param actual    the result of the index
+     */
+    static void assertSubsequence(String message, String[] expected, String[] actual) {
+        int j = 0;
+        for(String s : actual) {
+            while(j < expected.length && !expected[j].equals(s)) j++;
+            assertTrue(message + ": " + s, j < expected.length);
+            j++;
+        }
+    }
+}
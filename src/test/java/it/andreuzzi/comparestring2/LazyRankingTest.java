@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * 
+ * @author francescoandreuzzi
+ */
+public class LazyRankingTest {
+    
+    private static final Alg[] ALGS = {AlgMap.MetricDistAlg.LEVENSHTEIN, AlgMap.NormSimAlg.JAROWRINKLER, AlgMap.NormDistAlg.COSINE, 
+        AlgMap.NormSimAlg.JACCARD, AlgMap.DistAlg.LCS};
+    
+    private static final String[][] SPLITTERS = {null, {" "}};
+    
+    /**
+     * 
+     * The streams of an {@code Iterable<String>}, collected entirely or up to {@code n} elements, must give the same elements, in the same 
+     *      order, as the {@code String[]} APIs. The rank of each element must be the one given by the algorithm.
+     */
+    @Test
+    public void testStrings() {
+        RandomStrings random = new RandomStrings(23);
+        String[] ss = random.ties(300, RandomStrings.TEXT, 0, 12);
+        List<String> list = Arrays.asList(ss);
+        
+        for(Alg alg : ALGS) {
+            Algorithm algInstance = alg.buildAlg();
+            for(String[] splitters : SPLITTERS) {
+                for(int i = 0; i < 5; i++) {
+                    String s1 = random.mutate(ss[random.nextInt(ss.length)], RandomStrings.TEXT, random.nextInt(4));
+                    int n = 1 + random.nextInt(50);
+                    float deadline = deadline(random, s1, ss, algInstance, alg);
+                    String message = alg + " " + s1 + " / " + deadline;
+                    
+                    CompareItem[] items = CompareStrings.streamMatches(s1, list, splitters, algInstance, alg).toArray(CompareItem[]::new);
+                    assertArrayEquals(message, CompareStrings.topNmatches(s1, ss, ss.length, splitters, algInstance, alg), strings(items));
+                    assertRanks(message, s1, items, splitters, algInstance, alg);
+                    
+                    items = CompareStrings.streamWithDeadline(s1, list, deadline, splitters, algInstance, alg).toArray(CompareItem[]::new);
+                    assertArrayEquals(message, CompareStrings.withDeadline(s1, ss, deadline, splitters, algInstance, alg), strings(items));
+                    assertRanks(message, s1, items, splitters, algInstance, alg);
+                    
+                    items = CompareStrings.streamWithDeadline(s1, list, deadline, splitters, algInstance, alg).limit(n).toArray(CompareItem[]::new);
+                    assertArrayEquals(message, CompareStrings.topMatchesWithDeadline(s1, ss, n, deadline, splitters, algInstance, alg), strings(items));
+                }
+            }
+        }
+    }
+    
+    /**
+     * 
+     * Like {@link #testStrings() testStrings}, for an {@code Iterable<T>} and the {@code T[]} APIs. The objects are compared by identity.
+     */
+    @Test
+    public void testObjects() {
+        RandomStrings random = new RandomStrings(24);
+        String[] strings = random.ties(300, RandomStrings.TEXT, 0, 12);
+        StringableStringWrapper[] ss = new StringableStringWrapper[strings.length];
+        for(int i = 0; i < ss.length; i++) {
+            ss[i] = new StringableStringWrapper(strings[i]);
+        }
+        List<StringableStringWrapper> list = Arrays.asList(ss);
+        
+        Class<StringableStringWrapper> c = StringableStringWrapper.class;
+        for(Alg alg : ALGS) {
+            Algorithm algInstance = alg.buildAlg();
+            for(String[] splitters : SPLITTERS) {
+                for(int i = 0; i < 5; i++) {
+                    String s1 = random.mutate(strings[random.nextInt(ss.length)], RandomStrings.TEXT, random.nextInt(4));
+                    int n = 1 + random.nextInt(50);
+                    float deadline = deadline(random, s1, strings, algInstance, alg);
+                    String message = alg + " " + s1 + " / " + deadline;
+                    
+                    CompareItem[] items = CompareObjects.streamMatches(s1, list, splitters, algInstance, alg).toArray(CompareItem[]::new);
+                    assertArrayEquals(message, CompareObjects.topNmatches(c, s1, ss, ss.length, splitters, algInstance, alg), objects(items));
+                    
+                    items = CompareObjects.streamWithDeadline(s1, list, deadline, splitters, algInstance, alg).toArray(CompareItem[]::new);
+                    assertArrayEquals(message, CompareObjects.withDeadline(c, s1, ss, deadline, splitters, algInstance, alg), objects(items));
+                    
+                    items = CompareObjects.streamWithDeadline(s1, list, deadline, splitters, algInstance, alg).limit(n).toArray(CompareItem[]::new);
+                    assertArrayEquals(message, CompareObjects.topMatchesWithDeadline(c, s1, ss, n, deadline, splitters, algInstance, alg), objects(items));
+                }
+            }
+        }
+    }
+    
+    private static void assertRanks(String message, String s1, CompareItem[] items, String[] splitters, Algorithm algInstance, Alg alg) {
+        String ss1 = Utils.normalize(s1);
+        for(CompareItem item : items) {
+            String st = Utils.normalize(item.o.getString());
+            float r = splitters != null ? Utils.checkSplits(ss1, st, splitters, algInstance, alg) : Utils.compare(ss1, st, algInstance, alg);
+            assertEquals(message + ": " + item.o.getString(), r, item.r, 0);
+        }
+    }
+    
+    private static String[] strings(CompareItem[] items) {
+        String[] strings = new String[items.length];
+        for(int i = 0; i < items.length; i++) {
+            strings[i] = items[i].o.getString();
+        }
+        return strings;
+    }
+    
+    private static StringableObject[] objects(CompareItem[] items) {
+        StringableObject[] objects = new StringableObject[items.length];
+        for(int i = 0; i < items.length; i++) {
+            objects[i] = items[i].o;
+        }
+        return objects;
+    }
+    
+    /**
+     * 
+     * @return the rank of a random element of {@code ss}, so that the deadline is respected by some elements
+     */
+    private static float deadline(RandomStrings random, String s1, String[] ss, Algorithm algInstance, Alg alg) {
+        float r = Utils.compare(Utils.normalize(s1), Utils.normalize(ss[random.nextInt(ss.length)]), algInstance, alg);
+        return Float.isNaN(r) ? Corpus.noDeadline(alg) : r;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.CharacterSubstitutionInterface;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * 
+ * @author francescoandreuzzi
+ */
+public class LengthIndexTest {
+    
+    private static List<Alg> algs() {
+        List<Alg> algs = new ArrayList<>();
+        Collections.addAll(algs, AlgMap.DistAlg.values());
+        Collections.addAll(algs, AlgMap.NormDistAlg.values());
+        Collections.addAll(algs, AlgMap.NormSimAlg.values());
+        Collections.addAll(algs, AlgMap.MetricDistAlg.values());
+        return algs;
+    }
+    
+    /**
+     * 
+     * @return an instance of {@code alg}. {@code WLEVENSHTEIN} needs a substitution cost
+     */
+    private static Algorithm buildAlg(Alg alg) {
+        if(alg == AlgMap.DistAlg.WLEVENSHTEIN) {
+            return alg.buildAlg(new CharacterSubstitutionInterface() {
+                @Override
+                public double cost(char c1, char c2) {
+                    return Character.isDigit(c1) == Character.isDigit(c2) ? 0.5 : 1;
+                }
+            });
+        }
+        return alg.buildAlg();
+    }
+    
+    /**
+     * 
+     * No comparison may give a better rank than the bound given by the lengths of the two strings, but for the slack of 
+     *      {@link LengthBounds#reachable(float, float, boolean) reachable}.
+     */
+    @Test
+    public void testLengthBound() {
+        RandomStrings random = new RandomStrings(21);
+        for(Alg alg : algs()) {
+            Algorithm algInstance = buildAlg(alg);
+            boolean biggerIsBetter = Utils.biggerIsBetter(alg);
+            
+            for(int i = 0; i < 200; i++) {
+                String s1 = random.next(RandomStrings.HIGH, 0, 30);
+                String s2 = random.nextInt(2) == 0 ? random.mutate(s1, RandomStrings.HIGH, random.nextInt(10)) : random.next(RandomStrings.HIGH, 0, 30);
+                float r = Utils.compare(s1, s2, algInstance, alg);
+                float bound = alg.lengthBound(algInstance, s1.length(), s2.length());
+                
+                assertTrue(alg + " " + s1 + " / " + s2 + ": " + r + " / " + bound, Float.isNaN(r) || LengthBounds.reachable(bound, r, biggerIsBetter));
+            }
+        }
+    }
+    
+    /**
+     * 
+     * The buckets skipped by their length must not change the result of a comparison with every element, for every algorithm.
+     */
+    @Test
+    public void testSameMatches() {
+        RandomStrings random = new RandomStrings(22);
+        for(Alg alg : algs()) {
+            Algorithm algInstance = buildAlg(alg);
+            String[] alphabets = {RandomStrings.HIGH, RandomStrings.TEXT};
+            for(int c = 0; c < alphabets.length; c++) {
+                String[] ss = c == 0 ? random.corpus(100, alphabets[c], 0, 30) : random.ties(100, alphabets[c], 0, 30);
+                LengthIndex index = new LengthIndex(ss, algInstance, alg);
+                
+                for(int i = 0; i < 4; i++) {
+                    String s1 = random.mutate(ss[random.nextInt(ss.length)], alphabets[c], random.nextInt(4));
+                    float r = Utils.compare(Utils.normalize(s1), Utils.normalize(ss[random.nextInt(ss.length)]), algInstance, alg);
+                    CorpusChecks.assertSameMatches(s1, ss, index, algInstance, alg, 1 + random.nextInt(10), Float.isNaN(r) ? Corpus.noDeadline(alg) : r);
+                }
+            }
+        }
+    }
+}
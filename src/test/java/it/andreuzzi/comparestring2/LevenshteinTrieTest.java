@@ -0,0 +1,59 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.MetricDistAlg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import org.junit.Test;
+
+/**
+ * 
+ * @author francescoandreuzzi
+ */
+public class LevenshteinTrieTest {
+    
+    private static final float[] DEADLINES = {0, 1, 2, 3.5f, 6};
+    
+    /**
+     * 
+     * The trie must give the same result as a comparison with every element, for range and nearest neighbours queries. The corpora contain 
+     *      empty strings, duplicates and strings which are a prefix of other strings.
+     */
+    @Test
+    public void testSameMatches() {
+        MetricDistAlg alg = MetricDistAlg.LEVENSHTEIN;
+        RandomStrings random = new RandomStrings(39);
+        String[] alphabets = {RandomStrings.SMALL, RandomStrings.HIGH, RandomStrings.TEXT};
+        for(int c = 0; c < alphabets.length; c++) {
+            String[] ss = c < 2 ? random.corpus(500, alphabets[c], 0, 12) : random.ties(500, alphabets[c], 0, 12);
+            Algorithm algInstance = alg.buildAlg();
+            LevenshteinTrie trie = new LevenshteinTrie(ss, algInstance, alg);
+            
+            for(int i = 0; i < 50; i++) {
+                String s1 = random.mutate(ss[random.nextInt(ss.length)], alphabets[c], random.nextInt(4));
+                CorpusChecks.assertSameMatches(s1, ss, trie, algInstance, alg, 5, DEADLINES[i % DEADLINES.length]);
+            }
+        }
+    }
+}
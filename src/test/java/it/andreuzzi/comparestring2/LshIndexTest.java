@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.Arrays;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * 
+ * @author francescoandreuzzi
+ */
+public class LshIndexTest {
+    
+    private static final Alg ALG = AlgMap.NormSimAlg.JACCARD;
+    
+    /**
+     * 
+     * With 64 bands of a single row, a pair whose Jaccard index is 0.3 is missed with probability {@code 0.7^64}, about {@code 1e-10}: 
+     *      the deadline queries of the index must give the same result as a comparison with every element.
+     */
+    @Test
+    public void testLowThreshold() {
+        RandomStrings random = new RandomStrings(21);
+        String[] ss = random.ties(300, RandomStrings.TEXT, 4, 16);
+        Algorithm algInstance = ALG.buildAlg(2);
+        LshIndex index = new LshIndex(ss, 64, 1, algInstance, ALG);
+        
+        for(int i = 0; i < 30; i++) {
+            String s1 = random.variant(random.mutate(ss[random.nextInt(ss.length)].toLowerCase(), RandomStrings.TEXT, 2));
+            assertArrayEquals(s1, CompareStrings.withDeadline(s1, ss, 0.3f, algInstance, ALG), CompareStrings.withDeadline(s1, index, 0.3f));
+            assertArrayEquals(s1, CompareStrings.topMatchesWithDeadline(s1, ss, 10, 0.3f, algInstance, ALG), 
+                    CompareStrings.topMatchesWithDeadline(s1, index, 10, 0.3f));
+        }
+    }
+    
+    /**
+     * 
+     * With few wide bands the index misses most of the pairs, but the elements it finds are ranked exactly and sorted like a comparison 
+     *      with every element, and the elements equal to the query once normalized share every bucket with it.
+     */
+    @Test
+    public void testHighThreshold() {
+        RandomStrings random = new RandomStrings(22);
+        String[] ss = random.ties(300, RandomStrings.TEXT, 4, 16);
+        Algorithm algInstance = ALG.buildAlg(2);
+        LshIndex index = new LshIndex(ss, 4, 4, algInstance, ALG);
+        
+        for(int i = 0; i < 30; i++) {
+            String s1 = ss[random.nextInt(ss.length)];
+            String[] expected = CompareStrings.withDeadline(s1, ss, 0.2f, algInstance, ALG);
+            String[] actual = CompareStrings.withDeadline(s1, index, 0.2f);
+            CorpusChecks.assertSubsequence(s1, expected, actual);
+            
+            for(String s : expected) {
+                if(Utils.normalize(s).equals(Utils.normalize(s1))) {
+                    assertTrue(s1 + ": " + s, Arrays.asList(actual).contains(s));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * 
+ * @author francescoandreuzzi
+ */
+public class NormalizedCorpusTest {
+    
+    private static final Alg[] ALGS = {AlgMap.MetricDistAlg.LEVENSHTEIN, AlgMap.NormSimAlg.JAROWRINKLER, AlgMap.NormDistAlg.COSINE, 
+        AlgMap.NormSimAlg.JACCARD, AlgMap.DistAlg.LCS};
+    
+    private static final String[][] SPLITTERS = {null, {" "}};
+    
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    
+    @After
+    public void shutdown() {
+        pool.shutdown();
+    }
+    
+    /**
+     * 
+     * Each element is normalized once: the normalized {@link String} of an element built from a {@code String[]} is the one of its wrapper, 
+     *      equal normalized {@link String}s are the same instance, and lowercase ASCII {@link String}s are not copied.
+     */
+    @Test
+    public void testNormalized() {
+        RandomStrings random = new RandomStrings(25);
+        String[] ss = random.ties(300, RandomStrings.TEXT, 0, 12);
+        NormalizedCorpus corpus = new NormalizedCorpus(ss);
+        
+        Map<String, String> stored = new HashMap<>();
+        for(int i = 0; i < ss.length; i++) {
+            String st = corpus.strings[i];
+            assertEquals(ss[i], Utils.normalize(ss[i]), st);
+            assertSame(ss[i], corpus.items[i].getLowercaseString(), st);
+//            the first element with a normalized string stores it, without a copy if it's already normalized
+            if(!stored.containsKey(st)) {
+                stored.put(st, st);
+                if(st.equals(ss[i])) assertSame(ss[i], ss[i], st);
+            }
+            assertSame(ss[i], stored.get(st), st);
+        }
+    }
+    
+    /**
+     * 
+     * A {@link NormalizedCorpus} may be built from an {@link Iterable} of any size, while a {@link Corpus} bound to an algorithm must be 
+     *      given the exact number of elements.
+     */
+    @Test
+    public void testSize() {
+        RandomStrings random = new RandomStrings(26);
+        String[] strings = random.ties(100, RandomStrings.TEXT, 0, 12);
+        Collection<StringableObject> ss = new ArrayDeque<>();
+        for(String s : strings) {
+            ss.add(new StringableStringWrapper(s));
+        }
+        
+        NormalizedCorpus corpus = new NormalizedCorpus(ss);
+        assertEquals(strings.length, corpus.size());
+        for(int i = 0; i < strings.length; i++) {
+            assertEquals(Utils.normalize(strings[i].toLowerCase()), corpus.strings[i]);
+        }
+        
+        Algorithm algInstance = AlgMap.MetricDistAlg.LEVENSHTEIN.buildAlg();
+        int[] sizes = {ss.size() - 1, ss.size() + 1};
+        for(int size : sizes) {
+            try {
+                new LengthIndex(size, ss, algInstance, AlgMap.MetricDistAlg.LEVENSHTEIN);
+                fail("size " + size);
+            } catch(IllegalArgumentException exc) {}
+        }
+        
+//        a NormalizedCorpus is not bound to an algorithm
+        try {
+            CompareStrings.topNmatches("abc", corpus, 10);
+            fail();
+        } catch(IllegalArgumentException exc) {}
+    }
+    
+    /**
+     * 
+     * The list comparisons which take an algorithm must compare every element of any {@link Corpus} (also one built for another algorithm), 
+     *      and give the same elements, in the same order, given for the {@code String[]} it was built from.
+     */
+    @Test
+    public void testStrings() {
+        RandomStrings random = new RandomStrings(26);
+        String[] ss = random.ties(600, RandomStrings.TEXT, 0, 12);
+        Corpus[] corpora = {new NormalizedCorpus(ss), new LengthIndex(ss, AlgMap.MetricDistAlg.LEVENSHTEIN)};
+        
+        for(Corpus corpus : corpora) {
+            for(Alg alg : ALGS) {
+                Algorithm algInstance = alg.buildAlg();
+                for(String[] splitters : SPLITTERS) {
+                    for(int i = 0; i < 2; i++) {
+                        String s1 = random.mutate(ss[random.nextInt(ss.length)], RandomStrings.TEXT, random.nextInt(4));
+                        int n = 1 + random.nextInt(50);
+                        float deadline = deadline(random, s1, ss, algInstance, alg);
+                        String message = corpus.getClass().getSimpleName() + " " + alg + " " + s1 + " / " + deadline;
+                        
+                        String best = CompareStrings.bestMatch(s1, ss, splitters, algInstance, alg);
+                        assertEquals(message, best, CompareStrings.bestMatch(s1, corpus, splitters, algInstance, alg));
+                        assertEquals(message, best, CompareStrings.parallelBestMatch(s1, corpus, splitters, algInstance, alg, pool));
+                        
+                        String[] expected = CompareStrings.topNmatches(s1, ss, n, splitters, algInstance, alg);
+                        assertArrayEquals(message, expected, CompareStrings.topNmatches(s1, corpus, n, splitters, algInstance, alg));
+                        assertArrayEquals(message, expected, CompareStrings.parallelTopNmatches(s1, corpus, n, splitters, algInstance, alg, pool));
+                        
+                        expected = CompareStrings.withDeadline(s1, ss, deadline, splitters, algInstance, alg);
+                        assertArrayEquals(message, expected, CompareStrings.withDeadline(s1, corpus, deadline, splitters, algInstance, alg));
+                        assertArrayEquals(message, expected, CompareStrings.parallelWithDeadline(s1, corpus, deadline, splitters, algInstance, alg, pool));
+                        assertArrayEquals(message, expected, strings(CompareStrings.streamWithDeadline(s1, corpus, deadline, splitters, algInstance, alg)));
+                        
+                        expected = CompareStrings.topMatchesWithDeadline(s1, ss, n, deadline, splitters, algInstance, alg);
+                        assertArrayEquals(message, expected, CompareStrings.topMatchesWithDeadline(s1, corpus, n, deadline, splitters, algInstance, alg));
+                        assertArrayEquals(message, expected, CompareStrings.parallelTopMatchesWithDeadline(s1, corpus, n, deadline, splitters, algInstance, alg, pool));
+                        
+                        expected = CompareStrings.topNmatches(s1, ss, ss.length, splitters, algInstance, alg);
+                        assertArrayEquals(message, expected, strings(CompareStrings.streamMatches(s1, corpus, splitters, algInstance, alg)));
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * 
+     * Like {@link #testStrings() testStrings}, for the {@code T[]} APIs and a {@link NormalizedCorpus} built from an {@link Iterable}. The objects 
+     *      are compared by identity.
+     */
+    @Test
+    public void testObjects() {
+        RandomStrings random = new RandomStrings(27);
+        String[] strings = random.ties(600, RandomStrings.TEXT, 0, 12);
+        StringableStringWrapper[] ss = new StringableStringWrapper[strings.length];
+        for(int i = 0; i < ss.length; i++) {
+            ss[i] = new StringableStringWrapper(strings[i]);
+        }
+        NormalizedCorpus corpus = new NormalizedCorpus(new ArrayDeque<>(Arrays.asList(ss)));
+        
+        Class<StringableStringWrapper> c = StringableStringWrapper.class;
+        for(Alg alg : ALGS) {
+            Algorithm algInstance = alg.buildAlg();
+            for(String[] splitters : SPLITTERS) {
+                for(int i = 0; i < 2; i++) {
+                    String s1 = random.mutate(strings[random.nextInt(ss.length)], RandomStrings.TEXT, random.nextInt(4));
+                    int n = 1 + random.nextInt(50);
+                    float deadline = deadline(random, s1, strings, algInstance, alg);
+                    String message = alg + " " + s1 + " / " + deadline;
+                    
+                    StringableStringWrapper best = CompareObjects.bestMatch(c, s1, ss, splitters, algInstance, alg);
+                    assertEquals(message, best, CompareObjects.bestMatch(c, s1, corpus, splitters, algInstance, alg));
+                    assertEquals(message, best, CompareObjects.parallelBestMatch(c, s1, corpus, splitters, algInstance, alg, pool));
+                    
+                    StringableStringWrapper[] expected = CompareObjects.topNmatches(c, s1, ss, n, splitters, algInstance, alg);
+                    assertArrayEquals(message, expected, CompareObjects.topNmatches(c, s1, corpus, n, splitters, algInstance, alg));
+                    assertArrayEquals(message, expected, CompareObjects.parallelTopNmatches(c, s1, corpus, n, splitters, algInstance, alg, pool));
+                    
+                    expected = CompareObjects.withDeadline(c, s1, ss, deadline, splitters, algInstance, alg);
+                    StringableStringWrapper[] actual = CompareObjects.withDeadline(c, s1, corpus, deadline, splitters, algInstance, alg);
+                    assertArrayEquals(message, expected, actual);
+                    assertEquals(c, actual.getClass().getComponentType());
+                    assertArrayEquals(message, expected, CompareObjects.parallelWithDeadline(c, s1, corpus, deadline, splitters, algInstance, alg, pool));
+                    assertArrayEquals(message, expected, objects(CompareObjects.streamWithDeadline(s1, corpus, deadline, splitters, algInstance, alg)));
+                    
+                    expected = CompareObjects.topMatchesWithDeadline(c, s1, ss, n, deadline, splitters, algInstance, alg);
+                    assertArrayEquals(message, expected, CompareObjects.topMatchesWithDeadline(c, s1, corpus, n, deadline, splitters, algInstance, alg));
+                    assertArrayEquals(message, expected, CompareObjects.parallelTopMatchesWithDeadline(c, s1, corpus, n, deadline, splitters, algInstance, alg, pool));
+                    
+                    expected = CompareObjects.topNmatches(c, s1, ss, ss.length, splitters, algInstance, alg);
+                    assertArrayEquals(message, expected, objects(CompareObjects.streamMatches(s1, corpus, splitters, algInstance, alg)));
+                }
+            }
+        }
+    }
+    
+    private static String[] strings(Stream<CompareItem> items) {
+        return items.map(item -> item.o.getString()).toArray(String[]::new);
+    }
+    
+    private static StringableObject[] objects(Stream<CompareItem> items) {
+        return items.map(item -> item.o).toArray(StringableObject[]::new);
+    }
+    
+    /**
+     * 
+     * @return the rank of a random element of {@code ss}, so that the deadline is respected by some elements
+     */
+    private static float deadline(RandomStrings random, String s1, String[] ss, Algorithm algInstance, Alg alg) {
+        float r = Utils.compare(Utils.normalize(s1), Utils.normalize(ss[random.nextInt(ss.length)]), algInstance, alg);
+        return Float.isNaN(r) ? Corpus.noDeadline(alg) : r;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * 
+ * @author francescoandreuzzi
+ */
+public class ParallelScanTest {
+    
+    private static final Alg[] ALGS = {AlgMap.MetricDistAlg.LEVENSHTEIN, AlgMap.NormSimAlg.JAROWRINKLER, AlgMap.NormDistAlg.COSINE, 
+        AlgMap.NormSimAlg.JACCARD};
+    
+    private static final String[][] SPLITTERS = {null, {" "}};
+    
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    
+    @After
+    public void shutdown() {
+        pool.shutdown();
+    }
+    
+    /**
+     * 
+     * The parallel {@code String[]} APIs must give the same elements, in the same order, as the sequential ones. The lists are split in 
+     *      chunks of 256 elements and a shorter last one, and contain ties, empty strings and NaN ranks.
+     */
+    @Test
+    public void testStrings() {
+        RandomStrings random = new RandomStrings(22);
+        String[] ss = random.ties(600, RandomStrings.TEXT, 0, 12);
+        
+        for(Alg alg : ALGS) {
+            Algorithm algInstance = alg.buildAlg();
+            for(String[] splitters : SPLITTERS) {
+                for(int i = 0; i < 2; i++) {
+                    String s1 = random.mutate(ss[random.nextInt(ss.length)], RandomStrings.TEXT, random.nextInt(4));
+                    int n = i == 0 ? ss.length : 1 + random.nextInt(50);
+                    float deadline = deadline(random, s1, ss, algInstance, alg);
+                    String message = alg + " " + s1 + " / " + deadline;
+                    
+                    assertEquals(message, CompareStrings.bestMatch(s1, ss, splitters, algInstance, alg), 
+                            CompareStrings.parallelBestMatch(s1, ss, splitters, algInstance, alg, pool));
+                    assertArrayEquals(message, CompareStrings.topNmatches(s1, ss, n, splitters, algInstance, alg), 
+                            CompareStrings.parallelTopNmatches(s1, ss, n, splitters, algInstance, alg, pool));
+                    assertArrayEquals(message, CompareStrings.withDeadline(s1, ss, deadline, splitters, algInstance, alg), 
+                            CompareStrings.parallelWithDeadline(s1, ss, deadline, splitters, algInstance, alg, pool));
+                    assertArrayEquals(message, CompareStrings.topMatchesWithDeadline(s1, ss, n, deadline, splitters, algInstance, alg), 
+                            CompareStrings.parallelTopMatchesWithDeadline(s1, ss, n, deadline, splitters, algInstance, alg, pool));
+                }
+            }
+        }
+    }
+    
+    /**
+     * 
+     * Like {@link #testStrings() testStrings}, for the {@code T[]} APIs. The objects are compared by identity.
+     */
+    @Test
+    public void testObjects() {
+        RandomStrings random = new RandomStrings(23);
+        String[] strings = random.ties(600, RandomStrings.TEXT, 0, 12);
+        StringableStringWrapper[] ss = new StringableStringWrapper[strings.length];
+        for(int i = 0; i < ss.length; i++) {
+            ss[i] = new StringableStringWrapper(strings[i]);
+        }
+        
+        Class<StringableStringWrapper> c = StringableStringWrapper.class;
+        for(Alg alg : ALGS) {
+            Algorithm algInstance = alg.buildAlg();
+            for(String[] splitters : SPLITTERS) {
+                for(int i = 0; i < 2; i++) {
+                    String s1 = random.mutate(strings[random.nextInt(ss.length)], RandomStrings.TEXT, random.nextInt(4));
+                    int n = i == 0 ? ss.length : 1 + random.nextInt(50);
+                    float deadline = deadline(random, s1, strings, algInstance, alg);
+                    String message = alg + " " + s1 + " / " + deadline;
+                    
+                    assertEquals(message, CompareObjects.bestMatch(c, s1, ss, splitters, algInstance, alg), 
+                            CompareObjects.parallelBestMatch(c, s1, ss, splitters, algInstance, alg, pool));
+                    assertArrayEquals(message, CompareObjects.topNmatches(c, s1, ss, n, splitters, algInstance, alg), 
+                            CompareObjects.parallelTopNmatches(c, s1, ss, n, splitters, algInstance, alg, pool));
+                    assertArrayEquals(message, CompareObjects.withDeadline(c, s1, ss, deadline, splitters, algInstance, alg), 
+                            CompareObjects.parallelWithDeadline(c, s1, ss, deadline, splitters, algInstance, alg, pool));
+                    assertArrayEquals(message, CompareObjects.topMatchesWithDeadline(c, s1, ss, n, deadline, splitters, algInstance, alg), 
+                            CompareObjects.parallelTopMatchesWithDeadline(c, s1, ss, n, deadline, splitters, algInstance, alg, pool));
+                }
+            }
+        }
+    }
+    
+    /**
+     * 
+     * @return the rank of a random element of {@code ss}, so that the deadline is respected by some elements
+     */
+    private static float deadline(RandomStrings random, String s1, String[] ss, Algorithm algInstance, Alg alg) {
+        float r = Utils.compare(Utils.normalize(s1), Utils.normalize(ss[random.nextInt(ss.length)]), algInstance, alg);
+        return Float.isNaN(r) ? Corpus.noDeadline(alg) : r;
+    }
+}
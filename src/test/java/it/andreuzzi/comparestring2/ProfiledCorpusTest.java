@@ -0,0 +1,60 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import org.junit.Test;
+
+/**
+ * 
+ * @author francescoandreuzzi
+ */
+public class ProfiledCorpusTest {
+    
+    @Test
+    public void testSameMatches() {
+        check(AlgMap.NormSimAlg.COSINE, 0.4f, 1);
+        check(AlgMap.NormSimAlg.JACCARD, 0.3f, 2);
+        check(AlgMap.NormSimAlg.SORENSENDICE, 0.3f, 3);
+        check(AlgMap.DistAlg.QGRAM, 6, 4);
+    }
+    
+    /**
+     * 
+     * Most of the elements are equal to some other element once normalized, so they have the same rank for every {@code s1}, 
+     *      and their order is decided by the tie-break alone.
+     */
+    private void check(Alg alg, float deadline, long seed) {
+        RandomStrings random = new RandomStrings(seed);
+        String[] ss = random.ties(200, RandomStrings.TEXT, 2, 10);
+        Algorithm algInstance = alg.buildAlg(2);
+        ProfiledCorpus corpus = new ProfiledCorpus(ss, algInstance, alg);
+        
+        for(int i = 0; i < 30; i++) {
+            String s1 = i % 2 == 0 ? random.variant(ss[random.nextInt(ss.length)].toLowerCase()) : random.next(RandomStrings.TEXT, 2, 10);
+            CorpusChecks.assertSameMatches(s1, ss, corpus, algInstance, alg, 10, deadline);
+        }
+    }
+}
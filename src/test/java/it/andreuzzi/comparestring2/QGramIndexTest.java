@@ -0,0 +1,66 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import org.junit.Test;
+
+/**
+ * 
+ * @author francescoandreuzzi
+ */
+public class QGramIndexTest {
+    
+    private static final Alg[] ALGS = {AlgMap.MetricDistAlg.LEVENSHTEIN, AlgMap.MetricDistAlg.DAMERAU, AlgMap.DistAlg.OSA};
+    private static final float[] DEADLINES = {0, 1, 1.5f, 2, 3, 5};
+    
+    /**
+     * 
+     * The count and length filters never drop an element within the deadline: the index must give the same result as a comparison 
+     *      with every element.
+     */
+    @Test
+    public void testSameMatches() {
+        RandomStrings random = new RandomStrings(24);
+        String[] alphabets = {RandomStrings.TEXT, RandomStrings.HIGH, RandomStrings.TEXT};
+        for(int c = 0; c < alphabets.length; c++) {
+            String alphabet = alphabets[c];
+//            the last corpus is made of strings which are equal once normalized, ordered by the tie-break
+            String[] ss = c < 2 ? random.corpus(80, alphabet, 3, 20) : random.ties(80, alphabet, 3, 20);
+            for(Alg alg : ALGS) {
+                Algorithm algInstance = alg.buildAlg();
+                for(int q = 1; q <= QGramIndex.MAX_Q; q++) {
+                    for(boolean positional : new boolean[] {false, true}) {
+                        QGramIndex index = new QGramIndex(ss, q, positional, algInstance, alg);
+                        for(int i = 0; i < 4; i++) {
+                            String s1 = random.mutate(ss[random.nextInt(ss.length)], alphabet, random.nextInt(4));
+                            CorpusChecks.assertSameMatches(s1, ss, index, algInstance, alg, 5, DEADLINES[i % DEADLINES.length]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import java.util.Random;
+
+/**
+ * Seeded random strings for the tests. The alphabets cover short patterns with many repeated characters, text with
+ *      spaces and characters outside of ASCII, among which the two halves of a surrogate pair and the highest char.
+ *
+ * @author francescoandreuzzi
+ */
+public final class RandomStrings {
+    
+    public static final String SMALL = "abc";
+    public static final String TEXT = "abcdefghij ";
+    public static final String HIGH = "ab\u00e8\u00c8\u03b1\u4e2d\ud83d\ude00\uffff";
+    
+    private static final String VOWELS = "aeiou";
+    private static final String ACCENTED = "\u00e0\u00e8\u00ec\u00f2\u00f9";
+    
+    private final Random random;
+    
+    public RandomStrings(long seed) {
+        random = new Random(seed);
+    }
+    
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+    
+    /**
+     * 
+     * @param alphabet  the characters of the string
+     * @param minLength the min length of the string
+     * @param maxLength the max length of the string
+     * @return          a random string
+     */
+    public String next(String alphabet, int minLength, int maxLength) {
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        StringBuilder sb = new StringBuilder(length);
+        for(int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * 
+     * @param s         a string
+     * @param alphabet  the characters which may be inserted
+     * @param edits     the number of random insertions, deletions, substitutions and transpositions
+     * @return          a string near to {@code s}
+     */
+    public String mutate(String s, String alphabet, int edits) {
+        StringBuilder sb = new StringBuilder(s);
+        for(int i = 0; i < edits; i++) {
+            int p = sb.length() == 0 ? 0 : random.nextInt(sb.length());
+            char c = alphabet.charAt(random.nextInt(alphabet.length()));
+            switch(sb.length() == 0 ? 0 : random.nextInt(4)) {
+                case 0: sb.insert(p, c); break;
+                case 1: sb.deleteCharAt(p); break;
+                case 2: sb.setCharAt(p, c); break;
+                default:
+                    if(p + 1 < sb.length()) {
+                        char t = sb.charAt(p);
+                        sb.setCharAt(p, sb.charAt(p + 1));
+                        sb.setCharAt(p + 1, t);
+                    }
+            }
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * 
+     * @param s a lowercase string
+     * @return  {@code s} with random uppercase and accented letters, which is equal to {@code s} once normalized
+     */
+    public String variant(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for(int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            int vowel = VOWELS.indexOf(c);
+            if(vowel >= 0 && random.nextInt(3) == 0) c = ACCENTED.charAt(vowel);
+            if(random.nextInt(3) == 0) c = Character.toUpperCase(c);
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * 
+     * @param n         the number of strings
+     * @param alphabet  the characters of the strings
+     * @param minLength the min length of the strings
+     * @param maxLength the max length of the strings
+     * @return          {@code n} strings, many of which are equal to some other string of the array once normalized
+     */
+    public String[] ties(int n, String alphabet, int minLength, int maxLength) {
+        String[] ss = new String[n];
+        for(int i = 0; i < n; i++) {
+            ss[i] = i > 0 && random.nextBoolean() ? variant(ss[random.nextInt(i)].toLowerCase())
+                    : next(alphabet, minLength, maxLength);
+        }
+        return ss;
+    }
+    
+    /**
+     * 
+     * @param n         the number of strings
+     * @param alphabet  the characters of the strings
+     * @param minLength the min length of the strings
+     * @param maxLength the max length of the strings
+     * @return          {@code n} strings, about half of which are near to some other string of the array
+     */
+    public String[] corpus(int n, String alphabet, int minLength, int maxLength) {
+        String[] ss = new String[n];
+        for(int i = 0; i < n; i++) {
+            ss[i] = i > 0 && random.nextBoolean() ? mutate(ss[random.nextInt(i)], alphabet, random.nextInt(3))
+                    : next(alphabet, minLength, maxLength);
+        }
+        return ss;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * 
+ * @author francescoandreuzzi
+ */
+public class ScoreBufferTest {
+    
+    private static final Alg[] ALGS = {AlgMap.MetricDistAlg.LEVENSHTEIN, AlgMap.NormSimAlg.JAROWRINKLER, AlgMap.NormDistAlg.COSINE, 
+        AlgMap.NormSimAlg.JACCARD, AlgMap.DistAlg.LCS};
+    
+    private static final String[][] SPLITTERS = {null, {" "}};
+    
+    /**
+     * 
+     * {@code withDeadline} keeps its matches in a {@link ScoreBuffer}: it must give the same elements, in the same order, for a 
+     *      {@code String[]} and for any {@link Iterable}, and the same elements given by the bounded heap of {@code topMatchesWithDeadline}.
+     */
+    @Test
+    public void testStrings() {
+        RandomStrings random = new RandomStrings(24);
+        String[] ss = random.ties(300, RandomStrings.TEXT, 0, 12);
+        Collection<String> deque = new ArrayDeque<>(Arrays.asList(ss));
+        
+        for(Alg alg : ALGS) {
+            Algorithm algInstance = alg.buildAlg();
+            for(String[] splitters : SPLITTERS) {
+                for(int i = 0; i < 5; i++) {
+                    String s1 = random.mutate(ss[random.nextInt(ss.length)], RandomStrings.TEXT, random.nextInt(4));
+                    float deadline = i == 0 ? Float.NaN : deadline(random, s1, ss, algInstance, alg);
+                    String message = alg + " " + s1 + " / " + deadline;
+                    
+                    String[] expected = CompareStrings.topMatchesWithDeadline(s1, ss, ss.length, deadline, splitters, algInstance, alg);
+                    assertArrayEquals(message, expected, CompareStrings.withDeadline(s1, ss, deadline, splitters, algInstance, alg));
+                    assertArrayEquals(message, expected, CompareStrings.withDeadline(s1, deque.size(), deque, deadline, splitters, algInstance, alg));
+                }
+            }
+        }
+    }
+    
+    /**
+     * 
+     * Like {@link #testStrings() testStrings}, for the {@code T[]} APIs. The objects are compared by identity, and the returned array must 
+     *      be an array of the given class.
+     */
+    @Test
+    public void testObjects() {
+        RandomStrings random = new RandomStrings(25);
+        String[] strings = random.ties(300, RandomStrings.TEXT, 0, 12);
+        StringableStringWrapper[] ss = new StringableStringWrapper[strings.length];
+        for(int i = 0; i < ss.length; i++) {
+            ss[i] = new StringableStringWrapper(strings[i]);
+        }
+        Collection<StringableStringWrapper> deque = new ArrayDeque<>(Arrays.asList(ss));
+        
+        Class<StringableStringWrapper> c = StringableStringWrapper.class;
+        for(Alg alg : ALGS) {
+            Algorithm algInstance = alg.buildAlg();
+            for(String[] splitters : SPLITTERS) {
+                for(int i = 0; i < 5; i++) {
+                    String s1 = random.mutate(strings[random.nextInt(ss.length)], RandomStrings.TEXT, random.nextInt(4));
+                    float deadline = i == 0 ? Float.NaN : deadline(random, s1, strings, algInstance, alg);
+                    String message = alg + " " + s1 + " / " + deadline;
+                    
+                    StringableStringWrapper[] expected = CompareObjects.topMatchesWithDeadline(c, s1, ss, ss.length, deadline, splitters, algInstance, alg);
+                    StringableStringWrapper[] actual = CompareObjects.withDeadline(c, s1, ss, deadline, splitters, algInstance, alg);
+                    assertArrayEquals(message, expected, actual);
+                    assertEquals(c, actual.getClass().getComponentType());
+                    assertArrayEquals(message, expected, CompareObjects.withDeadline(c, s1, deque.size(), deque, deadline, splitters, algInstance, alg));
+                }
+            }
+        }
+    }
+    
+    /**
+     * 
+     * @return the rank of a random element of {@code ss}, so that the deadline is respected by some elements
+     */
+    private static float deadline(RandomStrings random, String s1, String[] ss, Algorithm algInstance, Alg alg) {
+        float r = Utils.compare(Utils.normalize(s1), Utils.normalize(ss[random.nextInt(ss.length)]), algInstance, alg);
+        return Float.isNaN(r) ? Corpus.noDeadline(alg) : r;
+    }
+}
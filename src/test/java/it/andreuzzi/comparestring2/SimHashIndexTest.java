@@ -0,0 +1,69 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.Cosine;
+import it.andreuzzi.comparestring2.algs.SimHash;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.assertArrayEquals;
+import org.junit.Test;
+
+/**
+ * 
+ * @author francescoandreuzzi
+ */
+public class SimHashIndexTest {
+    
+    private static final Alg ALG = AlgMap.NormSimAlg.COSINE;
+    
+    /**
+     * 
+     * The index must return exactly the elements of a comparison with every element whose fingerprint is within {@code maxHammingDistance} 
+     *      from the one of the query, in the same order.
+     */
+    @Test
+    public void testCandidates() {
+        RandomStrings random = new RandomStrings(23);
+        String[] ss = random.ties(300, RandomStrings.TEXT, 4, 24);
+        Cosine cosine = (Cosine) ALG.buildAlg(2);
+        
+        for(int d : new int[] {0, 3, 8, 20}) {
+            SimHashIndex index = new SimHashIndex(ss, d, cosine, ALG);
+            for(int i = 0; i < 20; i++) {
+                String s1 = random.variant(random.mutate(ss[random.nextInt(ss.length)].toLowerCase(), RandomStrings.TEXT, 2));
+                long fingerprint = SimHash.fingerprint(cosine.getShingleProfile(Utils.normalize(s1)));
+                
+                List<String> expected = new ArrayList<>();
+                for(String s : CompareStrings.withDeadline(s1, ss, 0.1f, cosine, ALG)) {
+                    long other = SimHash.fingerprint(cosine.getShingleProfile(Utils.normalize(s)));
+                    if(SimHash.hammingDistance(fingerprint, other) <= d) expected.add(s);
+                }
+                
+                assertArrayEquals(s1 + " / " + d, expected.toArray(new String[0]), CompareStrings.withDeadline(s1, index, 0.1f));
+            }
+        }
+    }
+}
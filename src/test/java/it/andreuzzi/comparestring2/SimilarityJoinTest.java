@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import java.util.HashMap;
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * 
+ * @author francescoandreuzzi
+ */
+public class SimilarityJoinTest {
+    
+    /**
+     * 
+     * The join must find the same pairs, with the same ranks, as a comparison of every pair.
+     */
+    @Test
+    public void testSamePairs() {
+        check(AlgMap.NormSimAlg.COSINE, 0.5f, 25);
+        check(AlgMap.NormSimAlg.JACCARD, 0.4f, 26);
+        check(AlgMap.NormSimAlg.SORENSENDICE, 0.6f, 27);
+        check(AlgMap.NormDistAlg.JACCARD, 0.5f, 28);
+        check(AlgMap.NormDistAlg.COSINE, 0.3f, 29);
+    }
+    
+    private void check(Alg alg, float deadline, long seed) {
+        RandomStrings random = new RandomStrings(seed);
+        String[] ss = random.corpus(150, RandomStrings.TEXT, 3, 20);
+        Algorithm algInstance = alg.buildAlg(2);
+        boolean biggerIsBetter = Utils.biggerIsBetter(alg);
+        
+        Map<Long, Float> expected = new HashMap<>();
+        for(int i = 0; i < ss.length; i++) {
+            for(int j = i + 1; j < ss.length; j++) {
+                float r = Utils.compare(Utils.normalize(ss[i]), Utils.normalize(ss[j]), algInstance, alg);
+                if(Utils.respectsDeadline(r, deadline, biggerIsBetter)) expected.put((long) i << 32 | j, r);
+            }
+        }
+        
+        Map<Long, Float> actual = new HashMap<>();
+        new SimilarityJoin(new ProfiledCorpus(ss, algInstance, alg)).pairs(deadline).forEach(pair -> {
+            long key = (long) Math.min(pair.index1, pair.index2) << 32 | Math.max(pair.index1, pair.index2);
+            assertTrue(pair.toString(), actual.put(key, pair.r) == null);
+        });
+        
+        assertTrue(alg + ": no pairs", expected.size() > 0);
+        assertEquals(alg.toString(), expected.keySet(), actual.keySet());
+        for(Map.Entry<Long, Float> e : expected.entrySet()) {
+            Float r = actual.get(e.getKey());
+            assertNotNull(r);
+            assertEquals(e.getValue(), r, 1e-6);
+        }
+    }
+}
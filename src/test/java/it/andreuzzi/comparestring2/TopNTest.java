@@ -0,0 +1,159 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * 
+ * @author francescoandreuzzi
+ */
+public class TopNTest {
+    
+    private static final float[] RANKS = {0, 0.25f, 0.5f, 1, 3, Float.NaN};
+    
+    /**
+     * 
+     * The heap must keep the first {@code n} elements of a stable sort of every element, with ties by rank and by string, and NaN ranks.
+     */
+    @Test
+    public void testOffer() {
+        RandomStrings random = new RandomStrings(19);
+        for(int t = 0; t < 200; t++) {
+            boolean biggerIsBetter = t % 2 == 0;
+            CompareItem[] items = items(random, random.nextInt(60));
+            int n = random.nextInt(items.length + 5);
+            
+            TopN best = new TopN(n, biggerIsBetter);
+            for(int i = 0; i < items.length; i++) {
+                best.offer(items[i].r, items[i].o, i);
+            }
+            assertSameItems(reference(items, n, biggerIsBetter), best.drain());
+        }
+    }
+    
+    /**
+     * 
+     * The elements skipped because of {@link TopN#accepts(float) accepts} or {@link TopN#bound(float) bound} must not change the result.
+     */
+    @Test
+    public void testAcceptsAndBound() {
+        RandomStrings random = new RandomStrings(20);
+        for(int t = 0; t < 200; t++) {
+            boolean biggerIsBetter = t % 2 == 0;
+            CompareItem[] items = items(random, random.nextInt(60));
+            int n = 1 + random.nextInt(10);
+            float deadline = biggerIsBetter ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+            
+            TopN best = new TopN(n, biggerIsBetter);
+            for(int i = 0; i < items.length; i++) {
+                float r = items[i].r;
+                float bound = best.bound(deadline);
+//                an element which does not respect the bound can't be better than the worst element in the heap
+                if(!Float.isNaN(r) && !Utils.respectsDeadline(r, bound, biggerIsBetter)) {
+                    assertTrue(!best.accepts(r));
+                    continue;
+                }
+                if(best.accepts(r)) {
+                    best.offer(r, items[i].o, i);
+                } else {
+                    assertTrue(!best.offer(r, items[i].o, i));
+                }
+            }
+            assertSameItems(reference(items, n, biggerIsBetter), best.drain());
+        }
+    }
+    
+    /**
+     * 
+     * The heaps of disjoint parts of the same list, merged in any order, must give the same result as a single heap.
+     */
+    @Test
+    public void testMerge() {
+        RandomStrings random = new RandomStrings(21);
+        for(int t = 0; t < 200; t++) {
+            boolean biggerIsBetter = t % 2 == 0;
+            CompareItem[] items = items(random, random.nextInt(80));
+            int n = random.nextInt(20);
+            
+            List<TopN> parts = new ArrayList<>();
+            int from = 0;
+            while(from < items.length) {
+                int to = Math.min(items.length, from + 1 + random.nextInt(20));
+                TopN part = new TopN(n, biggerIsBetter);
+                for(int i = from; i < to; i++) {
+                    part.offer(items[i].r, items[i].o, i);
+                }
+                parts.add(part);
+                from = to;
+            }
+            
+            TopN best = new TopN(n, biggerIsBetter);
+            while(!parts.isEmpty()) {
+                best.merge(parts.remove(parts.size() - 1 - random.nextInt(parts.size())));
+            }
+            assertSameItems(reference(items, n, biggerIsBetter), best.drain());
+        }
+    }
+    
+    private static CompareItem[] items(RandomStrings random, int length) {
+        CompareItem[] items = new CompareItem[length];
+        for(int i = 0; i < length; i++) {
+            String s = random.next(RandomStrings.SMALL, 0, 2);
+            items[i] = new CompareItem(new StringableStringWrapper(s, s), RANKS[random.nextInt(RANKS.length)]);
+        }
+        return items;
+    }
+    
+    /**
+     * 
+     * @return the first {@code n} elements of a stable sort of {@code items}
+     */
+    private static CompareItem[] reference(CompareItem[] items, int n, final boolean biggerIsBetter) {
+        List<CompareItem> sorted = new ArrayList<>();
+        Collections.addAll(sorted, items);
+        Collections.sort(sorted, new Comparator<CompareItem>() {
+            @Override
+            public int compare(CompareItem i1, CompareItem i2) {
+                return CustomComparator.compare(i1.r, i1.o, i2.r, i2.o, biggerIsBetter);
+            }
+        });
+        return sorted.subList(0, Math.min(n, sorted.size())).toArray(new CompareItem[0]);
+    }
+    
+    private static void assertSameItems(CompareItem[] expected, CompareItem[] actual) {
+        assertEquals(expected.length, actual.length);
+        for(int i = 0; i < expected.length; i++) {
+            assertSame(expected[i].o, actual[i].o);
+            assertEquals(expected[i].r, actual[i].r, 0);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2;
+
+import it.andreuzzi.comparestring2.AlgMap.Alg;
+import it.andreuzzi.comparestring2.algs.interfaces.Algorithm;
+import org.junit.Test;
+
+/**
+ * 
+ * @author francescoandreuzzi
+ */
+public class VpTreeTest {
+    
+    /**
+     * 
+     * The tree must give the same result as a comparison with every element, for range and nearest neighbours queries. The corpora are 
+     *      larger than the subtrees built by a single task, so that the tree is built in parallel.
+     */
+    @Test
+    public void testSameMatches() {
+        check(AlgMap.MetricDistAlg.LEVENSHTEIN, new float[] {0, 1, 2, 3.5f}, 34);
+        check(AlgMap.MetricDistAlg.DAMERAU, new float[] {0, 1, 3}, 35);
+        check(AlgMap.MetricDistAlg.METRICLCS, new float[] {0.1f, 0.3f, 0.5f}, 36);
+        check(AlgMap.NormDistAlg.JACCARD, new float[] {0.2f, 0.5f, 0.8f}, 37);
+        check(AlgMap.NormDistAlg.METRICLCS, new float[] {0.1f, 0.3f, 0.5f}, 38);
+    }
+    
+    private void check(Alg alg, float[] deadlines, long seed) {
+        RandomStrings random = new RandomStrings(seed);
+        String[] alphabets = {RandomStrings.HIGH, RandomStrings.TEXT};
+        for(int c = 0; c < alphabets.length; c++) {
+            String[] ss = c == 0 ? random.corpus(200, alphabets[c], 3, 20) : random.ties(200, alphabets[c], 3, 20);
+            Algorithm algInstance = alg.buildAlg(2);
+            VpTree tree = new VpTree(ss, algInstance, alg);
+            
+            for(int i = 0; i < 9; i++) {
+                String s1 = random.mutate(ss[random.nextInt(ss.length)], alphabets[c], random.nextInt(4));
+                CorpusChecks.assertSameMatches(s1, ss, tree, algInstance, alg, 5, deadlines[i % deadlines.length]);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2.algs;
+
+import it.andreuzzi.comparestring2.RandomStrings;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Checks the flat matrix and the character tables of Damerau against the
+ * textbook algorithm, which stores the last rows in a HashMap.
+ *
+ * @author francescoandreuzzi
+ */
+public class DamerauTest {
+
+    private final Damerau damerau = new Damerau();
+
+    static int reference(final String s1, final String s2) {
+        int inf = s1.length() + s2.length();
+        Map<Character, Integer> da = new HashMap<Character, Integer>();
+        for (int d = 0; d < s1.length(); d++) {
+            da.put(s1.charAt(d), 0);
+        }
+        for (int d = 0; d < s2.length(); d++) {
+            da.put(s2.charAt(d), 0);
+        }
+
+        int[][] h = new int[s1.length() + 2][s2.length() + 2];
+        for (int i = 0; i <= s1.length(); i++) {
+            h[i + 1][0] = inf;
+            h[i + 1][1] = i;
+        }
+        for (int j = 0; j <= s2.length(); j++) {
+            h[0][j + 1] = inf;
+            h[1][j + 1] = j;
+        }
+
+        for (int i = 1; i <= s1.length(); i++) {
+            int db = 0;
+            for (int j = 1; j <= s2.length(); j++) {
+                int i1 = da.get(s2.charAt(j - 1));
+                int j1 = db;
+                int cost = 1;
+                if (s1.charAt(i - 1) == s2.charAt(j - 1)) {
+                    cost = 0;
+                    db = j;
+                }
+                h[i + 1][j + 1] = Math.min(
+                        Math.min(h[i][j] + cost, h[i + 1][j] + 1),
+                        Math.min(h[i][j + 1] + 1,
+                                h[i1][j1] + (i - i1 - 1) + 1
+                                + (j - j1 - 1)));
+            }
+            da.put(s1.charAt(i - 1), i);
+        }
+        return h[s1.length() + 1][s2.length() + 1];
+    }
+
+    @Test
+    public final void testDistance() {
+        assertEquals(1.0, damerau.distance("ABCDEF", "ABDCEF"), 0.0);
+        assertEquals(2.0, damerau.distance("ABCDEF", "BACDFE"), 0.0);
+        assertEquals(1.0, damerau.distance("ABCDEF", "ABCDE"), 0.0);
+        assertEquals(2.0, damerau.distance("CA", "ABC"), 0.0);
+    }
+
+    @Test
+    public final void testRandom() {
+        RandomStrings random = new RandomStrings(8);
+        // more distinct chars than the initial capacity of CharIntMap
+        StringBuilder wide = new StringBuilder(RandomStrings.HIGH);
+        for (char c = 'Ā'; c < 'ƀ'; c++) {
+            wide.append(c);
+        }
+        String[] alphabets = {
+            RandomStrings.SMALL, RandomStrings.TEXT, RandomStrings.HIGH,
+            wide.toString()
+        };
+        for (int i = 0; i < 500; i++) {
+            String alphabet = alphabets[i % alphabets.length];
+            String s1 = random.next(alphabet, 0, 120);
+            String s2 = i % 2 == 0
+                    ? random.mutate(s1, alphabet, random.nextInt(20))
+                    : random.next(alphabet, 0, 120);
+            assertEquals(s1 + " / " + s2, reference(s1, s2),
+                    damerau.distance(s1, s2), 0.0);
+        }
+    }
+
+    @Test
+    public final void testCharIntMap() {
+        Random random = new Random(9);
+        CharIntMap map = new CharIntMap();
+        Map<Character, Integer> expected = new HashMap<Character, Integer>();
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 300; i++) {
+                char c = (char) random.nextInt(Character.MAX_VALUE + 1);
+                if (random.nextBoolean()) {
+                    int value = random.nextInt(1000);
+                    map.put(c, value);
+                    expected.put(c, value);
+                }
+                Integer value = expected.get(c);
+                assertEquals(value == null ? -1 : value, map.get(c, -1));
+            }
+            assertEquals(expected.size(), map.size());
+            map.clear();
+            expected.clear();
+            assertEquals(0, map.size());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2.algs;
+
+import it.andreuzzi.comparestring2.RandomStrings;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Checks the position lists and the window scan of JaroWinkler against the
+ * textbook matching, for a query compared with many candidates both longer
+ * and shorter than itself.
+ *
+ * @author francescoandreuzzi
+ */
+public class JaroWinklerTest {
+
+    private final JaroWinkler jw = new JaroWinkler();
+
+    static double reference(final String s1, final String s2) {
+        if (s1.equals(s2)) {
+            return 1;
+        }
+        String max = s1.length() > s2.length() ? s1 : s2;
+        String min = max == s1 ? s2 : s1;
+        int range = Math.max(max.length() / 2 - 1, 0);
+        boolean[] minFlags = new boolean[min.length()];
+        boolean[] maxFlags = new boolean[max.length()];
+        int matches = 0;
+        for (int mi = 0; mi < min.length(); mi++) {
+            for (int xi = Math.max(mi - range, 0);
+                    xi < Math.min(mi + range + 1, max.length()); xi++) {
+                if (!maxFlags[xi] && min.charAt(mi) == max.charAt(xi)) {
+                    minFlags[mi] = true;
+                    maxFlags[xi] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        int transpositions = 0;
+        for (int mi = 0, xi = 0; mi < min.length(); mi++) {
+            if (minFlags[mi]) {
+                while (!maxFlags[xi]) {
+                    xi++;
+                }
+                if (min.charAt(mi) != max.charAt(xi)) {
+                    transpositions++;
+                }
+                xi++;
+            }
+        }
+        int prefix = 0;
+        while (prefix < min.length()
+                && s1.charAt(prefix) == s2.charAt(prefix)) {
+            prefix++;
+        }
+
+        float m = matches;
+        if (m == 0) {
+            return 0f;
+        }
+        double j = (m / s1.length() + m / s2.length()
+                + (m - transpositions / 2) / m) / 3;
+        if (j > 0.7) {
+            j += Math.min(0.1, 1.0 / max.length()) * prefix * (1 - j);
+        }
+        return j;
+    }
+
+    @Test
+    public final void testSimilarity() {
+        assertEquals(0.974074, jw.similarity("My string", "My tsring"),
+                0.000001);
+        assertEquals(0.896296, jw.similarity("My string", "My ntrisg"),
+                0.000001);
+    }
+
+    @Test
+    public final void testQueryAgainstCandidates() {
+        RandomStrings random = new RandomStrings(11);
+        String[] alphabets = {
+            RandomStrings.SMALL, RandomStrings.TEXT, RandomStrings.HIGH
+        };
+        for (int q = 0; q < 60; q++) {
+            String alphabet = alphabets[q % alphabets.length];
+            String query = random.next(alphabet, 0, 40);
+            // the same query is the longer, the shorter or an equally long
+            // string of the pair, in any order
+            for (int i = 0; i < 200; i++) {
+                String candidate = i % 3 == 0
+                        ? random.mutate(query, alphabet, random.nextInt(8))
+                        : random.next(alphabet, 0, 60);
+                assertEquals(query + " / " + candidate,
+                        reference(query, candidate),
+                        jw.similarity(query, candidate), 0.0);
+                assertEquals(candidate + " / " + query,
+                        reference(candidate, query),
+                        jw.similarity(candidate, query), 0.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2.algs;
+
+import it.andreuzzi.comparestring2.RandomStrings;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Checks the bit-parallel and banded kernels against the Wagner-Fischer
+ * algorithm.
+ *
+ * @author francescoandreuzzi
+ */
+public class LevenshteinTest {
+
+    private final Levenshtein levenshtein = new Levenshtein();
+
+    /**
+     * Plain Wagner-Fischer, the reference for every kernel.
+     */
+    static int reference(final String s1, final String s2) {
+        int[] prev = new int[s2.length() + 1];
+        int[] curr = new int[s2.length() + 1];
+        for (int j = 0; j <= s2.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= s1.length(); i++) {
+            curr[0] = i;
+            for (int j = 1; j <= s2.length(); j++) {
+                int cost = s1.charAt(i - 1) == s2.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(prev[j - 1] + cost,
+                        Math.min(prev[j] + 1, curr[j - 1] + 1));
+            }
+            int[] swap = prev;
+            prev = curr;
+            curr = swap;
+        }
+        return prev[s2.length()];
+    }
+
+    @Test
+    public final void testDistance() {
+        assertEquals(0.0, levenshtein.distance("", ""), 0.0);
+        assertEquals(3.0, levenshtein.distance("", "abc"), 0.0);
+        assertEquals(1.0, levenshtein.distance("My string", "My tring"), 0.0);
+        assertEquals(2.0, levenshtein.distance("My string", "M string2"), 0.0);
+        assertEquals(1.0, levenshtein.distance("My string", "My $tring"), 0.0);
+    }
+
+    @Test
+    public final void testSingleWord() {
+        check(new RandomStrings(1), RandomStrings.SMALL, 0, 64, 1000);
+        check(new RandomStrings(2), RandomStrings.HIGH, 0, 64, 1000);
+    }
+
+    @Test
+    public final void testMultiWord() {
+        // patterns longer than 64 chars are split in chained blocks, the
+        // boundaries at 64 and 128 are where a carry can be lost
+        check(new RandomStrings(3), RandomStrings.SMALL, 60, 200, 300);
+        check(new RandomStrings(4), RandomStrings.TEXT, 60, 200, 300);
+        check(new RandomStrings(5), RandomStrings.HIGH, 60, 200, 300);
+    }
+
+    @Test
+    public final void testBounded() {
+        // long strings with a small limit run on the diagonal band
+        RandomStrings random = new RandomStrings(6);
+        for (int i = 0; i < 1000; i++) {
+            String alphabet = i % 2 == 0
+                    ? RandomStrings.TEXT : RandomStrings.HIGH;
+            String s1 = random.next(alphabet, 0, 200);
+            String s2 = random.mutate(s1, alphabet, random.nextInt(30));
+            int limit = random.nextInt(40);
+            int expected = Math.min(reference(s1, s2), limit);
+            assertEquals(s1 + " / " + s2 + " / " + limit, expected,
+                    levenshtein.distance(s1, s2, limit), 0.0);
+
+            double bounded = levenshtein.distance(s1, s2, limit - 0.5);
+            if (expected < limit) {
+                assertEquals(expected, bounded, 0.0);
+            } else {
+                assertTrue(bounded >= limit - 0.5);
+            }
+        }
+    }
+
+    private void check(final RandomStrings random, final String alphabet,
+            final int minLength, final int maxLength, final int pairs) {
+        for (int i = 0; i < pairs; i++) {
+            String s1 = random.next(alphabet, minLength, maxLength);
+            String s2 = i % 2 == 0
+                    ? random.mutate(s1, alphabet, random.nextInt(20))
+                    : random.next(alphabet, minLength, maxLength);
+            assertEquals(s1 + " / " + s2, reference(s1, s2),
+                    levenshtein.distance(s1, s2), 0.0);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2.algs;
+
+import it.andreuzzi.comparestring2.RandomStrings;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Checks the bit-parallel LCS kernel against the quadratic recurrence.
+ *
+ * @author francescoandreuzzi
+ */
+public class LongestCommonSubsequenceTest {
+
+    private final LongestCommonSubsequence lcs =
+            new LongestCommonSubsequence();
+
+    static int reference(final String s1, final String s2) {
+        int[][] c = new int[s1.length() + 1][s2.length() + 1];
+        for (int i = 1; i <= s1.length(); i++) {
+            for (int j = 1; j <= s2.length(); j++) {
+                if (s1.charAt(i - 1) == s2.charAt(j - 1)) {
+                    c[i][j] = c[i - 1][j - 1] + 1;
+                } else {
+                    c[i][j] = Math.max(c[i][j - 1], c[i - 1][j]);
+                }
+            }
+        }
+        return c[s1.length()][s2.length()];
+    }
+
+    @Test
+    public final void testDistance() {
+        assertEquals(0.0, lcs.distance("", ""), 0.0);
+        assertEquals(4.0, lcs.distance("AGCAT", "GAC"), 0.0);
+        assertEquals(1.0, lcs.distance("AGCAT", "AGCT"), 0.0);
+    }
+
+    @Test
+    public final void testLength() {
+        RandomStrings random = new RandomStrings(7);
+        String[] alphabets = {
+            RandomStrings.SMALL, RandomStrings.TEXT, RandomStrings.HIGH
+        };
+        for (int i = 0; i < 1000; i++) {
+            String alphabet = alphabets[i % alphabets.length];
+            // below, at and above a single 64 bit word
+            int maxLength = i % 2 == 0 ? 64 : 200;
+            String s1 = random.next(alphabet, 0, maxLength);
+            String s2 = i % 4 < 2
+                    ? random.mutate(s1, alphabet, random.nextInt(30))
+                    : random.next(alphabet, 0, maxLength);
+            int expected = reference(s1, s2);
+            assertEquals(s1 + " / " + s2, expected, lcs.length(s1, s2));
+            assertEquals(s1.length() + s2.length() - 2 * expected,
+                    lcs.distance(s1, s2), 0.0);
+        }
+    }
+}
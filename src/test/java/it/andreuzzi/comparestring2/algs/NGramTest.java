@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2.algs;
+
+import it.andreuzzi.comparestring2.RandomStrings;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Checks the in place n-gram comparison and the early exit of NGram against
+ * the algorithm of Kondrak, which builds each n-gram of the second string.
+ *
+ * @author francescoandreuzzi
+ */
+public class NGramTest {
+
+    static double reference(final String s0, final String s1, final int n) {
+        if (s0.equals(s1)) {
+            return 0;
+        }
+        final char special = '\n';
+        final int sl = s0.length();
+        final int tl = s1.length();
+        if (sl == 0 || tl == 0) {
+            return 1;
+        }
+        if (sl < n || tl < n) {
+            int cost = 0;
+            for (int i = 0; i < Math.min(sl, tl); i++) {
+                if (s0.charAt(i) == s1.charAt(i)) {
+                    cost++;
+                }
+            }
+            return (float) cost / Math.max(sl, tl);
+        }
+
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < n - 1; i++) {
+            prefix.append(special);
+        }
+        String sa = prefix + s0;
+        String ta = prefix + s1;
+
+        float[][] d = new float[tl + 1][sl + 1];
+        for (int i = 0; i <= sl; i++) {
+            d[0][i] = i;
+        }
+        for (int j = 1; j <= tl; j++) {
+            String tj = ta.substring(j - 1, j - 1 + n);
+            d[j][0] = j;
+            for (int i = 1; i <= sl; i++) {
+                String si = sa.substring(i - 1, i - 1 + n);
+                int cost = 0;
+                int tn = n;
+                for (int ni = 0; ni < n; ni++) {
+                    if (si.charAt(ni) != tj.charAt(ni)) {
+                        cost++;
+                    } else if (si.charAt(ni) == special) {
+                        tn--;
+                    }
+                }
+                float ec = (float) cost / tn;
+                d[j][i] = Math.min(Math.min(d[j][i - 1] + 1, d[j - 1][i] + 1),
+                        d[j - 1][i - 1] + ec);
+            }
+        }
+        return d[tl][sl] / Math.max(tl, sl);
+    }
+
+    @Test
+    public final void testDistance() {
+        NGram ngram = new NGram(4);
+        assertEquals(0.472222, ngram.distance("ABCD", "ABTUIO"), 0.000001);
+        assertEquals(0.0, ngram.distance("SIJK", "SIJK"), 0.0);
+        assertEquals(1.0, ngram.distance("", "SIJK"), 0.0);
+    }
+
+    @Test
+    public final void testRandom() {
+        RandomStrings random = new RandomStrings(12);
+        String[] alphabets = {
+            RandomStrings.SMALL, RandomStrings.TEXT, RandomStrings.HIGH
+        };
+        for (int n = 1; n <= 4; n++) {
+            NGram ngram = new NGram(n);
+            for (int i = 0; i < 200; i++) {
+                String alphabet = alphabets[i % alphabets.length];
+                String s0 = random.next(alphabet, 0, 80);
+                String s1 = i % 2 == 0
+                        ? random.mutate(s0, alphabet, random.nextInt(20))
+                        : random.next(alphabet, 0, 80);
+                double expected = reference(s0, s1, n);
+                assertEquals(s0 + " / " + s1, expected,
+                        ngram.distance(s0, s1), 0.0);
+
+                double limit = random.nextInt(100) / 100.0;
+                double bounded = ngram.distance(s0, s1, limit);
+                if (expected < limit) {
+                    assertEquals(expected, bounded, 0.0);
+                } else {
+                    assertTrue(bounded >= limit);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2.algs;
+
+import it.andreuzzi.comparestring2.RandomStrings;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Checks the three rolling rows and the early exit of OSA against the full
+ * matrix.
+ *
+ * @author francescoandreuzzi
+ */
+public class OptimalStringAlignmentTest {
+
+    private final OptimalStringAlignment osa = new OptimalStringAlignment();
+
+    static int reference(final String s1, final String s2) {
+        int n = s1.length(), m = s2.length();
+        int[][] d = new int[n + 1][m + 1];
+        for (int i = 0; i <= n; i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= m; j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            for (int j = 1; j <= m; j++) {
+                int cost = s1.charAt(i - 1) == s2.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(d[i - 1][j - 1] + cost,
+                        Math.min(d[i][j - 1] + 1, d[i - 1][j] + 1));
+                if (i > 1 && j > 1
+                        && s1.charAt(i - 1) == s2.charAt(j - 2)
+                        && s1.charAt(i - 2) == s2.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + cost);
+                }
+            }
+        }
+        return d[n][m];
+    }
+
+    @Test
+    public final void testDistance() {
+        assertEquals(1.0, osa.distance("ABDCEF", "ADBCEF"), 0.0);
+        assertEquals(3.0, osa.distance("CA", "ABC"), 0.0);
+        assertEquals(1.0, osa.distance("ABCDEF", "ABCDE"), 0.0);
+    }
+
+    @Test
+    public final void testRandom() {
+        RandomStrings random = new RandomStrings(10);
+        String[] alphabets = {
+            RandomStrings.SMALL, RandomStrings.TEXT, RandomStrings.HIGH
+        };
+        for (int i = 0; i < 1000; i++) {
+            String alphabet = alphabets[i % alphabets.length];
+            String s1 = random.next(alphabet, 0, 120);
+            String s2 = i % 2 == 0
+                    ? random.mutate(s1, alphabet, random.nextInt(20))
+                    : random.next(alphabet, 0, 120);
+            int expected = reference(s1, s2);
+            assertEquals(s1 + " / " + s2, expected,
+                    osa.distance(s1, s2), 0.0);
+
+            int limit = random.nextInt(30);
+            assertEquals(s1 + " / " + s2 + " / " + limit,
+                    Math.min(expected, limit),
+                    osa.distance(s1, s2, limit), 0.0);
+
+            double bounded = osa.distance(s1, s2, limit - 0.5);
+            if (expected < limit) {
+                assertEquals(expected, bounded, 0.0);
+            } else {
+                assertTrue(bounded >= limit - 0.5);
+            }
+        }
+    }
+}
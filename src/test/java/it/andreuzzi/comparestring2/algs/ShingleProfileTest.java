@@ -0,0 +1,244 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2.algs;
+
+import it.andreuzzi.comparestring2.RandomStrings;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Checks the single pass profiles, and the shingle algorithms built on them,
+ * against the HashMap profiles given by ShingleBased.getProfile.
+ *
+ * @author francescoandreuzzi
+ */
+public class ShingleProfileTest {
+
+    /**
+     * Spaces, tabs and line breaks, which are collapsed by the profiles.
+     */
+    static final String WHITE = "ab \t\n";
+
+    private static final double EPSILON = 1e-12;
+
+    @Test
+    public final void testProfile() {
+        RandomStrings random = new RandomStrings(17);
+        String[] alphabets = {
+            RandomStrings.TEXT, RandomStrings.HIGH, WHITE
+        };
+        // k up to 4 is packed, longer shingles are hashed
+        for (int k = 1; k <= 6; k++) {
+            ShingleBased shingles = new Cosine(k);
+            for (int i = 0; i < 150; i++) {
+                String s = random.next(alphabets[i % alphabets.length],
+                        0, 80);
+                Map<String, Integer> expected = shingles.getProfile(s);
+                ShingleProfile profile = shingles.getShingleProfile(s);
+
+                assertEquals(k, profile.getK());
+                assertEquals(s, expected.size(), profile.size());
+
+                List<Integer> counts = new ArrayList<Integer>();
+                double norm = 0;
+                for (int j = 0; j < profile.size(); j++) {
+                    assertTrue(j == 0 || profile.key(j - 1) < profile.key(j));
+                    counts.add(profile.count(j));
+                    norm += 1.0 * profile.count(j) * profile.count(j);
+                }
+                List<Integer> expectedCounts =
+                        new ArrayList<Integer>(expected.values());
+                Collections.sort(counts);
+                Collections.sort(expectedCounts);
+                assertEquals(s, expectedCounts, counts);
+                assertEquals(Math.sqrt(norm), profile.norm(), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public final void testAlgorithms() {
+        RandomStrings random = new RandomStrings(18);
+        String[] alphabets = {
+            RandomStrings.SMALL, RandomStrings.TEXT, RandomStrings.HIGH, WHITE
+        };
+        for (int k = 1; k <= 6; k++) {
+            Cosine cosine = new Cosine(k);
+            Jaccard jaccard = new Jaccard(k);
+            SorensenDice dice = new SorensenDice(k);
+            QGram qgram = new QGram(k);
+            for (int i = 0; i < 150; i++) {
+                String alphabet = alphabets[i % alphabets.length];
+                String s1 = random.next(alphabet, 0, 60);
+                String s2 = i % 2 == 0
+                        ? random.mutate(s1, alphabet, random.nextInt(10))
+                        : random.next(alphabet, 0, 60);
+                check(cosine, jaccard, dice, qgram, s1, s2);
+            }
+        }
+    }
+
+    @Test
+    public final void testSkewed() {
+        // a profile 16 times larger than the other one is searched with
+        // galloping lookups instead of a merge
+        RandomStrings random = new RandomStrings(20);
+        String alphabet = "abcdefghijklmnopqrstuvwxyz";
+        for (int k = 1; k <= 5; k++) {
+            Cosine cosine = new Cosine(k);
+            Jaccard jaccard = new Jaccard(k);
+            SorensenDice dice = new SorensenDice(k);
+            QGram qgram = new QGram(k);
+            for (int i = 0; i < 10; i++) {
+                String large = random.next(alphabet, 1000, 3000);
+                int from = random.nextInt(large.length() - 20);
+                String small = i % 2 == 0
+                        ? large.substring(from, from + 5 + random.nextInt(15))
+                        : random.next(alphabet, 5, 20);
+                check(cosine, jaccard, dice, qgram, small, large);
+                check(cosine, jaccard, dice, qgram, large, small);
+            }
+        }
+    }
+
+    @Test
+    public final void testProfileMethods() {
+        // a profile keeps its string, so the shortcuts of the string methods
+        // give the same results
+        RandomStrings random = new RandomStrings(19);
+        for (int k = 1; k <= 5; k++) {
+            Cosine cosine = new Cosine(k);
+            Jaccard jaccard = new Jaccard(k);
+            SorensenDice dice = new SorensenDice(k);
+            QGram qgram = new QGram(k);
+            for (int i = 0; i < 150; i++) {
+                String s1 = random.next(RandomStrings.TEXT, 0, 40);
+                String s2 = i % 2 == 0
+                        ? random.mutate(s1, RandomStrings.TEXT, 3)
+                        : random.next(RandomStrings.TEXT, 0, 40);
+                ShingleProfile p1 = cosine.getShingleProfile(s1);
+                ShingleProfile p2 = cosine.getShingleProfile(s2);
+                assertEquals(cosine.similarity(s1, s2),
+                        cosine.similarity(p1, p2), 0.0);
+                assertEquals(jaccard.similarity(s1, s2),
+                        jaccard.similarity(p1, p2), 0.0);
+                assertEquals(dice.similarity(s1, s2),
+                        dice.similarity(p1, p2), 0.0);
+                assertEquals(qgram.distance(s1, s2),
+                        qgram.distance(p1, p2), 0.0);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testProfileOfAnotherK() {
+        ShingleProfile profile = new Cosine(2).getShingleProfile("abcd");
+        new Jaccard(3).similarity(profile, profile);
+    }
+
+    static void check(final Cosine cosine, final Jaccard jaccard,
+            final SorensenDice dice, final QGram qgram,
+            final String s1, final String s2) {
+        String pair = s1 + " / " + s2;
+        assertEquals(pair, cosine(cosine, s1, s2),
+                cosine.similarity(s1, s2), EPSILON);
+        assertEquals(pair, jaccard(jaccard, s1, s2),
+                jaccard.similarity(s1, s2), EPSILON);
+        assertEquals(pair, dice(dice, s1, s2),
+                dice.similarity(s1, s2), EPSILON);
+        assertEquals(pair, qgram(qgram, s1, s2),
+                qgram.distance(s1, s2), 0.0);
+    }
+
+    static double cosine(final ShingleBased shingles, final String s1,
+            final String s2) {
+        if (s1.equals(s2)) {
+            return 1;
+        }
+        if (s1.length() < shingles.getK() || s2.length() < shingles.getK()) {
+            return 0;
+        }
+        Map<String, Integer> p1 = shingles.getProfile(s1);
+        Map<String, Integer> p2 = shingles.getProfile(s2);
+        double dot = 0, norm1 = 0, norm2 = 0;
+        for (Map.Entry<String, Integer> e : p1.entrySet()) {
+            Integer c = p2.get(e.getKey());
+            dot += c == null ? 0 : 1.0 * e.getValue() * c;
+            norm1 += 1.0 * e.getValue() * e.getValue();
+        }
+        for (int c : p2.values()) {
+            norm2 += 1.0 * c * c;
+        }
+        return dot / (Math.sqrt(norm1) * Math.sqrt(norm2));
+    }
+
+    static double jaccard(final ShingleBased shingles, final String s1,
+            final String s2) {
+        if (s1.equals(s2)) {
+            return 1;
+        }
+        Set<String> k1 = shingles.getProfile(s1).keySet();
+        Set<String> k2 = shingles.getProfile(s2).keySet();
+        Set<String> union = new HashSet<String>(k1);
+        union.addAll(k2);
+        return 1.0 * (k1.size() + k2.size() - union.size()) / union.size();
+    }
+
+    static double dice(final ShingleBased shingles, final String s1,
+            final String s2) {
+        if (s1.equals(s2)) {
+            return 1;
+        }
+        Set<String> k1 = shingles.getProfile(s1).keySet();
+        Set<String> k2 = shingles.getProfile(s2).keySet();
+        Set<String> inter = new HashSet<String>(k1);
+        inter.retainAll(k2);
+        return 2.0 * inter.size() / (k1.size() + k2.size());
+    }
+
+    static double qgram(final ShingleBased shingles, final String s1,
+            final String s2) {
+        if (s1.equals(s2)) {
+            return 0;
+        }
+        Map<String, Integer> p1 = shingles.getProfile(s1);
+        Map<String, Integer> p2 = shingles.getProfile(s2);
+        Set<String> union = new HashSet<String>(p1.keySet());
+        union.addAll(p2.keySet());
+        int agg = 0;
+        for (String key : union) {
+            int c1 = p1.containsKey(key) ? p1.get(key) : 0;
+            int c2 = p2.containsKey(key) ? p2.get(key) : 0;
+            agg += Math.abs(c1 - c2);
+        }
+        return agg;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 francescoandreuzzi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package it.andreuzzi.comparestring2.algs;
+
+import it.andreuzzi.comparestring2.RandomStrings;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Checks the diagonal band and the compiled cost tables of
+ * WeightedLevenshtein against the full matrix, which asks every cost to the
+ * weight model.
+ *
+ * @author francescoandreuzzi
+ */
+public class WeightedLevenshteinTest {
+
+    private static final CharacterSubstitutionInterface SUBSTITUTION =
+            new CharacterSubstitutionInterface() {
+        @Override
+        public double cost(final char c1, final char c2) {
+            return ((c1 * 31 + c2) % 8) / 8.0;
+        }
+    };
+
+    private static final CharacterInsDelInterface INSDEL =
+            new CharacterInsDelInterface() {
+        @Override
+        public double deletionCost(final char c) {
+            return c < 'e' ? 0.5 : 1.5;
+        }
+
+        @Override
+        public double insertionCost(final char c) {
+            return c % 2 == 0 ? 0.75 : 1.25;
+        }
+    };
+
+    static double reference(final String s1, final String s2,
+            final CharacterSubstitutionInterface charsub,
+            final CharacterInsDelInterface charchange) {
+        if (s1.equals(s2)) {
+            return 0;
+        }
+        double[][] d = new double[s1.length() + 1][s2.length() + 1];
+        for (int j = 1; j <= s2.length(); j++) {
+            d[0][j] = d[0][j - 1] + (charchange == null
+                    ? 1 : charchange.insertionCost(s2.charAt(j - 1)));
+        }
+        for (int i = 1; i <= s1.length(); i++) {
+            char c1 = s1.charAt(i - 1);
+            double deletion = charchange == null
+                    ? 1 : charchange.deletionCost(c1);
+            d[i][0] = d[i - 1][0] + deletion;
+            for (int j = 1; j <= s2.length(); j++) {
+                char c2 = s2.charAt(j - 1);
+                double insertion = charchange == null
+                        ? 1 : charchange.insertionCost(c2);
+                double cost = c1 == c2 ? 0 : charsub.cost(c1, c2);
+                d[i][j] = Math.min(d[i][j - 1] + insertion,
+                        Math.min(d[i - 1][j] + deletion,
+                                d[i - 1][j - 1] + cost));
+            }
+        }
+        return d[s1.length()][s2.length()];
+    }
+
+    @Test
+    public final void testDistance() {
+        WeightedLevenshtein instance = new WeightedLevenshtein(
+                new CharacterSubstitutionInterface() {
+                    @Override
+                    public double cost(final char c1, final char c2) {
+                        if (c1 == 't' && c2 == 'r') {
+                            return 0.5;
+                        }
+                        return 1.0;
+                    }
+                });
+
+        assertEquals(0.0, instance.distance("String1", "String1"), 0.1);
+        assertEquals(0.5, instance.distance("String1", "Srring1"), 0.1);
+        assertEquals(1.5, instance.distance("String1", "Srring2"), 0.1);
+    }
+
+    @Test
+    public final void testUnitInsDel() {
+        // the band is only used with unit insertions and deletions
+        check(new WeightedLevenshtein(SUBSTITUTION), SUBSTITUTION, null, 13);
+        check(new WeightedLevenshtein(
+                new CharacterCostTable("abcdefg ", SUBSTITUTION)),
+                SUBSTITUTION, null, 14);
+    }
+
+    @Test
+    public final void testWeightedInsDel() {
+        check(new WeightedLevenshtein(SUBSTITUTION, INSDEL),
+                SUBSTITUTION, INSDEL, 15);
+        check(new WeightedLevenshtein(
+                new CharacterCostTable("abcdefg ", SUBSTITUTION, INSDEL)),
+                SUBSTITUTION, INSDEL, 16);
+    }
+
+    @Test
+    public final void testEmpty() {
+        WeightedLevenshtein instance = new WeightedLevenshtein(
+                new CharacterCostTable("abcdefg ", SUBSTITUTION, INSDEL));
+        // the insertion and deletion weights apply to an empty string too
+        assertEquals(4.0, instance.distance("", "abcd"), 1e-9);
+        assertEquals(4.5, instance.distance("abcfg", ""), 1e-9);
+        assertEquals(2.0, instance.distance("", "abcd", 2.0), 1e-9);
+        assertEquals(1.5, instance.distance("abcfg", "", 1.5), 1e-9);
+        assertEquals(2.0, new WeightedLevenshtein(SUBSTITUTION)
+                .distance("", "abcd", 2.0), 1e-9);
+    }
+
+    private void check(final WeightedLevenshtein instance,
+            final CharacterSubstitutionInterface charsub,
+            final CharacterInsDelInterface charchange, final long seed) {
+        RandomStrings random = new RandomStrings(seed);
+        // the alphabet of the tables doesn't cover every char of the strings
+        String[] alphabets = {RandomStrings.TEXT, RandomStrings.HIGH};
+        for (int i = 0; i < 200; i++) {
+            String alphabet = alphabets[i % alphabets.length];
+            String s1 = random.next(alphabet, 0, 100);
+            String s2 = i % 4 == 0
+                    ? random.next(alphabet, 0, 100)
+                    : random.mutate(s1, alphabet, random.nextInt(20));
+            double expected = reference(s1, s2, charsub, charchange);
+            assertEquals(s1 + " / " + s2, expected,
+                    instance.distance(s1, s2), 1e-9);
+
+            double limit = random.nextInt(60) / 4.0;
+            double bounded = instance.distance(s1, s2, limit);
+            if (expected < limit) {
+                assertEquals(s1 + " / " + s2 + " / " + limit, expected,
+                        bounded, 1e-9);
+            } else {
+                assertTrue(s1 + " / " + s2 + " / " + limit,
+                        bounded >= limit);
+            }
+        }
+    }
+}